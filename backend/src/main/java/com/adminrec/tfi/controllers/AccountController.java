@@ -1,9 +1,8 @@
 package com.adminrec.tfi.controllers;
 
-import com.adminrec.tfi.entities.Cuenta;
-import com.adminrec.tfi.entities.Empleado;
 import com.adminrec.tfi.services.ServicioCuenta;
 import com.adminrec.tfi.util.JwtUtil;
+import com.adminrec.tfi.util.dtos.entities.SesionDTO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -29,21 +28,19 @@ public class AccountController {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            Cuenta cuenta = servicio.iniciarSesion(credentials.dni(), credentials.contrasena());
+            SesionDTO sesion = servicio.iniciarSesion(credentials.dni(), credentials.contrasena());
 
             Map<String, Object> claims = new HashMap<>();
-            claims.put("role", cuenta.getRol());
+            claims.put("role", sesion.getRol());
+            claims.put("employee_complete_name", sesion.getApellido() + ", " + sesion.getNombre());
+            claims.put("employee_dni", sesion.getDni());
 
-            Empleado empleado = servicio.obtenerEmpleadoAsociado(credentials.dni());
-            claims.put("employee_complete_name", empleado.getApellido() + ", " + empleado.getNombre());
-            claims.put("employee_dni", empleado.getDni());
-
-            String tk = jwtUtil.generateToken(String.valueOf(cuenta.getEmpleado().getDni()), claims);
+            String tk = jwtUtil.generateToken(String.valueOf(sesion.getDni()), claims);
             response.put("status", "success");
             response.put("mensaje", "Inicio de sesión exitoso");
             response.put("token", tk);
-            response.put("role", cuenta.getRol());
-            response.put("employee_complete_name", empleado.getNombre() + " " +  empleado.getApellido());
+            response.put("role", sesion.getRol());
+            response.put("employee_complete_name", sesion.getNombre() + " " +  sesion.getApellido());
 
             return ResponseEntity.ok(response);
         } catch(Exception e) {
@@ -0,0 +1,98 @@
+package com.adminrec.tfi.controllers;
+
+import com.adminrec.tfi.services.ServicioArchivoEmpleados;
+import com.adminrec.tfi.util.Paginacion;
+import com.adminrec.tfi.util.dtos.entities.ArchivoEmpleadoDTO;
+import com.adminrec.tfi.util.dtos.entities.EmpleadoArchivadoDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Consulta de solo lectura de los empleados archivados y su historial
+@RestController
+@RequestMapping("/api/archive")
+public class ArchiveController {
+    private static final Map<String, String> ORDENES_ARCHIVO = Map.of(
+            "apellido", "apellido",
+            "dni", "dni",
+            "borradoEn", "borradoEn",
+            "archivadoEn", "archivadoEn"
+    );
+
+    private final ServicioArchivoEmpleados servicio;
+
+    public ArchiveController(ServicioArchivoEmpleados servicio) {
+        this.servicio = servicio;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/employees")
+    public ResponseEntity<?> listar(
+            @RequestParam(required = false) Integer dni,
+            @RequestParam(required = false) Integer pagina,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) String orden,
+            @RequestParam(required = false) String direccion
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            Pageable pageable = Paginacion.crear(pagina, tamano, orden, direccion, ORDENES_ARCHIVO, "apellido");
+            Page<EmpleadoArchivadoDTO> empleados = servicio.listar(dni, pageable);
+            response.put("status", "success");
+            response.put("empleados", empleados.getContent());
+            Paginacion.agregarMetadatos(response, empleados);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/employees/{id}")
+    public ResponseEntity<?> buscarUno(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            ArchivoEmpleadoDTO archivo = servicio.buscarUno(id);
+            response.put("status", "success");
+            response.put("archivo", archivo);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Ejecuta el archivado sin esperar al horario programado
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/run")
+    public ResponseEntity<?> archivar() {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            int archivados = servicio.archivar();
+            response.put("status", "success");
+            response.put("archivados", archivados);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.adminrec.tfi.controllers;
+
+import com.adminrec.tfi.services.ServicioCache;
+import com.adminrec.tfi.util.dtos.entities.EstadisticasCacheDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Estado de la cache de segundo nivel de puestos y sectores
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+    private final ServicioCache servicio;
+
+    public CacheController(ServicioCache servicio) {
+        this.servicio = servicio;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stats")
+    public ResponseEntity<?> estadisticas() {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            EstadisticasCacheDTO estadisticas = servicio.estadisticas();
+            response.put("status", "success");
+            response.put("estadisticas", estadisticas);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Para cambios hechos directamente en la base, por fuera de la aplicacion
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/")
+    public ResponseEntity<?> vaciar(@RequestParam(required = false) String region) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            servicio.vaciar(region);
+            response.put("status", "success");
+            response.put("region", region == null ? "todas" : region);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.adminrec.tfi.controllers;
 
 import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.services.ServicioAltaMasivaEmpleados;
+import com.adminrec.tfi.services.ServicioDirectorioEmpleados;
 import com.adminrec.tfi.services.ServicioEmpleado;
+import com.adminrec.tfi.util.Paginacion;
+import com.adminrec.tfi.util.SeleccionCampos;
+import com.adminrec.tfi.util.dtos.entities.AltaEmpleadoDTO;
+import com.adminrec.tfi.util.dtos.entities.CoincidenciaEmpleadoDTO;
 import com.adminrec.tfi.util.dtos.entities.EmpleadoDTO;
+import com.adminrec.tfi.util.dtos.entities.ResultadoAltaMasivaDTO;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -18,10 +28,18 @@ import java.util.Map;
 @RequestMapping("/api/employees")
 public class EmployeeController {
     private final ServicioEmpleado servicio;
-
-    public EmployeeController(ServicioEmpleado servicio)
+    private final ServicioDirectorioEmpleados servicioDirectorio;
+    private final ServicioAltaMasivaEmpleados servicioAltaMasiva;
+
+    public EmployeeController(
+            ServicioEmpleado servicio,
+            ServicioDirectorioEmpleados servicioDirectorio,
+            ServicioAltaMasivaEmpleados servicioAltaMasiva
+    )
     {
         this.servicio=servicio;
+        this.servicioDirectorio = servicioDirectorio;
+        this.servicioAltaMasiva = servicioAltaMasiva;
     }
 
     public record RegistroEmpleadoDTO(
@@ -32,11 +50,53 @@ public class EmployeeController {
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/")
-    public ResponseEntity<?> listar() {
+    public ResponseEntity<?> listar(
+            @RequestParam(required = false) Long idSector,
+            @RequestParam(required = false) Long idPuesto,
+            @RequestParam(required = false) Integer pagina,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) String orden,
+            @RequestParam(required = false) String direccion,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String vista
+    ) {
         Map<String, Object> response = new HashMap<String, Object>();
 
         try {
-            List<EmpleadoDTO> empleados = servicio.listar();
+            Pageable pageable = Paginacion.crear(pagina, tamano, orden, direccion, ServicioEmpleado.ORDENES, "apellido");
+
+            // Sin fields ni vista se mantiene la respuesta completa con puesto y sector anidados
+            Page<?> empleados;
+            if (fields == null && vista == null) {
+                empleados = servicio.listar(idSector, idPuesto, pageable);
+            } else {
+                List<String> campos = SeleccionCampos.resolver(
+                        fields, vista, ServicioEmpleado.VISTAS, SeleccionCampos.vistaDelUsuario(ServicioEmpleado.VISTA_POR_ROL)
+                );
+                empleados = servicio.listarCampos(campos, idSector, idPuesto, pageable);
+            }
+
+            response.put("status", "success");
+            response.put("empleados", empleados.getContent());
+            Paginacion.agregarMetadatos(response, empleados);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Busqueda para autocompletar sobre apellido, nombre, dni y correo
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/search")
+    public ResponseEntity<?> buscar(@RequestParam String q, @RequestParam(defaultValue = "10") Integer limite) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<CoincidenciaEmpleadoDTO> empleados = servicioDirectorio.buscar(q, limite);
             response.put("status", "success");
             response.put("empleados", empleados);
 
@@ -89,6 +149,45 @@ public class EmployeeController {
         }
     }
 
+    // Cada fila se valida por separado; el resultado indica cuales se crearon y por que se rechazaron las demas
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> crearVarios(@RequestBody List<AltaEmpleadoDTO> altas) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            return respuestaAltaMasiva(servicioAltaMasiva.importar(altas));
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<?> crearVariosCsv(@RequestBody String contenido) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            return respuestaAltaMasiva(servicioAltaMasiva.importarCsv(contenido));
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    private ResponseEntity<?> respuestaAltaMasiva(ResultadoAltaMasivaDTO resultado) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "success");
+        response.put("resultado", resultado);
+
+        return ResponseEntity.status(resultado.getCreados() > 0 ? HttpStatus.CREATED : HttpStatus.OK).body(response);
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/{id}")
     public ResponseEntity<?> actualizar(@PathVariable Long id, @RequestBody @Valid EmpleadoDTO dto) {
@@ -1,14 +1,17 @@
 package com.adminrec.tfi.controllers;
 
+import com.adminrec.tfi.services.ServicioDotacion;
 import com.adminrec.tfi.services.ServicioIngresoEgreso;
+import com.adminrec.tfi.util.dtos.entities.ConsultaPuestoEnFechaDTO;
 import com.adminrec.tfi.util.dtos.entities.IngresoEgresoDTO;
+import com.adminrec.tfi.util.dtos.entities.PuestoEnFechaDTO;
+import com.adminrec.tfi.util.dtos.entities.SerieDotacionDTO;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,9 +20,11 @@ import java.util.Map;
 @RequestMapping("/api/employeehistory")
 public class EmploymentHistoryController {
     private final ServicioIngresoEgreso servicio;
+    private final ServicioDotacion servicioDotacion;
 
-    public EmploymentHistoryController(ServicioIngresoEgreso servicio) {
+    public EmploymentHistoryController(ServicioIngresoEgreso servicio, ServicioDotacion servicioDotacion) {
         this.servicio = servicio;
+        this.servicioDotacion = servicioDotacion;
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -42,4 +47,95 @@ public class EmploymentHistoryController {
             return ResponseEntity.badRequest().body(response);
         }
     }
+
+    // Puesto que tenia el empleado en la fecha indicada
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{idEmpleado}/asof")
+    public ResponseEntity<?> buscarEnFecha(
+            @PathVariable Long idEmpleado,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            IngresoEgresoDTO periodo = servicio.buscarEnFecha(idEmpleado, fecha);
+            response.put("status", "success");
+            response.put("periodo", periodo);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Empleados que ocupaban el puesto en la fecha indicada
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/positions/{idPuesto}/asof")
+    public ResponseEntity<?> listarOcupantesEnFecha(
+            @PathVariable Long idPuesto,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<IngresoEgresoDTO> ocupantes = servicio.listarOcupantesEnFecha(idPuesto, fecha);
+            response.put("status", "success");
+            response.put("ocupantes", ocupantes);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Muchas consultas (empleado, fecha) en una sola llamada, por ejemplo para recalcular liquidaciones pasadas
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/asof")
+    public ResponseEntity<?> resolverPuestosEnFechas(@RequestBody List<ConsultaPuestoEnFechaDTO> consultas) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<PuestoEnFechaDTO> puestos = servicio.resolverPuestosEnFechas(consultas);
+            response.put("status", "success");
+            response.put("puestos", puestos);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Dotacion por sector con altas, bajas y transferencias, por dia o por mes
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/headcount")
+    public ResponseEntity<?> serieDotacion(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "mes") String granularidad,
+            @RequestParam(required = false) Long idSector
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<SerieDotacionDTO> series = servicioDotacion.serie(desde, hasta, granularidad, idSector);
+            response.put("status", "success");
+            response.put("series", series);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
 }
@@ -0,0 +1,102 @@
+package com.adminrec.tfi.controllers;
+
+import com.adminrec.tfi.services.ServicioJerarquia;
+import com.adminrec.tfi.util.dtos.entities.NodoJerarquiaDTO;
+import com.adminrec.tfi.util.dtos.entities.TamanoEquipoDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/hierarchy")
+public class HierarchyController {
+    private final ServicioJerarquia servicio;
+
+    public HierarchyController(ServicioJerarquia servicio) {
+        this.servicio = servicio;
+    }
+
+    public record SupervisorPayload(Long idSupervisor) {}
+
+    // Todos los empleados que dependen directa o indirectamente del empleado indicado
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPERVISOR')")
+    @GetMapping("/{id}/reports")
+    public ResponseEntity<?> listarSubordinados(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<NodoJerarquiaDTO> subordinados = servicio.listarSubordinados(id);
+            response.put("status", "success");
+            response.put("subordinados", subordinados);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Supervisores del empleado, desde el directo hasta la raiz
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPERVISOR')")
+    @GetMapping("/{id}/chain")
+    public ResponseEntity<?> listarCadenaDeMando(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<NodoJerarquiaDTO> cadena = servicio.listarCadenaDeMando(id);
+            response.put("status", "success");
+            response.put("cadena", cadena);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPERVISOR')")
+    @GetMapping("/teams")
+    public ResponseEntity<?> contarEquipos() {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<TamanoEquipoDTO> equipos = servicio.contarEquipos();
+            response.put("status", "success");
+            response.put("equipos", equipos);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/supervisor")
+    public ResponseEntity<?> asignarSupervisor(@PathVariable Long id, @RequestBody SupervisorPayload payload) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<NodoJerarquiaDTO> cadena = servicio.asignarSupervisor(id, payload.idSupervisor());
+            response.put("status", "success");
+            response.put("cadena", cadena);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.adminrec.tfi.controllers;
 
 import com.adminrec.tfi.services.ServicioPuesto;
+import com.adminrec.tfi.util.Paginacion;
+import com.adminrec.tfi.util.dtos.entities.AjusteValorHoraDTO;
+import com.adminrec.tfi.util.dtos.entities.HistorialValorHoraDTO;
 import com.adminrec.tfi.util.dtos.entities.PuestoDTO;
+import com.adminrec.tfi.util.dtos.entities.ResultadoAjusteValorHoraDTO;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,6 +23,12 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/jobpositions")
 public class JobPositionController {
+    private static final Map<String, String> ORDENES_PUESTOS = Map.of(
+            "nombre", "nombre",
+            "valorHora", "valorHora",
+            "sector", "sector.nombre"
+    );
+
     private final ServicioPuesto servicio;
 
     public JobPositionController(ServicioPuesto servicio) {
@@ -22,13 +37,21 @@ public class JobPositionController {
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/")
-    public ResponseEntity<?> listar() {
+    public ResponseEntity<?> listar(
+            @RequestParam(required = false) Long idSector,
+            @RequestParam(required = false) Integer pagina,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) String orden,
+            @RequestParam(required = false) String direccion
+    ) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            List<PuestoDTO> puestos = servicio.listar();
+            Pageable pageable = Paginacion.crear(pagina, tamano, orden, direccion, ORDENES_PUESTOS, "nombre");
+            Page<PuestoDTO> puestos = servicio.listar(idSector, pageable);
             response.put("status", "success");
-            response.put("puestos", puestos);
+            response.put("puestos", puestos.getContent());
+            Paginacion.agregarMetadatos(response, puestos);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -77,6 +100,26 @@ public class JobPositionController {
         }
     }
 
+    // Ajuste porcentual o fijo del valor hora de todos los puestos activos, o solo los de un sector
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/rates/adjust")
+    public ResponseEntity<?> ajustarValoresHora(@RequestBody @Valid AjusteValorHoraDTO dto) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            ResultadoAjusteValorHoraDTO ajuste = servicio.ajustarValoresHora(dto);
+            response.put("status", "success");
+            response.put("ajuste", ajuste);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/{id}")
     public ResponseEntity<?> actualizar(@PathVariable Long id, @RequestBody PuestoDTO dto) {
@@ -114,4 +157,48 @@ public class JobPositionController {
             return ResponseEntity.badRequest().body(response);
         }
     }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{id}/rates")
+    public ResponseEntity<?> listarValoresHora(@PathVariable Long id) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<HistorialValorHoraDTO> historial = servicio.listarValoresHora(id);
+            response.put("status", "success");
+            response.put("historial", historial);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Valor hora que tenia el puesto en la fecha indicada
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/{id}/rates/asof")
+    public ResponseEntity<?> buscarValorHoraEnFecha(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha
+    ) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            Double valorHora = servicio.buscarValorHoraEnFecha(id, fecha);
+            response.put("status", "success");
+            response.put("idPuesto", id);
+            response.put("fecha", fecha);
+            response.put("valorHora", valorHora);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
 }
@@ -1,27 +1,65 @@
 package com.adminrec.tfi.controllers;
 
+import com.adminrec.tfi.exceptions.FechasSolicitudInvalidasException;
+import com.adminrec.tfi.services.ServicioAusencias;
+import com.adminrec.tfi.services.ServicioNotificacionesSolicitudes;
+import com.adminrec.tfi.services.ServicioSaldosLicencias;
 import com.adminrec.tfi.services.ServicioSolicitudes;
+import com.adminrec.tfi.util.JwtUtil;
+import com.adminrec.tfi.util.dtos.entities.BandejaSolicitudesDTO;
+import com.adminrec.tfi.util.dtos.entities.ResultadoCambioMasivoDTO;
+import com.adminrec.tfi.util.dtos.entities.SaldoLicenciaDTO;
 import com.adminrec.tfi.util.dtos.entities.SolicitudDTO;
+import com.adminrec.tfi.util.enums.Rol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/requests")
 public class RequestController {
+    private static final int MAXIMO_DIAS_AUSENCIAS = 366;
+
     private final ServicioSolicitudes servicio;
+    private final ServicioNotificacionesSolicitudes servicioNotificaciones;
+    private final ServicioSaldosLicencias servicioSaldos;
+    private final ServicioAusencias servicioAusencias;
+    private final JwtUtil jwtUtil;
+    private final Duration vigenciaTokenStream;
 
-    public RequestController(ServicioSolicitudes servicio) {
+    public RequestController(
+            ServicioSolicitudes servicio,
+            ServicioNotificacionesSolicitudes servicioNotificaciones,
+            ServicioSaldosLicencias servicioSaldos,
+            ServicioAusencias servicioAusencias,
+            JwtUtil jwtUtil,
+            @Value("${solicitudes.stream.vigencia-token:60s}") Duration vigenciaTokenStream
+    ) {
         this.servicio = servicio;
+        this.servicioNotificaciones = servicioNotificaciones;
+        this.servicioSaldos = servicioSaldos;
+        this.servicioAusencias = servicioAusencias;
+        this.jwtUtil = jwtUtil;
+        this.vigenciaTokenStream = vigenciaTokenStream;
     }
 
-    public record EstadoPayload(String estado) {}
+    // version es opcional: si se envia, el cambio se rechaza cuando otro supervisor modifico la solicitud
+    public record EstadoPayload(String estado, Long version) {}
+    public record SolicitudVersion(Long id, Long version) {}
+    public record CambioMasivoPayload(String estado, List<SolicitudVersion> solicitudes) {}
 
     // Lista todas las solicitudes que realizo un empleado
     @PreAuthorize("hasRole('EMPLOYEE')")
@@ -69,19 +107,190 @@ public class RequestController {
         }
     }
 
-    // Lista todas las solicitudes del sector al que pertenece el supervisor
+    // Lista las solicitudes del sector al que pertenece el supervisor. Sin filtros ni limite devuelve todas;
+    // con limite se pagina enviando en cursor el siguienteCursor de la respuesta anterior
     @PreAuthorize("hasRole('SUPERVISOR')")
     @GetMapping("/all")
-    public ResponseEntity<?> listarTodas() {
+    public ResponseEntity<?> listarTodas(
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limite
+    ) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         Integer dni = Integer.valueOf(auth.getName());
 
         Map<String, Object> response = new HashMap<>();
 
         try {
-            List<SolicitudDTO> solicitudes = servicio.listarTodasParaElSupervisor(dni);
+            BandejaSolicitudesDTO bandeja = servicio.listarTodasParaElSupervisor(dni, estado, tipo, desde, hasta, cursor, limite);
             response.put("status", "success");
-            response.put("solicitudes", solicitudes);
+            response.put("solicitudes", bandeja.getSolicitudes());
+            response.put("cantidadesPorEstado", bandeja.getCantidadesPorEstado());
+            response.put("siguienteCursor", bandeja.getSiguienteCursor());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Cantidad de empleados del sector del supervisor ausentes (con solicitud pendiente o aceptada) por dia
+    @PreAuthorize("hasRole('SUPERVISOR')")
+    @GetMapping("/absences")
+    public ResponseEntity<?> contarAusencias(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta
+    ) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Integer dni = Integer.valueOf(auth.getName());
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            LocalDate fin = hasta == null ? desde : hasta;
+
+            if (fin.isBefore(desde) || fin.isAfter(desde.plusDays(MAXIMO_DIAS_AUSENCIAS - 1))) {
+                throw new FechasSolicitudInvalidasException("El rango debe ser de entre 1 y " + MAXIMO_DIAS_AUSENCIAS + " días");
+            }
+
+            Long idSector = servicio.buscarIdSectorDelEmpleado(dni);
+            response.put("status", "success");
+            response.put("ausencias", servicioAusencias.contarAusentes(idSector, desde, fin));
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Dias aprobados y disponibles del empleado autenticado, por tipo de solicitud
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    @GetMapping("/balance")
+    public ResponseEntity<?> consultarSaldo(@RequestParam(required = false) Integer anio) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Integer dni = Integer.valueOf(auth.getName());
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<SaldoLicenciaDTO> saldos = servicioSaldos.listarParaEmpleado(dni, anio);
+            response.put("status", "success");
+            response.put("saldos", saldos);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PreAuthorize("hasRole('SUPERVISOR')")
+    @GetMapping("/balance/{idEmpleado}")
+    public ResponseEntity<?> consultarSaldoDeEmpleado(@PathVariable Long idEmpleado, @RequestParam(required = false) Integer anio) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Integer dni = Integer.valueOf(auth.getName());
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<SaldoLicenciaDTO> saldos = servicioSaldos.listarParaSupervisor(dni, idEmpleado, anio);
+            response.put("status", "success");
+            response.put("saldos", saldos);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Recalcula todos los saldos a partir de las solicitudes aceptadas
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/balance/rebuild")
+    public ResponseEntity<?> reconstruirSaldos() {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            int filas = servicioSaldos.reconstruir();
+            response.put("status", "success");
+            response.put("saldos", filas);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("mensaje", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Token corto para abrir el stream desde un EventSource, que no puede mandar la cabecera Authorization:
+    // se pasa como /api/requests/stream?token=... y no sirve para ninguna otra ruta
+    @PreAuthorize("hasRole('SUPERVISOR')")
+    @PostMapping("/stream/token")
+    public ResponseEntity<?> tokenStream() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Map<String, Object> response = new HashMap<>();
+
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", Rol.SUPERVISOR.name());
+        claims.put(JwtUtil.CLAIM_USO, JwtUtil.USO_STREAM);
+
+        response.put("status", "success");
+        response.put("token", jwtUtil.generateToken(auth.getName(), claims, vigenciaTokenStream.toMillis()));
+        response.put("vigenciaSegundos", vigenciaTokenStream.toSeconds());
+
+        return ResponseEntity.ok(response);
+    }
+
+    // Stream SSE con las solicitudes creadas o modificadas en el sector del supervisor. Al reconectar, el
+    // navegador envia Last-Event-ID y se reenvian los eventos posteriores que sigan en memoria. Si el token de la
+    // URL ya vencio el cliente pide otro y reabre con ?ultimoEvento=, porque un EventSource nuevo no manda Last-Event-ID
+    @PreAuthorize("hasRole('SUPERVISOR')")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter suscribirse(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long ultimoEventoRecibido,
+            @RequestParam(value = "ultimoEvento", required = false) Long ultimoEventoPedido
+    ) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Integer dni = Integer.valueOf(auth.getName());
+
+        Long idSector = servicio.buscarIdSectorDelEmpleado(dni);
+
+        return servicioNotificaciones.suscribir(idSector, ultimoEventoRecibido != null ? ultimoEventoRecibido : ultimoEventoPedido);
+    }
+
+    // Aprueba o rechaza muchas solicitudes del sector del supervisor en una sola sentencia
+    @PreAuthorize("hasRole('SUPERVISOR')")
+    @PutMapping("/bulk")
+    public ResponseEntity<?> cambiarEstadoMasivo(@RequestBody CambioMasivoPayload payload) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        Integer dni = Integer.valueOf(auth.getName());
+
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            Map<Long, Long> versiones = new LinkedHashMap<>();
+            payload.solicitudes().forEach(s -> versiones.put(s.id(), s.version()));
+
+            ResultadoCambioMasivoDTO resultado = servicio.cambiarEstadoMasivo(dni, payload.estado(), versiones);
+            response.put("status", "success");
+            response.put("cambiadas", resultado.getCambiadas());
+            response.put("conflictos", resultado.getConflictos());
+            response.put("invalidas", resultado.getInvalidas());
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -98,7 +307,7 @@ public class RequestController {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            SolicitudDTO solicitud = servicio.cambiarEstado(id, estado.estado());
+            SolicitudDTO solicitud = servicio.cambiarEstado(id, estado.estado(), estado.version());
             response.put("status", "success");
             response.put("solicitud", solicitud);
 
@@ -1,13 +1,17 @@
 package com.adminrec.tfi.controllers;
 
 import com.adminrec.tfi.services.ServicioEmpleado;
+import com.adminrec.tfi.util.Paginacion;
 import com.adminrec.tfi.util.dtos.entities.AsistenciaDTO;
 import com.adminrec.tfi.util.dtos.entities.EmpleadoDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
@@ -25,13 +29,22 @@ public class SalariesController {
 
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPERVISOR')")
     @GetMapping("/")
-    public ResponseEntity<?> listarEmpleados() {
+    public ResponseEntity<?> listarEmpleados(
+            @RequestParam(required = false) Long idSector,
+            @RequestParam(required = false) Long idPuesto,
+            @RequestParam(required = false) Integer pagina,
+            @RequestParam(required = false) Integer tamano,
+            @RequestParam(required = false) String orden,
+            @RequestParam(required = false) String direccion
+    ) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            List<EmpleadoDTO> empleados = servicio.listar();
+            Pageable pageable = Paginacion.crear(pagina, tamano, orden, direccion, ServicioEmpleado.ORDENES, "apellido");
+            Page<EmpleadoDTO> empleados = servicio.listar(idSector, idPuesto, pageable);
             response.put("status", "success");
-            response.put("empleados", empleados);
+            response.put("empleados", empleados.getContent());
+            Paginacion.agregarMetadatos(response, empleados);
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -1,12 +1,13 @@
 package com.adminrec.tfi.controllers;
 
 import com.adminrec.tfi.services.ServicioSector;
-import com.adminrec.tfi.util.dtos.entities.DetalleSectorDTO;
+import com.adminrec.tfi.util.SeleccionCampos;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.HashMap;
@@ -22,13 +23,20 @@ public class SectorController {
         this.servicio = servicio;
     }
 
+    // Cada rol recibe su vista por defecto; fields= y vista= permiten pedir menos campos
     @PreAuthorize("hasRole('SUPERVISOR') or hasRole('EMPLOYEE')")
     @GetMapping("/")
-    public ResponseEntity<?> listar() {
+    public ResponseEntity<?> listar(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String vista
+    ) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            List<DetalleSectorDTO> sectores = servicio.listar();
+            List<String> campos = SeleccionCampos.resolver(
+                    fields, vista, ServicioSector.VISTAS, SeleccionCampos.vistaDelUsuario(ServicioSector.VISTA_POR_ROL)
+            );
+            List<Map<String, Object>> sectores = servicio.listar(campos);
 
             response.put("status", "success");
             response.put("sectores", sectores);
@@ -43,11 +51,18 @@ public class SectorController {
 
     @PreAuthorize("hasRole('SUPERVISOR') or hasRole('EMPLOYEE')")
     @GetMapping("/{id}")
-    public ResponseEntity<?> buscarUno(@PathVariable Long id) {
+    public ResponseEntity<?> buscarUno(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String vista
+    ) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            DetalleSectorDTO sector = servicio.buscarUno(id);
+            List<String> campos = SeleccionCampos.resolver(
+                    fields, vista, ServicioSector.VISTAS, SeleccionCampos.vistaDelUsuario(ServicioSector.VISTA_POR_ROL)
+            );
+            Map<String, Object> sector = servicio.buscarUno(id, campos);
             response.put("status", "success");
             response.put("sector", sector);
 
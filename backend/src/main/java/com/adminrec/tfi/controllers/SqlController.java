@@ -0,0 +1,102 @@
+package com.adminrec.tfi.controllers;
+
+import com.adminrec.tfi.services.ServicioConsultasLentas;
+import com.adminrec.tfi.services.ServicioMonitoreoSql;
+import com.adminrec.tfi.util.dtos.entities.ConsultaLentaDTO;
+import com.adminrec.tfi.util.dtos.entities.EstadisticasEndpointSqlDTO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Sentencias, filas y tiempo JDBC acumulados por endpoint desde el arranque o el ultimo reinicio, y las ultimas
+// consultas lentas con su plan
+@RestController
+@RequestMapping("/api/sql")
+public class SqlController {
+    private final ServicioMonitoreoSql servicio;
+    private final ServicioConsultasLentas servicioConsultasLentas;
+
+    public SqlController(ServicioMonitoreoSql servicio, ServicioConsultasLentas servicioConsultasLentas) {
+        this.servicio = servicio;
+        this.servicioConsultasLentas = servicioConsultasLentas;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stats")
+    public ResponseEntity<?> estadisticas() {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<EstadisticasEndpointSqlDTO> endpoints = servicio.estadisticas();
+            response.put("status", "success");
+            response.put("endpoints", endpoints);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/stats")
+    public ResponseEntity<?> reiniciar() {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            servicio.reiniciar();
+            response.put("status", "success");
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Las mas recientes primero; el plan puede seguir PENDIENTE si el EXPLAIN todavia no termino
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/slow")
+    public ResponseEntity<?> consultasLentas(@RequestParam(required = false) Integer limite) {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            List<ConsultaLentaDTO> consultas = servicioConsultasLentas.listar(limite);
+            response.put("status", "success");
+            response.put("consultas", consultas);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/slow")
+    public ResponseEntity<?> vaciarConsultasLentas() {
+        Map<String, Object> response = new HashMap<>();
+
+        try {
+            servicioConsultasLentas.vaciar();
+            response.put("status", "success");
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("status", "error");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.adminrec.tfi.controllers;
 
 import com.adminrec.tfi.services.ServicioSector;
+import com.adminrec.tfi.util.SeleccionCampos;
 import com.adminrec.tfi.util.dtos.entities.DetalleSectorDTO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -23,13 +24,23 @@ public class SupervisorController {
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/")
-    public ResponseEntity<?> listar() {
+    public ResponseEntity<?> listar(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String vista
+    ) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            List<DetalleSectorDTO> sectores = servicio.listar();
             response.put("status", "success");
-            response.put("sectores", sectores);
+
+            if (fields == null && vista == null) {
+                response.put("sectores", servicio.listar());
+            } else {
+                List<String> campos = SeleccionCampos.resolver(
+                        fields, vista, ServicioSector.VISTAS, SeleccionCampos.vistaDelUsuario(ServicioSector.VISTA_POR_ROL)
+                );
+                response.put("sectores", servicio.listar(campos));
+            }
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -42,13 +53,24 @@ public class SupervisorController {
 
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping("/{id}")
-    public ResponseEntity<?> buscarUno(@PathVariable Long id) {
+    public ResponseEntity<?> buscarUno(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String vista
+    ) {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            DetalleSectorDTO sectores = servicio.buscarUno(id);
             response.put("status", "success");
-            response.put("sectores", sectores);
+
+            if (fields == null && vista == null) {
+                response.put("sectores", servicio.buscarUno(id));
+            } else {
+                List<String> campos = SeleccionCampos.resolver(
+                        fields, vista, ServicioSector.VISTAS, SeleccionCampos.vistaDelUsuario(ServicioSector.VISTA_POR_ROL)
+                );
+                response.put("sectores", servicio.buscarUno(id, campos));
+            }
 
             return ResponseEntity.ok(response);
         } catch (Exception e) {
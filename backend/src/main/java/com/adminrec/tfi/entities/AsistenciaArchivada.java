@@ -0,0 +1,29 @@
+package com.adminrec.tfi.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "Asistencias_Archivadas",
+        indexes = @Index(name = "idx_asistencias_archivadas_empleado", columnList = "id_empleado")
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class AsistenciaArchivada {
+    @Id
+    private Long id;
+    @Column(name = "id_empleado", nullable = false)
+    private Long idEmpleado;
+    @Column(name = "creado_en")
+    private LocalDateTime creadoEn;
+    @Column(name = "actualizado_en")
+    private LocalDateTime actualizadoEn;
+}
@@ -14,7 +14,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "Empleados")
+@Table(name = "Empleados", indexes = @Index(name = "idx_empleados_borrado_en", columnList = "borrado_en"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -0,0 +1,57 @@
+package com.adminrec.tfi.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Copia de un empleado borrado que se saco de la tabla Empleados. Conserva el id original y las referencias
+// a puesto y supervisor como valores sueltos, sin claves foraneas
+@Entity
+@Table(
+        name = "Empleados_Archivados",
+        indexes = @Index(name = "idx_empleados_archivados_dni", columnList = "dni")
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class EmpleadoArchivado {
+    @Id
+    @Column(name = "id_empleado")
+    private Long id;
+    @Column(name = "es_supervisor_de_sector", nullable = false)
+    private boolean esSupervisorDeSector;
+    @Column(name = "apellido", length = 50, nullable = false)
+    private String apellido;
+    @Column(name = "nombre", length = 50, nullable = false)
+    private String nombre;
+    @Column(name = "dni", nullable = false)
+    private Integer dni;
+    @Column(name = "correo", nullable = false)
+    private String correo;
+    @Column(name = "domicilio", length = 45)
+    private String domicilio;
+    @Column(name = "fecha_nacimiento")
+    private LocalDate fechaNacimiento;
+    @Column(name = "fecha_contratacion")
+    private LocalDate fechaContratacion;
+    @Column(name = "telefono", length = 12)
+    private String telefono;
+    @Column(name = "creado_en")
+    private LocalDateTime creadoEn;
+    @Column(name = "actualizado_en")
+    private LocalDateTime actualizadoEn;
+    @Column(name = "borrado_en", nullable = false)
+    private LocalDateTime borradoEn;
+    @Column(name = "archivado_en", nullable = false)
+    private LocalDateTime archivadoEn;
+    @Column(name = "id_puesto", nullable = false)
+    private Long idPuesto;
+    @Column(name = "id_supervisor")
+    private Long idSupervisor;
+}
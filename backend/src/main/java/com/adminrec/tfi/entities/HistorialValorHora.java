@@ -0,0 +1,38 @@
+package com.adminrec.tfi.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// Valor hora de un puesto vigente desde vigenteDesde (inclusive) hasta vigenteHasta (exclusive, nulo si sigue vigente)
+@Entity
+@Table(
+        name = "Historial_Valores_Hora",
+        indexes = @Index(name = "idx_historial_valores_hora_puesto_vigencia", columnList = "id_puesto, vigente_desde")
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class HistorialValorHora {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_puesto", nullable = false)
+    private Puesto puesto;
+
+    @Column(name = "valor_hora", nullable = false)
+    private Double valorHora;
+
+    @Column(name = "vigente_desde", nullable = false)
+    private LocalDate vigenteDesde;
+
+    @Column(name = "vigente_hasta")
+    private LocalDate vigenteHasta;
+}
@@ -11,7 +11,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Ingresos_Egresos")
+@Table(
+        name = "Ingresos_Egresos",
+        indexes = {
+                @Index(name = "idx_ingresos_egresos_empleado_creado_en", columnList = "id_empleado, creado_en"),
+                @Index(name = "idx_ingresos_egresos_puesto_vigencia", columnList = "id_puesto, creado_en, actualizado_en")
+        }
+)
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
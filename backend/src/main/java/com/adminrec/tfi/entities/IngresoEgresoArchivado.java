@@ -0,0 +1,31 @@
+package com.adminrec.tfi.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(
+        name = "Ingresos_Egresos_Archivados",
+        indexes = @Index(name = "idx_ingresos_egresos_archivados_empleado", columnList = "id_empleado")
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class IngresoEgresoArchivado {
+    @Id
+    private Long id;
+    @Column(name = "id_empleado", nullable = false)
+    private Long idEmpleado;
+    @Column(name = "id_puesto", nullable = false)
+    private Long idPuesto;
+    @Column(name = "creado_en")
+    private LocalDate creadoEn;
+    @Column(name = "actualizado_en")
+    private LocalDate actualizadoEn;
+}
@@ -0,0 +1,40 @@
+package com.adminrec.tfi.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Tabla de clausura de la relacion empleado -> supervisor: una fila por cada par (ancestro, descendiente),
+// incluida la fila de cada empleado consigo mismo con profundidad 0
+@Entity
+@Table(
+        name = "Jerarquia_Empleados",
+        uniqueConstraints = @UniqueConstraint(name = "uk_jerarquia_ancestro_descendiente", columnNames = {"id_ancestro", "id_descendiente"}),
+        indexes = @Index(name = "idx_jerarquia_descendiente_profundidad", columnList = "id_descendiente, profundidad")
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class JerarquiaEmpleado {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "id_ancestro", nullable = false)
+    private Long idAncestro;
+
+    @Column(name = "id_descendiente", nullable = false)
+    private Long idDescendiente;
+
+    @Column(name = "profundidad", nullable = false)
+    private Integer profundidad;
+
+    public JerarquiaEmpleado(Long idAncestro, Long idDescendiente, Integer profundidad) {
+        this.idAncestro = idAncestro;
+        this.idDescendiente = idDescendiente;
+        this.profundidad = profundidad;
+    }
+}
@@ -2,6 +2,8 @@ package com.adminrec.tfi.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -10,7 +12,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "Puestos")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "puestos")
+@Table(name = "Puestos", indexes = @Index(name = "idx_puestos_borrado_en", columnList = "borrado_en"))
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
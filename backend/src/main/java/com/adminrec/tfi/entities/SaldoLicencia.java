@@ -0,0 +1,42 @@
+package com.adminrec.tfi.entities;
+
+import com.adminrec.tfi.util.enums.TipoSolicitud;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Dias ya aprobados por empleado, año y tipo de solicitud. Se mantiene de forma incremental desde ServicioSolicitudes
+@Entity
+@Table(
+        name = "Saldos_Licencias",
+        uniqueConstraints = @UniqueConstraint(name = "uk_saldo_empleado_anio_tipo", columnNames = {"id_empleado", "anio", "tipo_solicitud"})
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class SaldoLicencia {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "id_empleado", nullable = false)
+    private Long idEmpleado;
+
+    @Column(name = "anio", nullable = false)
+    private Integer anio;
+
+    @Column(name = "tipo_solicitud", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TipoSolicitud tipoSolicitud;
+
+    @Column(name = "dias_usados", nullable = false)
+    private Integer diasUsados;
+
+    @Column(name = "actualizado_en")
+    private LocalDateTime actualizadoEn;
+}
@@ -10,10 +10,14 @@ import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Solicitudes")
+@Table(
+        name = "Solicitudes",
+        indexes = @Index(name = "idx_solicitudes_sector_estado_creado", columnList = "id_sector, estado_solicitud, creado_en")
+)
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -27,6 +31,11 @@ public class Solicitud {
     private TipoSolicitud tipoSolicitud;
     @Column(name = "duracion", nullable = false)
     private Integer duracionDias;
+    // Opcionales para no invalidar las solicitudes previas; fechaFin se deriva de fechaInicio y la duracion
+    @Column(name = "fecha_inicio")
+    private LocalDate fechaInicio;
+    @Column(name = "fecha_fin")
+    private LocalDate fechaFin;
     @Column(name = "motivo", nullable = false)
     private String motivo;
     @Column(name = "estado_solicitud", nullable = false)
@@ -36,12 +45,24 @@ public class Solicitud {
     @ManyToOne(fetch = FetchType.LAZY)
     private Empleado empleado;
 
+    // Copia del sector del empleado al momento de la solicitud, mantenida al cambiar de puesto
+    @Column(name = "id_sector")
+    private Long idSector;
+
+    // Las filas previas a la columna quedan en 0 al agregarla
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint not null default 0")
+    private Long version;
+
     @CreationTimestamp
     @Column(name = "creado_en", updatable = false)
     private LocalDateTime creadoEn;
     @UpdateTimestamp
     @Column(name = "actualizado_en")
     private LocalDateTime actualizadoEn;
+    // Se completa cuando la solicitud sigue pendiente al vencer el plazo de respuesta
+    @Column(name = "escalada_en")
+    private LocalDateTime escaladaEn;
     @Column(name = "borrado_en")
     private LocalDateTime borradoEn;
 }
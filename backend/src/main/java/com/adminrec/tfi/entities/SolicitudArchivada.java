@@ -0,0 +1,54 @@
+package com.adminrec.tfi.entities;
+
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.enums.TipoSolicitud;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(
+        name = "Solicitudes_Archivadas",
+        indexes = @Index(name = "idx_solicitudes_archivadas_empleado", columnList = "id_empleado")
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class SolicitudArchivada {
+    @Id
+    private Long id;
+    @Column(name = "tipo_solicitud", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private TipoSolicitud tipoSolicitud;
+    @Column(name = "duracion", nullable = false)
+    private Integer duracionDias;
+    @Column(name = "fecha_inicio")
+    private LocalDate fechaInicio;
+    @Column(name = "fecha_fin")
+    private LocalDate fechaFin;
+    @Column(name = "motivo", nullable = false)
+    private String motivo;
+    @Column(name = "estado_solicitud", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private EstadoSolicitud estadoSolicitud;
+    @Column(name = "id_empleado", nullable = false)
+    private Long idEmpleado;
+    @Column(name = "id_sector")
+    private Long idSector;
+    @Column(name = "version", nullable = false)
+    private Long version;
+    @Column(name = "creado_en")
+    private LocalDateTime creadoEn;
+    @Column(name = "actualizado_en")
+    private LocalDateTime actualizadoEn;
+    @Column(name = "escalada_en")
+    private LocalDateTime escaladaEn;
+    @Column(name = "borrado_en")
+    private LocalDateTime borradoEn;
+}
@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class AjusteValorHoraInvalidoException extends RuntimeException {
+    public AjusteValorHoraInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class ArchivadoEnCursoException extends RuntimeException {
+    public ArchivadoEnCursoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class ArchivoAltaMasivaInvalidoException extends RuntimeException {
+    public ArchivoAltaMasivaInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class CamposInvalidosException extends RuntimeException {
+    public CamposInvalidosException(String message) {
+        super(message);
+    }
+}
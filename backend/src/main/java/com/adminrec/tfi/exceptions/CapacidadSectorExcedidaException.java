@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class CapacidadSectorExcedidaException extends RuntimeException {
+    public CapacidadSectorExcedidaException(String message) {
+        super(message);
+    }
+}
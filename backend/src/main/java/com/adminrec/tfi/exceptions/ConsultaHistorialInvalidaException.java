@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class ConsultaHistorialInvalidaException extends RuntimeException {
+    public ConsultaHistorialInvalidaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class CursorInvalidoException extends RuntimeException {
+    public CursorInvalidoException(String message) {
+        super(message);
+    }
+}
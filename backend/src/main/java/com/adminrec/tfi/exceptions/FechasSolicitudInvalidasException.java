@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class FechasSolicitudInvalidasException extends RuntimeException {
+    public FechasSolicitudInvalidasException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class JerarquiaInvalidaException extends RuntimeException {
+    public JerarquiaInvalidaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class RegionCacheInexistenteException extends RecursoInexistenteException {
+    public RegionCacheInexistenteException(String message) {
+        super(message);
+    }
+}
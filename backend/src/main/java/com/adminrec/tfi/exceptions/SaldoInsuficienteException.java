@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class SaldoInsuficienteException extends RuntimeException {
+    public SaldoInsuficienteException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class SolicitudModificadaException extends RuntimeException {
+    public SolicitudModificadaException(String message) {
+        super(message);
+    }
+}
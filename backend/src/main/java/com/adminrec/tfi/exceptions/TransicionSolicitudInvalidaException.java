@@ -0,0 +1,7 @@
+package com.adminrec.tfi.exceptions;
+
+public class TransicionSolicitudInvalidaException extends RuntimeException {
+    public TransicionSolicitudInvalidaException(String message) {
+        super(message);
+    }
+}
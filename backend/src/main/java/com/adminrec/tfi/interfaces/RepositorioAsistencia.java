@@ -12,4 +12,5 @@ import java.util.Optional;
 public interface RepositorioAsistencia extends JpaRepository<Asistencia, Long> {
     List<Asistencia> findAllByEmpleado_DniAndCreadoEnBetween(Integer empleadoDni, LocalDateTime fechaInicio, LocalDateTime fechaFin);
     List<Asistencia> findAllByEmpleado_Dni(Integer empleadoDni);
+    List<Asistencia> findAllByEmpleado_Id(Long idEmpleado);
 }
@@ -1,13 +1,58 @@
 package com.adminrec.tfi.interfaces;
 
 import com.adminrec.tfi.entities.Cuenta;
+import com.adminrec.tfi.util.enums.Rol;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface RepositorioCuentas extends JpaRepository<Cuenta, Long> {
     Cuenta findByEmpleado_Dni(Integer dni);
+
+    // Inicio de sesion: la cuenta y su empleado en una sola consulta
+    @EntityGraph(attributePaths = "empleado")
+    @Query("select c from Cuenta c where c.empleado.dni = :dni")
+    Cuenta buscarConEmpleadoPorDni(@Param("dni") Integer dni);
+
     boolean existsByEmpleado_Dni(Integer dni);
+
+    // Las cuentas ADMIN nunca se modifican al reasignar supervisores
+    @Modifying
+    @Query("""
+            update Cuenta c set c.rol = :nuevoRol, c.actualizadoEn = local datetime
+            where c.rol = :rolActual
+              and c.empleado in (
+                  select e from Empleado e
+                  where e.id in :ids and e.puesto.sector.id = :idSector
+              )
+            """)
+    int cambiarRolDeEmpleadosDelSector(
+            @Param("idSector") Long idSector,
+            @Param("ids") Collection<Long> ids,
+            @Param("rolActual") Rol rolActual,
+            @Param("nuevoRol") Rol nuevoRol
+    );
+
+    @Modifying
+    @Query("""
+            update Cuenta c set c.rol = :nuevoRol, c.actualizadoEn = local datetime
+            where c.rol = :rolActual
+              and c.empleado in (
+                  select e from Empleado e
+                  where e.id not in :ids and e.puesto.sector.id = :idSector
+              )
+            """)
+    int cambiarRolDeEmpleadosDelSectorExcepto(
+            @Param("idSector") Long idSector,
+            @Param("ids") Collection<Long> ids,
+            @Param("rolActual") Rol rolActual,
+            @Param("nuevoRol") Rol nuevoRol
+    );
 }
@@ -1,10 +1,95 @@
 package com.adminrec.tfi.interfaces;
 
 import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.util.dtos.entities.EmpleadoDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface RepositorioEmpleados extends JpaRepository<Empleado, Long> {
+public interface RepositorioEmpleados extends JpaRepository<Empleado, Long>, RepositorioEmpleadosPersonalizado {
     Optional<Empleado> findByDni(int dni);
+
+    // Lo que necesita EmpleadoMapper.toDTO, en una sola consulta
+    @EntityGraph(attributePaths = {"puesto", "puesto.sector"})
+    @Query("select e from Empleado e where e.id = :id")
+    Optional<Empleado> buscarConPuesto(@Param("id") Long id);
+
+    // Empleados no borrados, opcionalmente de un sector o puesto, armados como DTO en una sola consulta
+    // sin cargar entidades; el orden lo define el Pageable
+    @Query(value = """
+            select new com.adminrec.tfi.util.dtos.entities.EmpleadoDTO(
+                e.id, e.apellido, e.nombre, e.dni, e.correo, e.domicilio, e.fechaNacimiento, e.fechaContratacion, e.telefono,
+                p.id, p.nombre, p.valorHora, p.horasMinimasTrabajoDiario, s.id, s.nombre
+            )
+            from Empleado e join e.puesto p join p.sector s
+            where e.borradoEn is null
+              and (:idSector is null or s.id = :idSector)
+              and (:idPuesto is null or p.id = :idPuesto)
+            """, countQuery = """
+            select count(e) from Empleado e join e.puesto p
+            where e.borradoEn is null
+              and (:idSector is null or p.sector.id = :idSector)
+              and (:idPuesto is null or p.id = :idPuesto)
+            """)
+    Page<EmpleadoDTO> listarActivos(@Param("idSector") Long idSector, @Param("idPuesto") Long idPuesto, Pageable pageable);
+
+    // Solo los campos que indexa el directorio en memoria
+    @Query("select e.id, e.apellido, e.nombre, e.dni, e.correo from Empleado e where e.borradoEn is null")
+    List<Object[]> listarDatosDeDirectorio();
+
+    // Todos los DNI registrados, incluidos los de empleados borrados, porque la columna es unica
+    @Query("select e.dni from Empleado e")
+    List<Integer> listarDnis();
+
+    @Query("select e.id, e.dni from Empleado e where e.dni in :dnis")
+    List<Object[]> listarIdsPorDni(@Param("dnis") Collection<Integer> dnis);
+
+    // Borrados antes del limite que no supervisan a nadie; los que todavia tienen subordinados quedan hasta reasignarlos
+    @Query("""
+            select e.id from Empleado e
+            where e.borradoEn < :borradoAntesDe
+              and not exists (select 1 from Empleado s where s.supervisor = e)
+            order by e.id
+            """)
+    List<Long> listarArchivables(@Param("borradoAntesDe") LocalDateTime borradoAntesDe, Limit limite);
+
+    @Query("select p.sector.id from Empleado e join e.puesto p where e.dni = :dni")
+    Optional<Long> buscarIdSectorPorDni(@Param("dni") Integer dni);
+
+    @Query("select p.sector.id from Empleado e join e.puesto p where e.id = :id")
+    Optional<Long> buscarIdSectorPorId(@Param("id") Long id);
+
+    // Pares (id, id del supervisor) de todos los empleados, para reconstruir la jerarquia
+    @Query("select e.id, s.id from Empleado e left join e.supervisor s")
+    List<Object[]> listarRelacionesDeSupervision();
+
+    // Marca como supervisores a los empleados indicados que pertenecen al sector
+    @Modifying
+    @Query("""
+            update Empleado e set e.esSupervisorDeSector = true, e.actualizadoEn = local datetime
+            where e.esSupervisorDeSector = false
+              and e.id in :ids
+              and e.puesto in (select p from Puesto p where p.sector.id = :idSector)
+            """)
+    int promoverSupervisoresDelSector(@Param("idSector") Long idSector, @Param("ids") Collection<Long> ids);
+
+    // Quita el rol de supervisor a los empleados del sector que no fueron indicados
+    @Modifying
+    @Query("""
+            update Empleado e set e.esSupervisorDeSector = false, e.actualizadoEn = local datetime
+            where e.esSupervisorDeSector = true
+              and e.id not in :ids
+              and e.puesto in (select p from Puesto p where p.sector.id = :idSector)
+            """)
+    int degradarSupervisoresDelSector(@Param("idSector") Long idSector, @Param("ids") Collection<Long> ids);
 }
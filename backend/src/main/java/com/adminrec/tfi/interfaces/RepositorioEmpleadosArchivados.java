@@ -0,0 +1,209 @@
+package com.adminrec.tfi.interfaces;
+
+import com.adminrec.tfi.entities.EmpleadoArchivado;
+import com.adminrec.tfi.entities.SolicitudArchivada;
+import com.adminrec.tfi.util.dtos.entities.AsistenciaDTO;
+import com.adminrec.tfi.util.dtos.entities.EmpleadoArchivadoDTO;
+import com.adminrec.tfi.util.dtos.entities.IngresoEgresoDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Lectura del archivo y movimiento de empleados borrados desde las tablas en uso. Cada movimiento copia con
+// un insert ... select y despues borra el original, sin cargar las filas en memoria
+@Repository
+public interface RepositorioEmpleadosArchivados extends JpaRepository<EmpleadoArchivado, Long> {
+    @Query(value = """
+            select new com.adminrec.tfi.util.dtos.entities.EmpleadoArchivadoDTO(
+                e.id, e.apellido, e.nombre, e.dni, e.correo, e.domicilio, e.fechaNacimiento, e.fechaContratacion,
+                e.telefono, e.idPuesto, p.nombre, e.borradoEn, e.archivadoEn
+            )
+            from EmpleadoArchivado e left join Puesto p on p.id = e.idPuesto
+            where (:dni is null or e.dni = :dni)
+            """, countQuery = """
+            select count(e) from EmpleadoArchivado e where (:dni is null or e.dni = :dni)
+            """)
+    Page<EmpleadoArchivadoDTO> listar(@Param("dni") Integer dni, Pageable pageable);
+
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.EmpleadoArchivadoDTO(
+                e.id, e.apellido, e.nombre, e.dni, e.correo, e.domicilio, e.fechaNacimiento, e.fechaContratacion,
+                e.telefono, e.idPuesto, p.nombre, e.borradoEn, e.archivadoEn
+            )
+            from EmpleadoArchivado e left join Puesto p on p.id = e.idPuesto
+            where e.id = :id
+            """)
+    Optional<EmpleadoArchivadoDTO> buscarDTO(@Param("id") Long id);
+
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.AsistenciaDTO(a.id, a.creadoEn)
+            from AsistenciaArchivada a where a.idEmpleado = :id order by a.creadoEn, a.id
+            """)
+    List<AsistenciaDTO> listarAsistencias(@Param("id") Long id);
+
+    @Query("select s from SolicitudArchivada s where s.idEmpleado = :id order by s.creadoEn, s.id")
+    List<SolicitudArchivada> listarSolicitudes(@Param("id") Long id);
+
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.IngresoEgresoDTO(
+                i.id, concat(e.apellido, ', ', e.nombre), e.dni, p.nombre, s.nombre, i.creadoEn, i.actualizadoEn
+            )
+            from IngresoEgresoArchivado i
+            join EmpleadoArchivado e on e.id = i.idEmpleado
+            left join Puesto p on p.id = i.idPuesto
+            left join p.sector s
+            where i.idEmpleado = :id
+            order by i.creadoEn, i.id
+            """)
+    List<IngresoEgresoDTO> listarIngresosEgresos(@Param("id") Long id);
+
+    // Las consultas en fecha de RepositorioIngresoEgreso repetidas sobre el archivo: un empleado archivado tiene
+    // todos sus periodos aca y ninguno en la tabla en uso
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.IngresoEgresoDTO(
+                i.id, concat(e.apellido, ', ', e.nombre), e.dni, p.nombre, s.nombre, i.creadoEn, i.actualizadoEn
+            )
+            from IngresoEgresoArchivado i
+            join EmpleadoArchivado e on e.id = i.idEmpleado
+            left join Puesto p on p.id = i.idPuesto
+            left join p.sector s
+            where i.idEmpleado = :idEmpleado
+              and i.creadoEn <= :fecha
+              and (i.actualizadoEn is null or i.actualizadoEn > :fecha)
+            order by i.creadoEn desc, i.id desc
+            limit 1
+            """)
+    Optional<IngresoEgresoDTO> buscarVigenteDelEmpleado(@Param("idEmpleado") Long idEmpleado, @Param("fecha") LocalDate fecha);
+
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.IngresoEgresoDTO(
+                i.id, concat(e.apellido, ', ', e.nombre), e.dni, p.nombre, s.nombre, i.creadoEn, i.actualizadoEn
+            )
+            from IngresoEgresoArchivado i
+            join EmpleadoArchivado e on e.id = i.idEmpleado
+            join Puesto p on p.id = i.idPuesto
+            join p.sector s
+            where i.idPuesto = :idPuesto
+              and i.creadoEn <= :fecha
+              and (i.actualizadoEn is null or i.actualizadoEn > :fecha)
+            order by e.apellido, e.nombre, e.id
+            """)
+    List<IngresoEgresoDTO> listarVigentesDelPuesto(@Param("idPuesto") Long idPuesto, @Param("fecha") LocalDate fecha);
+
+    // Mismas columnas y orden que RepositorioIngresoEgreso.listarPeriodos
+    @Query("""
+            select i.id, i.idEmpleado, i.idPuesto, i.creadoEn, i.actualizadoEn from IngresoEgresoArchivado i
+            order by i.idEmpleado, i.creadoEn, i.id
+            """)
+    List<Object[]> listarPeriodos();
+
+    @Query("""
+            select i.id, i.idEmpleado, i.idPuesto, i.creadoEn, i.actualizadoEn from IngresoEgresoArchivado i
+            where i.idEmpleado in :ids
+            order by i.idEmpleado, i.creadoEn, i.id
+            """)
+    List<Object[]> listarPeriodosDeEmpleados(@Param("ids") Collection<Long> ids);
+
+    @Query("select distinct i.idEmpleado from IngresoEgresoArchivado i where i.idPuesto = :idPuesto")
+    List<Long> listarEmpleadosDelPuesto(@Param("idPuesto") Long idPuesto);
+
+    // Mismas columnas que RepositorioIngresoEgreso.listarPeriodosConSector, para que la serie de dotacion
+    // siga incluyendo a los empleados archivados
+    @Query("""
+            select e.id, p.sector.id, i.creadoEn, i.actualizadoEn, e.borradoEn
+            from IngresoEgresoArchivado i
+            join EmpleadoArchivado e on e.id = i.idEmpleado
+            join Puesto p on p.id = i.idPuesto
+            order by e.id, i.creadoEn, i.id
+            """)
+    List<Object[]> listarPeriodosConSector();
+
+    @Query("""
+            select e.id, p.sector.id, i.creadoEn, i.actualizadoEn, e.borradoEn
+            from IngresoEgresoArchivado i
+            join EmpleadoArchivado e on e.id = i.idEmpleado
+            join Puesto p on p.id = i.idPuesto
+            where e.id in :ids
+            order by e.id, i.creadoEn, i.id
+            """)
+    List<Object[]> listarPeriodosConSectorDeEmpleados(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+            insert into EmpleadoArchivado (
+                id, esSupervisorDeSector, apellido, nombre, dni, correo, domicilio, fechaNacimiento, fechaContratacion,
+                telefono, creadoEn, actualizadoEn, borradoEn, archivadoEn, idPuesto, idSupervisor
+            )
+            select e.id, e.esSupervisorDeSector, e.apellido, e.nombre, e.dni, e.correo, e.domicilio, e.fechaNacimiento,
+                   e.fechaContratacion, e.telefono, e.creadoEn, e.actualizadoEn, e.borradoEn, :ahora, e.puesto.id,
+                   e.supervisor.id
+            from Empleado e where e.id in :ids
+            """)
+    int copiarEmpleados(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("""
+            insert into AsistenciaArchivada (id, idEmpleado, creadoEn, actualizadoEn)
+            select a.id, a.empleado.id, a.creadoEn, a.actualizadoEn from Asistencia a where a.empleado.id in :ids
+            """)
+    int copiarAsistencias(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+            insert into SolicitudArchivada (
+                id, tipoSolicitud, duracionDias, fechaInicio, fechaFin, motivo, estadoSolicitud, idEmpleado, idSector,
+                version, creadoEn, actualizadoEn, escaladaEn, borradoEn
+            )
+            select s.id, s.tipoSolicitud, s.duracionDias, s.fechaInicio, s.fechaFin, s.motivo, s.estadoSolicitud,
+                   s.empleado.id, s.idSector, s.version, s.creadoEn, s.actualizadoEn, s.escaladaEn, s.borradoEn
+            from Solicitud s where s.empleado.id in :ids
+            """)
+    int copiarSolicitudes(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+            insert into IngresoEgresoArchivado (id, idEmpleado, idPuesto, creadoEn, actualizadoEn)
+            select i.id, i.empleado.id, i.puesto.id, i.creadoEn, i.actualizadoEn
+            from IngresoEgreso i where i.empleado.id in :ids
+            """)
+    int copiarIngresosEgresos(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Asistencia a where a.empleado.id in :ids")
+    int borrarAsistencias(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Solicitud s where s.empleado.id in :ids")
+    int borrarSolicitudes(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from IngresoEgreso i where i.empleado.id in :ids")
+    int borrarIngresosEgresos(@Param("ids") Collection<Long> ids);
+
+    // La cuenta y los saldos no se archivan: un empleado borrado no inicia sesion y los saldos se recalculan
+    @Modifying
+    @Query("delete from Cuenta c where c.empleado.id in :ids")
+    int borrarCuentas(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from SaldoLicencia s where s.idEmpleado in :ids")
+    int borrarSaldos(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from JerarquiaEmpleado j where j.idDescendiente in :ids or j.idAncestro in :ids")
+    int borrarJerarquia(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Empleado e where e.id in :ids")
+    int borrarEmpleados(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,12 @@
+package com.adminrec.tfi.interfaces;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+
+public interface RepositorioEmpleadosPersonalizado {
+    // Listado de empleados no borrados que solo selecciona las columnas de los campos pedidos
+    Page<Map<String, Object>> listarCampos(List<String> campos, Long idSector, Long idPuesto, Pageable pageable);
+}
@@ -0,0 +1,97 @@
+package com.adminrec.tfi.interfaces;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class RepositorioEmpleadosPersonalizadoImpl implements RepositorioEmpleadosPersonalizado {
+    // Campo expuesto -> expresion en la consulta; e es el empleado, p su puesto y s el sector del puesto
+    private static final Map<String, String> EXPRESIONES = Map.ofEntries(
+            Map.entry("id", "e.id"),
+            Map.entry("apellido", "e.apellido"),
+            Map.entry("nombre", "e.nombre"),
+            Map.entry("dni", "e.dni"),
+            Map.entry("correo", "e.correo"),
+            Map.entry("domicilio", "e.domicilio"),
+            Map.entry("fechaNacimiento", "e.fechaNacimiento"),
+            Map.entry("fechaContratacion", "e.fechaContratacion"),
+            Map.entry("telefono", "e.telefono"),
+            Map.entry("esSupervisorDeSector", "e.esSupervisorDeSector"),
+            Map.entry("idPuesto", "p.id"),
+            Map.entry("puesto", "p.nombre"),
+            Map.entry("valorHora", "p.valorHora"),
+            Map.entry("idSector", "p.sector.id"),
+            Map.entry("sector", "s.nombre")
+    );
+
+    private static final String FILTROS = """
+
+            where e.borradoEn is null
+              and (:idSector is null or p.sector.id = :idSector)
+              and (:idPuesto is null or p.id = :idPuesto)""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Map<String, Object>> listarCampos(List<String> campos, Long idSector, Long idPuesto, Pageable pageable) {
+        List<String> expresiones = campos.stream().map(EXPRESIONES::get).toList();
+
+        // El sector solo se une cuando se pide su nombre; el id ya esta en la fila del puesto
+        boolean unirSector = expresiones.stream().anyMatch(e -> e.startsWith("s."));
+        String desde = " from Empleado e join e.puesto p" + (unirSector ? " join p.sector s" : "");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(
+                        "select " + String.join(", ", expresiones) + desde + FILTROS + ordenar(pageable.getSort()),
+                        Tuple.class
+                )
+                .setParameter("idSector", idSector)
+                .setParameter("idPuesto", idPuesto);
+
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        List<Map<String, Object>> filas = query.getResultList().stream().map(t -> aMapa(t, campos)).toList();
+
+        if (pageable.isUnpaged()) return new PageImpl<>(filas, pageable, filas.size());
+
+        return PageableExecutionUtils.getPage(filas, pageable, () -> entityManager.createQuery(
+                        "select count(e) from Empleado e join e.puesto p" + FILTROS, Long.class
+                )
+                .setParameter("idSector", idSector)
+                .setParameter("idPuesto", idPuesto)
+                .getSingleResult());
+    }
+
+    // Las propiedades del Sort ya vienen validadas por Paginacion y son propiedades de Empleado
+    private static String ordenar(Sort sort) {
+        if (sort.isUnsorted()) return "";
+
+        return sort.stream()
+                .map(o -> "e." + o.getProperty() + (o.isAscending() ? " asc" : " desc"))
+                .collect(Collectors.joining(", ", " order by ", ""));
+    }
+
+    private static Map<String, Object> aMapa(Tuple tupla, List<String> campos) {
+        Map<String, Object> fila = new LinkedHashMap<>();
+
+        for (int i = 0; i < campos.size(); i++) {
+            fila.put(campos.get(i), tupla.get(i));
+        }
+
+        return fila;
+    }
+}
@@ -0,0 +1,100 @@
+package com.adminrec.tfi.interfaces;
+
+import com.adminrec.tfi.entities.HistorialValorHora;
+import com.adminrec.tfi.util.dtos.entities.HistorialValorHoraDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RepositorioHistorialValorHora extends JpaRepository<HistorialValorHora, Long> {
+    @Query("select h from HistorialValorHora h where h.puesto.id = :idPuesto and h.vigenteHasta is null")
+    Optional<HistorialValorHora> buscarVigente(@Param("idPuesto") Long idPuesto);
+
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.HistorialValorHoraDTO(
+                h.id, h.puesto.id, h.valorHora, h.vigenteDesde, h.vigenteHasta
+            )
+            from HistorialValorHora h
+            where h.puesto.id = :idPuesto
+            order by h.vigenteDesde desc, h.id desc
+            """)
+    List<HistorialValorHoraDTO> listarDelPuesto(@Param("idPuesto") Long idPuesto);
+
+    // Filas (id puesto, vigenteDesde, vigenteHasta, valorHora) ordenadas para armar el indice en memoria
+    @Query("""
+            select h.puesto.id, h.vigenteDesde, h.vigenteHasta, h.valorHora
+            from HistorialValorHora h
+            order by h.puesto.id, h.vigenteDesde, h.id
+            """)
+    List<Object[]> listarPeriodos();
+
+    @Query("""
+            select h.puesto.id, h.vigenteDesde, h.vigenteHasta, h.valorHora
+            from HistorialValorHora h
+            where h.puesto.id in :idsPuestos
+            order by h.puesto.id, h.vigenteDesde, h.id
+            """)
+    List<Object[]> listarPeriodosDePuestos(@Param("idsPuestos") Collection<Long> idsPuestos);
+
+    // Puestos anteriores al historial: su valor actual, el unico conocido, pasa a regir desde el primer ingreso
+    // registrado en el puesto (o desde su alta), asi las liquidaciones pasadas siguen teniendo un valor
+    @Modifying
+    @Query("""
+            insert into HistorialValorHora (puesto, valorHora, vigenteDesde)
+            select p, p.valorHora, coalesce(
+                (select min(ie.creadoEn) from IngresoEgreso ie where ie.puesto = p),
+                cast(p.creadoEn as LocalDate),
+                :fecha
+            )
+            from Puesto p
+            where not exists (select 1 from HistorialValorHora h where h.puesto = p)
+            """)
+    int completarFaltantes(@Param("fecha") LocalDate fecha);
+
+    // Los tres siguientes registran un ajuste masivo ya aplicado sobre Puesto, con el mismo filtro de puestos.
+    // Los periodos abiertos hoy mismo se corrigen con el valor nuevo en lugar de cerrarse
+    @Modifying
+    @Query("""
+            update HistorialValorHora h
+            set h.valorHora = (select p.valorHora from Puesto p where p = h.puesto)
+            where h.vigenteHasta is null
+              and h.vigenteDesde >= :hoy
+              and h.puesto.id in (
+                  select p.id from Puesto p
+                  where p.borradoEn is null and (:idSector is null or p.sector.id = :idSector)
+              )
+            """)
+    int corregirVigentesDeHoy(@Param("idSector") Long idSector, @Param("hoy") LocalDate hoy);
+
+    @Modifying
+    @Query("""
+            update HistorialValorHora h
+            set h.vigenteHasta = :hoy
+            where h.vigenteHasta is null
+              and h.vigenteDesde < :hoy
+              and h.puesto.id in (
+                  select p.id from Puesto p
+                  where p.borradoEn is null and (:idSector is null or p.sector.id = :idSector)
+              )
+            """)
+    int cerrarVigentes(@Param("idSector") Long idSector, @Param("hoy") LocalDate hoy);
+
+    @Modifying
+    @Query("""
+            insert into HistorialValorHora (puesto, valorHora, vigenteDesde)
+            select p, p.valorHora, :hoy
+            from Puesto p
+            where p.borradoEn is null
+              and (:idSector is null or p.sector.id = :idSector)
+              and not exists (select 1 from HistorialValorHora h where h.puesto = p and h.vigenteHasta is null)
+            """)
+    int abrirVigentes(@Param("idSector") Long idSector, @Param("hoy") LocalDate hoy);
+}
@@ -1,13 +1,87 @@
 package com.adminrec.tfi.interfaces;
 
 import com.adminrec.tfi.entities.IngresoEgreso;
+import com.adminrec.tfi.util.dtos.entities.IngresoEgresoDTO;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RepositorioIngresoEgreso extends JpaRepository<IngresoEgreso, Long> {
     IngresoEgreso findTopByEmpleado_DniOrderByCreadoEnDesc(Integer dni);
+
+    // Filtra por la clave foranea sin unir con empleados y usa el indice (id_empleado, creado_en)
+    @Query("select ie from IngresoEgreso ie where ie.empleado.id = :idEmpleado order by ie.creadoEn desc, ie.id desc limit 1")
+    IngresoEgreso buscarUltimoDelEmpleado(@Param("idEmpleado") Long idEmpleado);
+
+    // IngresoEgresoMapper recorre empleado, puesto y sector de cada periodo
+    @EntityGraph(attributePaths = {"empleado", "puesto", "puesto.sector"})
     List<IngresoEgreso> findAllByEmpleado_Id(Long id);
+
+    // Un periodo vale desde creadoEn inclusive hasta actualizadoEn exclusive; sin actualizadoEn sigue vigente
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.IngresoEgresoDTO(
+                ie.id, concat(e.apellido, ', ', e.nombre), e.dni, p.nombre, s.nombre, ie.creadoEn, ie.actualizadoEn
+            )
+            from IngresoEgreso ie join ie.empleado e join ie.puesto p join p.sector s
+            where e.id = :idEmpleado
+              and ie.creadoEn <= :fecha
+              and (ie.actualizadoEn is null or ie.actualizadoEn > :fecha)
+            order by ie.creadoEn desc, ie.id desc
+            limit 1
+            """)
+    Optional<IngresoEgresoDTO> buscarVigenteDelEmpleado(@Param("idEmpleado") Long idEmpleado, @Param("fecha") LocalDate fecha);
+
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.IngresoEgresoDTO(
+                ie.id, concat(e.apellido, ', ', e.nombre), e.dni, p.nombre, s.nombre, ie.creadoEn, ie.actualizadoEn
+            )
+            from IngresoEgreso ie join ie.empleado e join ie.puesto p join p.sector s
+            where p.id = :idPuesto
+              and ie.creadoEn <= :fecha
+              and (ie.actualizadoEn is null or ie.actualizadoEn > :fecha)
+            order by e.apellido, e.nombre, e.id
+            """)
+    List<IngresoEgresoDTO> listarVigentesDelPuesto(@Param("idPuesto") Long idPuesto, @Param("fecha") LocalDate fecha);
+
+    // Filas (id, id empleado, id puesto, creadoEn, actualizadoEn) ordenadas por empleado e inicio del periodo
+    @Query("""
+            select ie.id, ie.empleado.id, ie.puesto.id, ie.creadoEn, ie.actualizadoEn from IngresoEgreso ie
+            order by ie.empleado.id, ie.creadoEn, ie.id
+            """)
+    List<Object[]> listarPeriodos();
+
+    @Query("""
+            select ie.id, ie.empleado.id, ie.puesto.id, ie.creadoEn, ie.actualizadoEn from IngresoEgreso ie
+            where ie.empleado.id in :ids
+            order by ie.empleado.id, ie.creadoEn, ie.id
+            """)
+    List<Object[]> listarPeriodosDeEmpleados(@Param("ids") Collection<Long> ids);
+
+    // Empleados que ocuparon el puesto alguna vez, con periodos abiertos o cerrados
+    @Query("select distinct ie.empleado.id from IngresoEgreso ie where ie.puesto.id = :idPuesto")
+    List<Long> listarEmpleadosDelPuesto(@Param("idPuesto") Long idPuesto);
+
+    // Filas (id empleado, id sector, creadoEn, actualizadoEn, borradoEn del empleado) para la serie de dotacion
+    @Query("""
+            select e.id, p.sector.id, ie.creadoEn, ie.actualizadoEn, e.borradoEn
+            from IngresoEgreso ie join ie.empleado e join ie.puesto p
+            order by e.id, ie.creadoEn, ie.id
+            """)
+    List<Object[]> listarPeriodosConSector();
+
+    @Query("""
+            select e.id, p.sector.id, ie.creadoEn, ie.actualizadoEn, e.borradoEn
+            from IngresoEgreso ie join ie.empleado e join ie.puesto p
+            where e.id in :ids
+            order by e.id, ie.creadoEn, ie.id
+            """)
+    List<Object[]> listarPeriodosConSectorDeEmpleados(@Param("ids") Collection<Long> ids);
 }
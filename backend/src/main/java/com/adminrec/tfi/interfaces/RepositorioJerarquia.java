@@ -0,0 +1,55 @@
+package com.adminrec.tfi.interfaces;
+
+import com.adminrec.tfi.entities.JerarquiaEmpleado;
+import com.adminrec.tfi.util.dtos.entities.NodoJerarquiaDTO;
+import com.adminrec.tfi.util.dtos.entities.TamanoEquipoDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RepositorioJerarquia extends JpaRepository<JerarquiaEmpleado, Long> {
+    List<JerarquiaEmpleado> findAllByIdAncestro(Long idAncestro);
+    List<JerarquiaEmpleado> findAllByIdDescendiente(Long idDescendiente);
+    long countByProfundidad(Integer profundidad);
+
+    // Desconecta un subarbol de todos sus ancestros externos
+    @Modifying
+    @Query("""
+            delete from JerarquiaEmpleado j
+            where j.idDescendiente in :subarbol and j.idAncestro not in :subarbol
+            """)
+    int desconectarSubarbol(@Param("subarbol") Collection<Long> subarbol);
+
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.NodoJerarquiaDTO(e.id, e.apellido, e.nombre, e.dni, j.profundidad)
+            from JerarquiaEmpleado j join Empleado e on e.id = j.idDescendiente
+            where j.idAncestro = :id and j.profundidad > 0 and e.borradoEn is null
+            order by j.profundidad, e.apellido, e.nombre
+            """)
+    List<NodoJerarquiaDTO> listarSubordinados(@Param("id") Long id);
+
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.NodoJerarquiaDTO(e.id, e.apellido, e.nombre, e.dni, j.profundidad)
+            from JerarquiaEmpleado j join Empleado e on e.id = j.idAncestro
+            where j.idDescendiente = :id and j.profundidad > 0
+            order by j.profundidad
+            """)
+    List<NodoJerarquiaDTO> listarCadenaDeMando(@Param("id") Long id);
+
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.TamanoEquipoDTO(s.id, s.apellido, s.nombre, count(j))
+            from JerarquiaEmpleado j
+                join Empleado s on s.id = j.idAncestro
+                join Empleado d on d.id = j.idDescendiente
+            where j.profundidad > 0 and d.borradoEn is null
+            group by s.id, s.apellido, s.nombre
+            order by count(j) desc
+            """)
+    List<TamanoEquipoDTO> contarEquiposPorSupervisor();
+}
@@ -2,13 +2,85 @@ package com.adminrec.tfi.interfaces;
 
 import com.adminrec.tfi.entities.Puesto;
 import com.adminrec.tfi.entities.Sector;
+import com.adminrec.tfi.util.dtos.entities.PuestoDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RepositorioPuestos extends JpaRepository<Puesto, Long> {
+    // Las consultas de lectura sobre puestos van a la cache de consultas; Hibernate las invalida en cada escritura
+    // sobre Puestos, incluidos los UPDATE masivos
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Puesto> findByNombreAndSector(String nombre, Sector sector);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select p.id, p.nombre from Puesto p where p.id in :ids")
+    List<Object[]> listarNombres(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select p.id from Puesto p where p.borradoEn is null")
+    List<Long> listarIdsActivos();
+
+    // Puestos no borrados armados como DTO junto con su sector en una sola consulta
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(value = """
+            select new com.adminrec.tfi.util.dtos.entities.PuestoDTO(
+                p.id, p.nombre, p.valorHora, p.horasMinimasTrabajoDiario, s.id, s.nombre
+            )
+            from Puesto p join p.sector s
+            where p.borradoEn is null
+              and (:idSector is null or s.id = :idSector)
+            """, countQuery = """
+            select count(p) from Puesto p
+            where p.borradoEn is null
+              and (:idSector is null or p.sector.id = :idSector)
+            """)
+    Page<PuestoDTO> listarActivos(@Param("idSector") Long idSector, Pageable pageable);
+
+    // Inicializa Puesto.empleados (y el supervisor de cada empleado) de los puestos ya cargados en la sesion
+    @Query("""
+            select distinct p from Puesto p
+            left join fetch p.empleados e
+            left join fetch e.supervisor
+            where p.sector.id in :idsSectores
+            """)
+    List<Puesto> cargarEmpleados(@Param("idsSectores") Collection<Long> idsSectores);
+
+    // Cantidad, suma y minimo del valor hora de los puestos activos, opcionalmente de un sector
+    @Query("""
+            select count(p), sum(p.valorHora), min(p.valorHora) from Puesto p
+            where p.borradoEn is null and (:idSector is null or p.sector.id = :idSector)
+            """)
+    List<Object[]> totalizarValoresHora(@Param("idSector") Long idSector);
+
+    @Query("""
+            select p.id from Puesto p
+            where p.borradoEn is null and (:idSector is null or p.sector.id = :idSector)
+            """)
+    List<Long> listarIdsActivosDelSector(@Param("idSector") Long idSector);
+
+    // Un porcentaje se aplica con factor = 1 + porcentaje / 100 y monto = 0; un monto fijo con factor = 1
+    @Modifying
+    @Query("""
+            update Puesto p
+            set p.valorHora = round(p.valorHora * :factor + :monto, 2)
+            where p.borradoEn is null and (:idSector is null or p.sector.id = :idSector)
+            """)
+    int ajustarValoresHora(
+            @Param("idSector") Long idSector,
+            @Param("factor") Double factor,
+            @Param("monto") Double monto
+    );
 }
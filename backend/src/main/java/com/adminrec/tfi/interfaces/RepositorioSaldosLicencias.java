@@ -0,0 +1,49 @@
+package com.adminrec.tfi.interfaces;
+
+import com.adminrec.tfi.entities.SaldoLicencia;
+import com.adminrec.tfi.util.enums.TipoSolicitud;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RepositorioSaldosLicencias extends JpaRepository<SaldoLicencia, Long> {
+    Optional<SaldoLicencia> findByIdEmpleadoAndAnioAndTipoSolicitud(Long idEmpleado, Integer anio, TipoSolicitud tipoSolicitud);
+    List<SaldoLicencia> findAllByIdEmpleadoAndAnio(Long idEmpleado, Integer anio);
+
+    // Suma (o resta) dias en una sola sentencia atomica, creando la fila si todavia no existe.
+    // Las sentencias nativas declaran la tabla que tocan: sin eso Hibernate asume que cambiaron todas y vacia las
+    // regiones de la cache de segundo nivel (puestos, sectores) y las consultas cacheadas en cada aprobacion
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "saldos_licencias"))
+    @Query(value = """
+            insert into saldos_licencias (id_empleado, anio, tipo_solicitud, dias_usados, actualizado_en)
+            values (:idEmpleado, :anio, :tipoSolicitud, :dias, now())
+            on duplicate key update dias_usados = dias_usados + :dias, actualizado_en = now()
+            """, nativeQuery = true)
+    int sumarDias(
+            @Param("idEmpleado") Long idEmpleado,
+            @Param("anio") Integer anio,
+            @Param("tipoSolicitud") String tipoSolicitud,
+            @Param("dias") Integer dias
+    );
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "saldos_licencias"))
+    @Query(value = """
+            insert into saldos_licencias (id_empleado, anio, tipo_solicitud, dias_usados, actualizado_en)
+            select s.empleado_id_empleado, year(coalesce(s.fecha_inicio, s.creado_en)), s.tipo_solicitud, sum(s.duracion), now()
+            from solicitudes s
+            where s.estado_solicitud = 'ACEPTADO'
+            group by s.empleado_id_empleado, year(coalesce(s.fecha_inicio, s.creado_en)), s.tipo_solicitud
+            """, nativeQuery = true)
+    int recalcularDesdeSolicitudes();
+}
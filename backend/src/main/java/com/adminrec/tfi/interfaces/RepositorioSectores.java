@@ -1,10 +1,29 @@
 package com.adminrec.tfi.interfaces;
 
 import com.adminrec.tfi.entities.Sector;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
-public interface RepositorioSectores extends JpaRepository<Sector, Long> {
+public interface RepositorioSectores extends JpaRepository<Sector, Long>, RepositorioSectoresPersonalizado {
+    // Los sectores casi no cambian: las consultas se guardan en la cache de consultas y las entidades en la de segundo nivel
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Sector> findByNombre(String nombre);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Sector> findAll();
+
+    // Primer paso del detalle de sectores: los sectores con sus puestos. Los empleados de cada puesto se cargan
+    // aparte con RepositorioPuestos.cargarEmpleados para no multiplicar filas uniendo dos colecciones
+    @EntityGraph(attributePaths = "puestos")
+    @Query("select s from Sector s where :id is null or s.id = :id")
+    List<Sector> listarConPuestos(@Param("id") Long id);
 }
@@ -0,0 +1,10 @@
+package com.adminrec.tfi.interfaces;
+
+import java.util.List;
+import java.util.Map;
+
+public interface RepositorioSectoresPersonalizado {
+    // Sectores con sus puestos y empleados en una sola consulta, seleccionando solo los campos pedidos de
+    // cada empleado. Sin idSector devuelve todos los sectores
+    List<Map<String, Object>> listarDetalle(List<String> campos, Long idSector);
+}
@@ -0,0 +1,108 @@
+package com.adminrec.tfi.interfaces;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RepositorioSectoresPersonalizadoImpl implements RepositorioSectoresPersonalizado {
+    // Campo del empleado -> expresiones en la consulta; el supervisor se arma con tres columnas
+    private static final Map<String, List<String>> EXPRESIONES = Map.ofEntries(
+            Map.entry("id", List.of("e.id")),
+            Map.entry("apellido", List.of("e.apellido")),
+            Map.entry("nombre", List.of("e.nombre")),
+            Map.entry("dni", List.of("e.dni")),
+            Map.entry("correo", List.of("e.correo")),
+            Map.entry("domicilio", List.of("e.domicilio")),
+            Map.entry("fechaNacimiento", List.of("e.fechaNacimiento")),
+            Map.entry("fechaContratacion", List.of("e.fechaContratacion")),
+            Map.entry("telefono", List.of("e.telefono")),
+            Map.entry("esSupervisorDeSector", List.of("e.esSupervisorDeSector")),
+            Map.entry("supervisor", List.of("sup.id", "sup.apellido", "sup.nombre"))
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> listarDetalle(List<String> campos, Long idSector) {
+        List<String> expresiones = new ArrayList<>(List.of("s.id", "s.nombre", "p.id", "p.nombre", "e.id"));
+        campos.forEach(c -> expresiones.addAll(EXPRESIONES.get(c)));
+
+        String jpql = "select " + String.join(", ", expresiones)
+                + " from Sector s left join s.puestos p left join p.empleados e"
+                + (campos.contains("supervisor") ? " left join e.supervisor sup" : "")
+                + " where (:idSector is null or s.id = :idSector)"
+                + " order by s.id, p.id, e.id";
+
+        List<Tuple> tuplas = entityManager.createQuery(jpql, Tuple.class)
+                .setParameter("idSector", idSector)
+                .getResultList();
+
+        // Las filas vienen ordenadas por sector y puesto, asi que alcanza con comparar con el ultimo armado
+        List<Map<String, Object>> sectores = new ArrayList<>();
+        Map<String, Object> sector = null;
+        Map<String, Object> puesto = null;
+
+        for (Tuple t : tuplas) {
+            if (sector == null || !sector.get("id").equals(t.get(0))) {
+                sector = new LinkedHashMap<>();
+                sector.put("id", t.get(0));
+                sector.put("nombre", t.get(1));
+                sector.put("puestos", new ArrayList<Map<String, Object>>());
+                sectores.add(sector);
+                puesto = null;
+            }
+
+            if (t.get(2) == null) continue;
+
+            if (puesto == null || !puesto.get("id").equals(t.get(2))) {
+                puesto = new LinkedHashMap<>();
+                puesto.put("id", t.get(2));
+                puesto.put("nombre", t.get(3));
+                puesto.put("empleados", new ArrayList<Map<String, Object>>());
+                lista(sector, "puestos").add(puesto);
+            }
+
+            if (t.get(4) == null) continue;
+
+            lista(puesto, "empleados").add(empleado(t, campos));
+        }
+
+        return sectores;
+    }
+
+    private static Map<String, Object> empleado(Tuple t, List<String> campos) {
+        Map<String, Object> empleado = new LinkedHashMap<>();
+        int columna = 5;
+
+        for (String campo : campos) {
+            if (campo.equals("supervisor")) {
+                Map<String, Object> supervisor = null;
+
+                if (t.get(columna) != null) {
+                    supervisor = new LinkedHashMap<>();
+                    supervisor.put("id", t.get(columna));
+                    supervisor.put("apellido", t.get(columna + 1));
+                    supervisor.put("nombre", t.get(columna + 2));
+                }
+
+                empleado.put(campo, supervisor);
+                columna += 3;
+            } else {
+                empleado.put(campo, t.get(columna++));
+            }
+        }
+
+        return empleado;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> lista(Map<String, Object> padre, String clave) {
+        return (List<Map<String, Object>>) padre.get(clave);
+    }
+}
@@ -1,13 +1,140 @@
 package com.adminrec.tfi.interfaces;
 
 import com.adminrec.tfi.entities.Solicitud;
+import com.adminrec.tfi.util.dtos.entities.SolicitudBandejaDTO;
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.enums.TipoSolicitud;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface RepositorioSolicitudes extends JpaRepository<Solicitud, Long> {
+public interface RepositorioSolicitudes extends JpaRepository<Solicitud, Long>, RepositorioSolicitudesPersonalizado {
+    // SolicitudMapper recorre empleado, puesto y sector de cada solicitud
+    @EntityGraph(attributePaths = {"empleado", "empleado.puesto", "empleado.puesto.sector"})
     List<Solicitud> findAllByEmpleado_Dni(Integer dni);
-    List<Solicitud> findAllByEmpleado_Puesto_Sector_Id(Long idSector);
+    List<Solicitud> findAllByIdInAndIdSector(Collection<Long> ids, Long idSector);
+
+    // Ausencias con fecha que ocupan lugar en el sector: id, idSector, fechaInicio, fechaFin
+    @Query("""
+            select s.id, s.idSector, s.fechaInicio, s.fechaFin from Solicitud s
+            where s.estadoSolicitud in :estados
+              and s.fechaInicio is not null
+              and s.idSector is not null
+              and s.borradoEn is null
+              and (:idSector is null or s.idSector = :idSector)
+            """)
+    List<Object[]> listarAusencias(@Param("estados") Collection<EstadoSolicitud> estados, @Param("idSector") Long idSector);
+
+    @Query("select distinct s.idSector from Solicitud s where s.empleado.id in :ids and s.idSector is not null")
+    List<Long> listarSectoresDeEmpleados(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select s.id, s.creadoEn from Solicitud s
+            where s.estadoSolicitud = com.adminrec.tfi.util.enums.EstadoSolicitud.PENDIENTE
+              and s.escaladaEn is null
+              and s.borradoEn is null
+            """)
+    List<Object[]> listarPendientesSinEscalar();
+
+    long countByEstadoSolicitudAndBorradoEnIsNull(EstadoSolicitud estadoSolicitud);
+
+    @Query("""
+            select s from Solicitud s
+            where s.id in :ids
+              and s.estadoSolicitud = com.adminrec.tfi.util.enums.EstadoSolicitud.PENDIENTE
+              and s.escaladaEn is null
+            """)
+    List<Solicitud> buscarPendientesSinEscalar(@Param("ids") Collection<Long> ids);
+
+    // No incrementa la version: marcar la solicitud no invalida lo que el supervisor ya tiene cargado
+    @Modifying
+    @Query("""
+            update Solicitud s set s.escaladaEn = local datetime
+            where s.id in :ids
+              and s.estadoSolicitud = com.adminrec.tfi.util.enums.EstadoSolicitud.PENDIENTE
+              and s.escaladaEn is null
+            """)
+    int marcarEscaladas(@Param("ids") Collection<Long> ids);
+
+    @Query("select s.id, s.version, s.estadoSolicitud from Solicitud s where s.id in :ids")
+    List<Object[]> listarVersiones(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update Solicitud s set s.idSector = :idSector where s.empleado.id = :idEmpleado")
+    int actualizarSectorDelEmpleado(@Param("idEmpleado") Long idEmpleado, @Param("idSector") Long idSector);
+
+    // Las solicitudes de todos los empleados del puesto, cuando el puesto cambia de sector
+    @Transactional
+    @Modifying
+    @Query("""
+            update Solicitud s set s.idSector = :idSector
+            where s.empleado.id in (select e.id from Empleado e where e.puesto.id = :idPuesto)
+            """)
+    int actualizarSectorDelPuesto(@Param("idPuesto") Long idPuesto, @Param("idSector") Long idSector);
+
+    // Completa el sector de las solicitudes creadas antes de existir la columna
+    @Transactional
+    @Modifying
+    @Query("""
+            update Solicitud s set s.idSector = (
+                select p.sector.id from Empleado e join e.puesto p where e = s.empleado
+            )
+            where s.idSector is null
+            """)
+    int completarSectoresFaltantes();
+
+    // Bandeja del supervisor ordenada por (creadoEn, id) descendente; el cursor es la ultima fila de la pagina anterior
+    @Query("""
+            select new com.adminrec.tfi.util.dtos.entities.SolicitudBandejaDTO(
+                s.id, s.tipoSolicitud, s.duracionDias, s.fechaInicio, s.fechaFin, s.motivo, s.estadoSolicitud, s.creadoEn, s.version, s.escaladaEn,
+                e.id, e.apellido, e.nombre, e.dni
+            )
+            from Solicitud s join s.empleado e
+            where s.idSector = :idSector
+              and (:estado is null or s.estadoSolicitud = :estado)
+              and (:tipo is null or s.tipoSolicitud = :tipo)
+              and (:desde is null or s.creadoEn >= :desde)
+              and (:hasta is null or s.creadoEn < :hasta)
+              and (:cursorFecha is null or s.creadoEn < :cursorFecha
+                   or (s.creadoEn = :cursorFecha and s.id < :cursorId))
+            order by s.creadoEn desc, s.id desc
+            """)
+    List<SolicitudBandejaDTO> listarBandeja(
+            @Param("idSector") Long idSector,
+            @Param("estado") EstadoSolicitud estado,
+            @Param("tipo") TipoSolicitud tipo,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta,
+            @Param("cursorFecha") LocalDateTime cursorFecha,
+            @Param("cursorId") Long cursorId,
+            Limit limite
+    );
+
+    // Mismos filtros que la bandeja salvo el estado, agrupados por estado
+    @Query("""
+            select s.estadoSolicitud, count(s)
+            from Solicitud s
+            where s.idSector = :idSector
+              and (:tipo is null or s.tipoSolicitud = :tipo)
+              and (:desde is null or s.creadoEn >= :desde)
+              and (:hasta is null or s.creadoEn < :hasta)
+            group by s.estadoSolicitud
+            """)
+    List<Object[]> contarBandejaPorEstado(
+            @Param("idSector") Long idSector,
+            @Param("tipo") TipoSolicitud tipo,
+            @Param("desde") LocalDateTime desde,
+            @Param("hasta") LocalDateTime hasta
+    );
 }
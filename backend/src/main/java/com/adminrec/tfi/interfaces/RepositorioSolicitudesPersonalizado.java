@@ -0,0 +1,10 @@
+package com.adminrec.tfi.interfaces;
+
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+
+import java.util.Map;
+
+public interface RepositorioSolicitudesPersonalizado {
+    // Aplica el estado con un unico UPDATE, solo sobre las filas que conservan la version esperada
+    int cambiarEstadoSiNoCambiaron(Long idSector, EstadoSolicitud estado, Map<Long, Long> versionesEsperadas);
+}
@@ -0,0 +1,54 @@
+package com.adminrec.tfi.interfaces;
+
+import com.adminrec.tfi.entities.Solicitud;
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class RepositorioSolicitudesPersonalizadoImpl implements RepositorioSolicitudesPersonalizado {
+    // Un solo texto de consulta para cualquier cantidad de solicitudes: la lista de ids se rellena
+    // (in_clause_parameter_padding), asi que el plan de Hibernate y la sentencia preparada se reutilizan
+    private static final String CAMBIAR_ESTADO = """
+            update Solicitud s
+            set s.estadoSolicitud = :estado, s.version = s.version + 1, s.actualizadoEn = local datetime
+            where s.idSector = :idSector and s.id in :ids and s.version = :version
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int cambiarEstadoSiNoCambiaron(Long idSector, EstadoSolicitud estado, Map<Long, Long> versionesEsperadas) {
+        if (versionesEsperadas.isEmpty()) return 0;
+
+        // Casi todas las solicitudes de una bandeja comparten version, asi que suele alcanzar con un UPDATE
+        Map<Long, List<Long>> idsPorVersion = new TreeMap<>();
+        versionesEsperadas.forEach((id, version) -> idsPorVersion.computeIfAbsent(version, v -> new ArrayList<>()).add(id));
+
+        Query query = entityManager.createQuery(CAMBIAR_ESTADO)
+                .setParameter("estado", estado)
+                .setParameter("idSector", idSector);
+
+        int actualizadas = 0;
+
+        for (Map.Entry<Long, List<Long>> grupo : idsPorVersion.entrySet()) {
+            actualizadas += query
+                    .setParameter("version", grupo.getKey())
+                    .setParameter("ids", grupo.getValue())
+                    .executeUpdate();
+        }
+
+        // Solo las solicitudes tocadas quedaron con el estado y la version anteriores; el resto sigue administrado
+        for (Long id : versionesEsperadas.keySet()) {
+            entityManager.detach(entityManager.getReference(Solicitud.class, id));
+        }
+
+        return actualizadas;
+    }
+}
@@ -0,0 +1,63 @@
+package com.adminrec.tfi.monitoreo;
+
+import com.adminrec.tfi.services.ServicioMonitoreoSql;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+import java.util.Map;
+
+// En desarrollo (sql.monitoreo.cabeceras=true) agrega la medicion a la respuesta. Tiene que ser justo antes de
+// escribir el cuerpo: despues la respuesta ya esta confirmada y no admite cabeceras. Las respuestas se arman
+// desde DTOs ya cargados, asi que a esta altura la peticion no ejecuta mas sentencias
+@ControllerAdvice
+public class CabecerasMedicionSql implements ResponseBodyAdvice<Object> {
+    private static final int LARGO_MAXIMO_FORMA = 200;
+
+    private final ServicioMonitoreoSql servicio;
+
+    public CabecerasMedicionSql(ServicioMonitoreoSql servicio) {
+        this.servicio = servicio;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return servicio.isCabeceras();
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response
+    ) {
+        MedicionSql medicion = MedicionSql.actual();
+        if (medicion == null) return body;
+
+        HttpHeaders headers = response.getHeaders();
+        Map.Entry<String, Integer> repetida = medicion.formaMasRepetida();
+
+        headers.set("X-Sql-Sentencias", String.valueOf(medicion.getSentencias()));
+        headers.set("X-Sql-Filas", String.valueOf(medicion.getFilas()));
+        headers.set("X-Sql-Tiempo-Ms", String.format(Locale.ROOT, "%.2f", medicion.getNanos() / 1_000_000.0));
+        headers.set("X-Sql-Repeticiones", String.valueOf(repetida == null ? 0 : repetida.getValue()));
+
+        if (servicio.repeticionSospechosa(medicion) != null) {
+            String forma = repetida.getKey().replaceAll("[^\\x20-\\x7E]", "?");
+            headers.set("X-Sql-Posible-N-Mas-Uno", forma.length() > LARGO_MAXIMO_FORMA
+                    ? forma.substring(0, LARGO_MAXIMO_FORMA)
+                    : forma);
+        }
+
+        return body;
+    }
+}
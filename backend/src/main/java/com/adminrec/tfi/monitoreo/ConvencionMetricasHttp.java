@@ -0,0 +1,24 @@
+package com.adminrec.tfi.monitoreo;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Agrega a http.server.requests el metodo del controlador que atendio la peticion (por ejemplo
+// "EmployeeController.buscarUno"), ademas de la ruta, el metodo HTTP y el estado que ya trae Spring
+@Component
+public class ConvencionMetricasHttp extends DefaultServerRequestObservationConvention {
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        String controlador = handler instanceof HandlerMethod metodo
+                ? metodo.getBeanType().getSimpleName() + "." + metodo.getMethod().getName()
+                : "ninguno";
+
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("controlador", controlador));
+    }
+}
@@ -0,0 +1,50 @@
+package com.adminrec.tfi.monitoreo;
+
+import com.adminrec.tfi.services.ServicioMonitoreoSql;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Abre la medicion antes que cualquier otro filtro y la cierra al terminar la peticion. Se agrupa por el patron de
+// la ruta y no por la URL, para que /api/employees/3 y /api/employees/4 sumen al mismo endpoint
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FiltroMedicionSql extends OncePerRequestFilter {
+    private final ServicioMonitoreoSql servicio;
+    private final boolean habilitado;
+
+    public FiltroMedicionSql(ServicioMonitoreoSql servicio, @Value("${sql.monitoreo.habilitado:true}") boolean habilitado) {
+        this.servicio = servicio;
+        this.habilitado = habilitado;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        return !habilitado;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+    throws ServletException, IOException {
+        MedicionSql medicion = MedicionSql.iniciar();
+
+        try {
+            chain.doFilter(req, res);
+        } finally {
+            MedicionSql.terminar();
+
+            // Las peticiones rechazadas antes de llegar a un controlador no tienen patron
+            Object patron = req.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            servicio.registrar(req.getMethod() + " " + (patron == null ? "(sin ruta)" : patron), medicion);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.adminrec.tfi.monitoreo;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Lo que ejecuto contra la base la peticion en curso. Vive en el hilo que atiende la peticion, asi que no necesita
+// sincronizacion; las sentencias que corren fuera de una peticion (jobs, data loaders) no se miden
+public class MedicionSql {
+    private static final ThreadLocal<MedicionSql> ACTUAL = new ThreadLocal<>();
+
+    private static final Pattern LITERALES = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTAS = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    // Hibernate reutiliza siempre el mismo texto para cada consulta, asi que normalizar una vez alcanza
+    private static final int MAXIMO_FORMAS_NORMALIZADAS = 2000;
+    private static final Map<String, String> NORMALIZADAS = new ConcurrentHashMap<>();
+
+    private int sentencias;
+    private long filas;
+    private long nanos;
+    private long inicioSentencia;
+    // Cantidad de ejecuciones de cada forma de sentencia
+    private final Map<String, Integer> formas = new HashMap<>();
+
+    public static MedicionSql iniciar() {
+        MedicionSql medicion = new MedicionSql();
+        ACTUAL.set(medicion);
+
+        return medicion;
+    }
+
+    public static void terminar() {
+        ACTUAL.remove();
+    }
+
+    // Medicion de la peticion en curso, o null si el hilo no esta atendiendo una
+    public static MedicionSql actual() {
+        return ACTUAL.get();
+    }
+
+    void antesDeSentencia() {
+        inicioSentencia = System.nanoTime();
+    }
+
+    void despuesDeSentencia(Iterable<String> consultas) {
+        sentencias++;
+        nanos += System.nanoTime() - inicioSentencia;
+
+        for (String consulta : consultas) formas.merge(forma(consulta), 1, Integer::sum);
+    }
+
+    void filaLeida() {
+        filas++;
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public long getFilas() {
+        return filas;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    // La forma que mas se repitio en la peticion con su cantidad de ejecuciones, o null si no hubo sentencias
+    public Map.Entry<String, Integer> formaMasRepetida() {
+        Map.Entry<String, Integer> mayor = null;
+
+        for (Map.Entry<String, Integer> forma : formas.entrySet()) {
+            if (mayor == null || forma.getValue() > mayor.getValue()) mayor = forma;
+        }
+
+        return mayor;
+    }
+
+    // Misma sentencia con distintos valores: literales y listas de parametros de largo variable se reducen a "?"
+    static String forma(String consulta) {
+        String forma = NORMALIZADAS.get(consulta);
+        if (forma != null) return forma;
+
+        forma = LITERALES.matcher(consulta).replaceAll("?");
+        forma = LISTAS.matcher(forma).replaceAll("(?)");
+        forma = ESPACIOS.matcher(forma).replaceAll(" ").trim();
+
+        if (NORMALIZADAS.size() < MAXIMO_FORMAS_NORMALIZADAS) NORMALIZADAS.put(consulta, forma);
+
+        return forma;
+    }
+}
@@ -0,0 +1,56 @@
+package com.adminrec.tfi.monitoreo;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Un temporizador por metodo publico de cada servicio (tfi.servicios, con clase, metodo y excepcion).
+// Los de las llamadas exitosas se guardan por metodo para no armar el Timer en cada invocacion.
+// Los servicios de monitoreo quedan afuera: se llaman en cada peticion y solo medirian la propia medicion
+@Aspect
+@Component
+public class MetricasServiciosAspect {
+    private static final String METRICA = "tfi.servicios";
+
+    private final MeterRegistry registry;
+    private final Map<Method, Timer> exitosas = new ConcurrentHashMap<>();
+
+    public MetricasServiciosAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.adminrec.tfi.services..*(..))"
+            + " && !within(com.adminrec.tfi.services.ServicioMonitoreoSql)"
+            + " && !within(com.adminrec.tfi.services.ServicioConsultasLentas)")
+    public Object medir(ProceedingJoinPoint punto) throws Throwable {
+        Method metodo = ((MethodSignature) punto.getSignature()).getMethod();
+        Timer.Sample muestra = Timer.start(registry);
+
+        try {
+            Object resultado = punto.proceed();
+            muestra.stop(exitosas.computeIfAbsent(metodo, m -> temporizador(m, "ninguna")));
+
+            return resultado;
+        } catch (Throwable e) {
+            muestra.stop(temporizador(metodo, e.getClass().getSimpleName()));
+            throw e;
+        }
+    }
+
+    private Timer temporizador(Method metodo, String excepcion) {
+        return Timer.builder(METRICA)
+                .description("Duracion de los metodos de los servicios")
+                .tag("clase", metodo.getDeclaringClass().getSimpleName())
+                .tag("metodo", metodo.getName())
+                .tag("excepcion", excepcion)
+                .register(registry);
+    }
+}
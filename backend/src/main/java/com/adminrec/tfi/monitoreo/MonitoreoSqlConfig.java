@@ -0,0 +1,128 @@
+package com.adminrec.tfi.monitoreo;
+
+import com.adminrec.tfi.services.ServicioConsultasLentas;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.proxy.SimpleResultSetProxyLogic;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Envuelve el DataSource para que cada sentencia y cada fila leida se sumen a la medicion de la peticion en curso.
+// Los ResultSet tambien pasan por el proxy: es la unica forma de contar filas sin tocar los repositorios. No se
+// registra ningun MethodExecutionListener, que se llamaria en cada metodo de cada conexion, sentencia y ResultSet;
+// el proxy de los ResultSet delega directo y solo mira el resultado de next
+// Las sentencias que superan sql.lentas.umbral-ms se guardan ademas en el registro de consultas lentas
+@Component
+public class MonitoreoSqlConfig implements BeanPostProcessor {
+    private final boolean habilitado;
+    private final long umbralLentasMs;
+    // Se resuelve recien con la primera consulta lenta: el DataSource se envuelve antes de que exista el servicio
+    private final ObjectProvider<ServicioConsultasLentas> consultasLentas;
+
+    public MonitoreoSqlConfig(
+            @Value("${sql.monitoreo.habilitado:true}") boolean habilitado,
+            @Value("${sql.lentas.umbral-ms:500}") long umbralLentasMs,
+            ObjectProvider<ServicioConsultasLentas> consultasLentas
+    ) {
+        this.habilitado = habilitado;
+        this.umbralLentasMs = umbralLentasMs;
+        this.consultasLentas = consultasLentas;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!habilitado || !(bean instanceof DataSource dataSource)) return bean;
+
+        return ProxyDataSourceBuilder.create(beanName, dataSource)
+                .listener(new ContadorSentencias())
+                .listener(new RegistroConsultasLentas())
+                .proxyResultSet(ContadorFilas::new)
+                .build();
+    }
+
+    private static class ContadorSentencias implements QueryExecutionListener {
+        @Override
+        public void beforeQuery(ExecutionInfo info, List<QueryInfo> consultas) {
+            MedicionSql medicion = MedicionSql.actual();
+            if (medicion != null) medicion.antesDeSentencia();
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo info, List<QueryInfo> consultas) {
+            MedicionSql medicion = MedicionSql.actual();
+            if (medicion != null) medicion.despuesDeSentencia(consultas.stream().map(QueryInfo::getQuery).toList());
+        }
+    }
+
+    private class RegistroConsultasLentas implements QueryExecutionListener {
+        @Override
+        public void beforeQuery(ExecutionInfo info, List<QueryInfo> consultas) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo info, List<QueryInfo> consultas) {
+            if (info.getElapsedTime() < umbralLentasMs || consultas.isEmpty()) return;
+
+            QueryInfo consulta = consultas.get(0);
+            // Los EXPLAIN del propio registro tambien pasan por aca
+            if (consulta.getQuery().stripLeading().regionMatches(true, 0, "explain", 0, 7)) return;
+
+            consultasLentas.getObject().registrar(
+                    consulta.getQuery(),
+                    parametros(consulta),
+                    info.getElapsedTime(),
+                    info.isBatch() || consultas.size() > 1
+            );
+        }
+
+        // Valores del primer juego de parametros, en el orden de los "?"; en un lote alcanza con uno de ejemplo
+        private static List<Object> parametros(QueryInfo consulta) {
+            if (consulta.getParametersList().isEmpty()) return List.of();
+
+            List<ParameterSetOperation> operaciones = new ArrayList<>(consulta.getParametersList().get(0));
+            operaciones.sort(Comparator.comparing(operacion -> (Integer) operacion.getArgs()[0]));
+
+            List<Object> valores = new ArrayList<>(operaciones.size());
+
+            for (ParameterSetOperation operacion : operaciones) {
+                valores.add(ParameterSetOperation.isSetNullParameterOperation(operacion) ? null : operacion.getArgs()[1]);
+            }
+
+            return valores;
+        }
+    }
+
+    // Saltea el armado del contexto y la llamada a los listeners de SimpleResultSetProxyLogic.invoke; los metodos
+    // comunes (unwrap, getTarget, toString...) se siguen resolviendo en performProxyLogic
+    static class ContadorFilas extends SimpleResultSetProxyLogic {
+        ContadorFilas(ResultSet resultSet, ConnectionInfo conexion, ProxyConfig config) {
+            super(resultSet, conexion, config);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] argumentos) throws Throwable {
+            Object resultado = performProxyLogic(proxy, metodo, argumentos, null);
+
+            if (Boolean.TRUE.equals(resultado) && "next".equals(metodo.getName())) {
+                MedicionSql medicion = MedicionSql.actual();
+                if (medicion != null) medicion.filaLeida();
+            }
+
+            return resultado;
+        }
+    }
+}
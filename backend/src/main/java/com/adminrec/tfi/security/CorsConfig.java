@@ -20,7 +20,7 @@ public class CorsConfig {
                 "http://behavior-neil-phones-wed.trycloudflare.com", "http://localhost:3000"));
         cfg.setAllowedOriginPatterns(List.of("https://*.figma.site"));
         cfg.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        cfg.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type"));
+        cfg.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type", "Last-Event-ID"));
         cfg.setExposedHeaders(List.of("Authorization"));
         cfg.setAllowCredentials(true);
         cfg.setMaxAge(3600L);
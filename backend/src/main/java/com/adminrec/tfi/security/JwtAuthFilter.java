@@ -16,20 +16,35 @@ import java.io.IOException;
 import java.util.ArrayList;
 
 public class JwtAuthFilter extends OncePerRequestFilter {
+    private static final String RUTA_STREAM = "/api/requests/stream";
+
     private final JwtUtil jwtUtil;
 
     public JwtAuthFilter(JwtUtil jwtUtil) {
         this.jwtUtil = jwtUtil;
     }
 
+    // EventSource no puede mandar cabeceras: el stream SSE acepta ademas un token corto en ?token=, pedido antes
+    // con el token de sesion. Cada token sirve solo por su via, asi que uno filtrado en una URL o un log no abre
+    // el resto de la API
     @Override
     protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
     throws ServletException, IOException {
         String header = req.getHeader("Authorization");
+        String token = null;
+        boolean deStream = false;
+
         if (header != null && header.startsWith("Bearer ")) {
-            String token = header.substring(7);
+            token = header.substring(7);
+        } else if (RUTA_STREAM.equals(req.getServletPath()) && req.getParameter("token") != null) {
+            token = req.getParameter("token");
+            deStream = true;
+        }
+
+        if (token != null && jwtUtil.isTokenValid(token)) {
+            String uso = jwtUtil.extractClaim(token, claims -> (String) claims.get(JwtUtil.CLAIM_USO));
 
-            if (jwtUtil.isTokenValid(token)) {
+            if (deStream == JwtUtil.USO_STREAM.equals(uso)) {
                 String subject = jwtUtil.extractSubject(token);
                 String rolTk = jwtUtil.extractClaim(token, claims -> (String) claims.get("role"));
 
@@ -0,0 +1,41 @@
+package com.adminrec.tfi.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// Mide cada hash y cada verificacion (tfi.argon2). Argon2 es deliberadamente caro en CPU y memoria,
+// asi que es lo primero que hay que mirar cuando el login o el alta masiva se ponen lentos
+public class PasswordEncoderMedido implements PasswordEncoder {
+    private final PasswordEncoder delegado;
+    private final Timer hash;
+    private final Timer verificacion;
+
+    public PasswordEncoderMedido(PasswordEncoder delegado, MeterRegistry registry) {
+        this.delegado = delegado;
+        this.hash = temporizador(registry, "hash");
+        this.verificacion = temporizador(registry, "verificacion");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash.record(() -> delegado.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return Boolean.TRUE.equals(verificacion.record(() -> delegado.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    private static Timer temporizador(MeterRegistry registry, String operacion) {
+        return Timer.builder("tfi.argon2")
+                .description("Duracion de los hashes y verificaciones de contrasenas")
+                .tag("operacion", operacion)
+                .register(registry);
+    }
+}
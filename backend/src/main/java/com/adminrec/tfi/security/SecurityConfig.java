@@ -1,6 +1,9 @@
 package com.adminrec.tfi.security;
 
 import com.adminrec.tfi.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -24,8 +27,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new Argon2PasswordEncoder(16, 32, 1, 4096, 3);
+    public PasswordEncoder passwordEncoder(MeterRegistry registry) {
+        return new PasswordEncoderMedido(new Argon2PasswordEncoder(16, 32, 1, 4096, 3), registry);
     }
 
     @Bean
@@ -37,7 +40,11 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                     .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                    // El despacho asincrono de los streams SSE ya fue autorizado en la peticion original
+                    .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                     .requestMatchers("/api/login").permitAll()
+                    // Salud y scraping de Prometheus; van por el puerto de gestion, que no se expone afuera
+                    .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                     .anyRequest().authenticated()
             );
 
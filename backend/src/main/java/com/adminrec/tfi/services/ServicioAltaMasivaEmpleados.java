@@ -0,0 +1,413 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.exceptions.ArchivoAltaMasivaInvalidoException;
+import com.adminrec.tfi.interfaces.RepositorioEmpleados;
+import com.adminrec.tfi.interfaces.RepositorioPuestos;
+import com.adminrec.tfi.util.dtos.entities.AltaEmpleadoDTO;
+import com.adminrec.tfi.util.dtos.entities.EmpleadoDTO;
+import com.adminrec.tfi.util.dtos.entities.FilaAltaMasivaDTO;
+import com.adminrec.tfi.util.dtos.entities.PuestoDTO;
+import com.adminrec.tfi.util.dtos.entities.ResultadoAltaMasivaDTO;
+import com.adminrec.tfi.util.enums.Rol;
+import com.adminrec.tfi.util.events.EmpleadoActualizadoEvento;
+import com.adminrec.tfi.util.events.EmpleadosModificadosEvento;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Alta de muchos empleados en una sola operacion: valida todo en memoria, hashea las contraseñas en paralelo
+// y guarda empleado, ingreso, cuenta y fila de jerarquia con inserciones por lotes, una transaccion por lote
+@Service
+public class ServicioAltaMasivaEmpleados {
+    private static final List<String> COLUMNAS_CSV = List.of(
+            "apellido", "nombre", "dni", "correo", "domicilio", "fechaNacimiento",
+            "fechaContratacion", "telefono", "idPuesto", "contrasena"
+    );
+    // Largo de la columna telefono en la tabla, menor al que admite el DTO
+    private static final int LARGO_MAXIMO_TELEFONO = 12;
+
+    private static final String INSERTAR_EMPLEADO = """
+            insert into empleados (es_supervisor_de_sector, apellido, nombre, dni, correo, domicilio,
+                fecha_nacimiento, fecha_contratacion, telefono, id_puesto, creado_en, actualizado_en)
+            values (false, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERTAR_INGRESO = """
+            insert into ingresos_egresos (id_empleado, id_puesto, creado_en) values (?, ?, ?)
+            """;
+    private static final String INSERTAR_CUENTA = """
+            insert into cuentas (id_empleado, contrasena, rol, creado_en, actualizado_en) values (?, ?, ?, ?, ?)
+            """;
+    private static final String INSERTAR_JERARQUIA = """
+            insert into jerarquia_empleados (id_ancestro, id_descendiente, profundidad) values (?, ?, 0)
+            """;
+
+    private final RepositorioEmpleados repositorioEmpleados;
+    private final RepositorioPuestos repositorioPuestos;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher publicadorEventos;
+    private final ThreadPoolExecutor poolHash;
+    private final int tamanoLote;
+    private final int maximoFilas;
+
+    public ServicioAltaMasivaEmpleados(
+            RepositorioEmpleados repositorioEmpleados,
+            RepositorioPuestos repositorioPuestos,
+            PasswordEncoder passwordEncoder,
+            Validator validator,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher publicadorEventos,
+            @Value("${empleados.alta-masiva.hilos-hash:4}") int hilosHash,
+            @Value("${empleados.alta-masiva.tamano-lote:500}") int tamanoLote,
+            @Value("${empleados.alta-masiva.maximo-filas:5000}") int maximoFilas
+    ) {
+        this.repositorioEmpleados = repositorioEmpleados;
+        this.repositorioPuestos = repositorioPuestos;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publicadorEventos = publicadorEventos;
+        this.tamanoLote = tamanoLote;
+        this.maximoFilas = maximoFilas;
+
+        // Argon2 usa memoria y CPU por cada hash, asi que la cantidad de hilos y la cola quedan acotadas;
+        // si la cola se llena el hilo del request hashea por su cuenta en lugar de acumular tareas
+        AtomicInteger numeroHilo = new AtomicInteger();
+        this.poolHash = new ThreadPoolExecutor(
+                hilosHash, hilosHash, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanoLote),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "alta-masiva-hash-" + numeroHilo.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        poolHash.shutdownNow();
+    }
+
+    public ResultadoAltaMasivaDTO importar(List<AltaEmpleadoDTO> altas) {
+        if (altas == null) throw new ArchivoAltaMasivaInvalidoException("El cuerpo debe ser un arreglo de empleados");
+
+        List<Entrada> entradas = new ArrayList<>(altas.size());
+        for (int i = 0; i < altas.size(); i++) {
+            AltaEmpleadoDTO alta = altas.get(i);
+            entradas.add(alta == null
+                    ? new Entrada(i + 1, null, "La fila esta vacia")
+                    : new Entrada(i + 1, alta, null));
+        }
+
+        return procesar(entradas);
+    }
+
+    public ResultadoAltaMasivaDTO importarCsv(String contenido) {
+        if (contenido == null || contenido.isBlank()) throw new ArchivoAltaMasivaInvalidoException("El archivo esta vacio");
+
+        List<List<String>> registros = leerRegistrosCsv(contenido);
+        List<String> encabezado = registros.get(0).stream().map(String::trim).toList();
+
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < encabezado.size(); i++) columnas.put(encabezado.get(i), i);
+
+        List<String> faltantes = COLUMNAS_CSV.stream().filter(c -> !columnas.containsKey(c)).toList();
+        if (!faltantes.isEmpty()) {
+            throw new ArchivoAltaMasivaInvalidoException("Faltan columnas en el encabezado: " + String.join(", ", faltantes));
+        }
+
+        List<Entrada> entradas = new ArrayList<>(registros.size() - 1);
+        for (int i = 1; i < registros.size(); i++) {
+            List<String> valores = registros.get(i);
+            if (valores.size() == 1 && valores.get(0).isBlank()) continue;
+
+            try {
+                entradas.add(new Entrada(i, convertirRegistro(valores, columnas), null));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                entradas.add(new Entrada(i, null, "Valor invalido: " + e.getMessage()));
+            }
+        }
+
+        return procesar(entradas);
+    }
+
+    private ResultadoAltaMasivaDTO procesar(List<Entrada> entradas) {
+        if (entradas.isEmpty()) throw new ArchivoAltaMasivaInvalidoException("No hay empleados para importar");
+        if (entradas.size() > maximoFilas) {
+            throw new ArchivoAltaMasivaInvalidoException("No se pueden importar mas de " + maximoFilas + " empleados a la vez");
+        }
+
+        // Una consulta por tabla alcanza para validar todas las filas
+        Set<Integer> dnisExistentes = new HashSet<>(repositorioEmpleados.listarDnis());
+        Set<Long> puestosActivos = new HashSet<>(repositorioPuestos.listarIdsActivos());
+        Map<Integer, Integer> filaPorDni = new HashMap<>();
+
+        FilaAltaMasivaDTO[] filas = new FilaAltaMasivaDTO[entradas.size()];
+        List<Integer> aceptadas = new ArrayList<>();
+
+        for (int i = 0; i < entradas.size(); i++) {
+            Entrada entrada = entradas.get(i);
+            Integer dni = entrada.alta() != null && entrada.alta().getEmpleado() != null
+                    ? entrada.alta().getEmpleado().getDni()
+                    : null;
+            String error = entrada.error() != null
+                    ? entrada.error()
+                    : validar(entrada.alta(), dnisExistentes, puestosActivos, filaPorDni);
+
+            if (error != null) {
+                filas[i] = rechazada(entrada.fila(), dni, error);
+            } else {
+                filaPorDni.put(dni, entrada.fila());
+                aceptadas.add(i);
+            }
+        }
+
+        for (int desde = 0; desde < aceptadas.size(); desde += tamanoLote) {
+            List<Integer> lote = aceptadas.subList(desde, Math.min(desde + tamanoLote, aceptadas.size()));
+            guardarLote(lote, entradas, filas);
+        }
+
+        List<FilaAltaMasivaDTO> resultado = Arrays.asList(filas);
+        int creados = (int) resultado.stream().filter(f -> "CREADO".equals(f.getEstado())).count();
+
+        return new ResultadoAltaMasivaDTO(creados, resultado.size() - creados, resultado);
+    }
+
+    private String validar(
+            AltaEmpleadoDTO alta,
+            Set<Integer> dnisExistentes,
+            Set<Long> puestosActivos,
+            Map<Integer, Integer> filaPorDni
+    ) {
+        Set<ConstraintViolation<AltaEmpleadoDTO>> violaciones = validator.validate(alta);
+        if (!violaciones.isEmpty()) {
+            return violaciones.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        EmpleadoDTO empleado = alta.getEmpleado();
+
+        if (empleado.getTelefono().length() > LARGO_MAXIMO_TELEFONO) {
+            return "El teléfono no puede superar los " + LARGO_MAXIMO_TELEFONO + " caracteres";
+        }
+        if (dnisExistentes.contains(empleado.getDni())) {
+            return "Ya existe un empleado con el dni " + empleado.getDni();
+        }
+        if (filaPorDni.containsKey(empleado.getDni())) {
+            return "El dni " + empleado.getDni() + " esta repetido en la fila " + filaPorDni.get(empleado.getDni());
+        }
+
+        Long idPuesto = empleado.getPuesto().getId();
+        if (idPuesto == null || !puestosActivos.contains(idPuesto)) {
+            return "El puesto con id " + idPuesto + " no existe";
+        }
+
+        return null;
+    }
+
+    private void guardarLote(List<Integer> lote, List<Entrada> entradas, FilaAltaMasivaDTO[] filas) {
+        List<Future<String>> hashes = new ArrayList<>(lote.size());
+        for (Integer indice : lote) {
+            String contrasena = entradas.get(indice).alta().getContrasena();
+            hashes.add(poolHash.submit(() -> passwordEncoder.encode(contrasena)));
+        }
+
+        List<String> contrasenas = new ArrayList<>(lote.size());
+        try {
+            for (Future<String> hash : hashes) contrasenas.add(hash.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            hashes.forEach(h -> h.cancel(true));
+            rechazarLote(lote, entradas, filas, "La importacion fue interrumpida");
+            return;
+        } catch (ExecutionException e) {
+            hashes.forEach(h -> h.cancel(true));
+            rechazarLote(lote, entradas, filas, "No se pudo procesar la contraseña del lote");
+            return;
+        }
+
+        try {
+            Map<Integer, Long> idsPorDni = transactionTemplate.execute(estado -> insertarLote(lote, entradas, contrasenas));
+
+            for (Integer indice : lote) {
+                Entrada entrada = entradas.get(indice);
+                Integer dni = entrada.alta().getEmpleado().getDni();
+                filas[indice] = new FilaAltaMasivaDTO(entrada.fila(), dni, "CREADO", null, idsPorDni.get(dni));
+            }
+        } catch (RuntimeException e) {
+            // El lote se revierte completo, por ejemplo si otro usuario registro uno de los dni mientras tanto
+            rechazarLote(lote, entradas, filas, "No se pudo guardar el lote de empleados");
+        }
+    }
+
+    private Map<Integer, Long> insertarLote(List<Integer> lote, List<Entrada> entradas, List<String> contrasenas) {
+        LocalDateTime ahora = LocalDateTime.now();
+        LocalDate hoy = ahora.toLocalDate();
+
+        List<Object[]> empleados = new ArrayList<>(lote.size());
+        List<Integer> dnis = new ArrayList<>(lote.size());
+        for (Integer indice : lote) {
+            EmpleadoDTO e = entradas.get(indice).alta().getEmpleado();
+            dnis.add(e.getDni());
+            empleados.add(new Object[]{
+                    e.getApellido(), e.getNombre(), e.getDni(), e.getCorreo(), e.getDomicilio(),
+                    e.getFechaNacimiento(), e.getFechaContratacion(), e.getTelefono(), e.getPuesto().getId(),
+                    ahora, ahora
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERTAR_EMPLEADO, empleados);
+
+        // Las claves generadas no vuelven de forma confiable en un batch, se recuperan por dni
+        Map<Integer, Long> idsPorDni = new HashMap<>();
+        for (Object[] fila : repositorioEmpleados.listarIdsPorDni(dnis)) {
+            idsPorDni.put((Integer) fila[1], (Long) fila[0]);
+        }
+
+        List<Object[]> ingresos = new ArrayList<>(lote.size());
+        List<Object[]> cuentas = new ArrayList<>(lote.size());
+        List<Object[]> jerarquia = new ArrayList<>(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            EmpleadoDTO e = entradas.get(lote.get(i)).alta().getEmpleado();
+            Long id = idsPorDni.get(e.getDni());
+
+            ingresos.add(new Object[]{id, e.getPuesto().getId(), hoy});
+            cuentas.add(new Object[]{id, contrasenas.get(i), Rol.EMPLOYEE.name(), ahora, ahora});
+            jerarquia.add(new Object[]{id, id});
+        }
+        jdbcTemplate.batchUpdate(INSERTAR_INGRESO, ingresos);
+        jdbcTemplate.batchUpdate(INSERTAR_CUENTA, cuentas);
+        jdbcTemplate.batchUpdate(INSERTAR_JERARQUIA, jerarquia);
+
+        // Los oyentes reciben los eventos recien cuando el lote se confirma. El directorio toma los datos de cada
+        // evento; los indices que releen la base usan el del lote entero
+        for (Integer indice : lote) {
+            EmpleadoDTO e = entradas.get(indice).alta().getEmpleado();
+            publicadorEventos.publishEvent(new EmpleadoActualizadoEvento(
+                    idsPorDni.get(e.getDni()), e.getApellido(), e.getNombre(), e.getDni(), e.getCorreo(), false
+            ));
+        }
+
+        publicadorEventos.publishEvent(new EmpleadosModificadosEvento(List.copyOf(idsPorDni.values())));
+
+        return idsPorDni;
+    }
+
+    private void rechazarLote(List<Integer> lote, List<Entrada> entradas, FilaAltaMasivaDTO[] filas, String mensaje) {
+        for (Integer indice : lote) {
+            Entrada entrada = entradas.get(indice);
+            filas[indice] = rechazada(entrada.fila(), entrada.alta().getEmpleado().getDni(), mensaje);
+        }
+    }
+
+    private static FilaAltaMasivaDTO rechazada(int fila, Integer dni, String mensaje) {
+        return new FilaAltaMasivaDTO(fila, dni, "RECHAZADO", mensaje, null);
+    }
+
+    private static AltaEmpleadoDTO convertirRegistro(List<String> valores, Map<String, Integer> columnas) {
+        EmpleadoDTO empleado = new EmpleadoDTO();
+        empleado.setApellido(valor(valores, columnas, "apellido"));
+        empleado.setNombre(valor(valores, columnas, "nombre"));
+        empleado.setDni(entero(valor(valores, columnas, "dni")));
+        empleado.setCorreo(valor(valores, columnas, "correo"));
+        empleado.setDomicilio(valor(valores, columnas, "domicilio"));
+        empleado.setFechaNacimiento(fecha(valor(valores, columnas, "fechaNacimiento")));
+        empleado.setFechaContratacion(fecha(valor(valores, columnas, "fechaContratacion")));
+        empleado.setTelefono(valor(valores, columnas, "telefono"));
+
+        String idPuesto = valor(valores, columnas, "idPuesto");
+        if (idPuesto != null) {
+            PuestoDTO puesto = new PuestoDTO();
+            puesto.setId(Long.valueOf(idPuesto));
+            empleado.setPuesto(puesto);
+        }
+
+        return new AltaEmpleadoDTO(empleado, valor(valores, columnas, "contrasena"));
+    }
+
+    private static String valor(List<String> valores, Map<String, Integer> columnas, String columna) {
+        int indice = columnas.get(columna);
+        if (indice >= valores.size()) return null;
+
+        String valor = valores.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static Integer entero(String valor) {
+        return valor == null ? null : Integer.valueOf(valor);
+    }
+
+    private static LocalDate fecha(String valor) {
+        return valor == null ? null : LocalDate.parse(valor);
+    }
+
+    // Separa el contenido en registros y campos separados por coma; admite campos entre comillas
+    // con comas, saltos de linea y comillas dobladas ("") adentro
+    static List<List<String>> leerRegistrosCsv(String contenido) {
+        List<List<String>> registros = new ArrayList<>();
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+
+        int inicio = contenido.charAt(0) == '\uFEFF' ? 1 : 0;
+        for (int i = inicio; i < contenido.length(); i++) {
+            char c = contenido.charAt(i);
+
+            if (entreComillas) {
+                if (c == '"' && i + 1 < contenido.length() && contenido.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < contenido.length() && contenido.charAt(i + 1) == '\n') i++;
+                campos.add(campo.toString());
+                campo.setLength(0);
+                registros.add(campos);
+                campos = new ArrayList<>();
+            } else {
+                campo.append(c);
+            }
+        }
+
+        if (entreComillas) throw new ArchivoAltaMasivaInvalidoException("El archivo tiene comillas sin cerrar");
+        if (campo.length() > 0 || !campos.isEmpty()) {
+            campos.add(campo.toString());
+            registros.add(campos);
+        }
+
+        return registros;
+    }
+
+    private record Entrada(int fila, AltaEmpleadoDTO alta, String error) {}
+}
@@ -0,0 +1,138 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.exceptions.ArchivadoEnCursoException;
+import com.adminrec.tfi.exceptions.EmpleadoInexistenteException;
+import com.adminrec.tfi.interfaces.RepositorioEmpleados;
+import com.adminrec.tfi.interfaces.RepositorioEmpleadosArchivados;
+import com.adminrec.tfi.interfaces.RepositorioSolicitudes;
+import com.adminrec.tfi.util.dtos.entities.ArchivoEmpleadoDTO;
+import com.adminrec.tfi.util.dtos.entities.EmpleadoArchivadoDTO;
+import com.adminrec.tfi.util.events.EmpleadosModificadosEvento;
+import com.adminrec.tfi.util.mappers.SolicitudMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Saca de las tablas en uso a los empleados borrados hace mas de N dias, junto con sus asistencias, solicitudes
+// e ingresos/egresos. Se mueven por lotes, cada uno en su propia transaccion, para no bloquear las tablas
+@Service
+public class ServicioArchivoEmpleados {
+    private final RepositorioEmpleados repositorioEmpleados;
+    private final RepositorioEmpleadosArchivados repositorioArchivo;
+    private final RepositorioSolicitudes repositorioSolicitudes;
+    private final ServicioAusencias servicioAusencias;
+    private final ApplicationEventPublisher publicadorEventos;
+    private final TransactionTemplate transactionTemplate;
+    private final int diasDesdeBorrado;
+    private final int tamanoLote;
+    private final AtomicBoolean enCurso = new AtomicBoolean();
+
+    public ServicioArchivoEmpleados(
+            RepositorioEmpleados repositorioEmpleados,
+            RepositorioEmpleadosArchivados repositorioArchivo,
+            RepositorioSolicitudes repositorioSolicitudes,
+            ServicioAusencias servicioAusencias,
+            ApplicationEventPublisher publicadorEventos,
+            PlatformTransactionManager transactionManager,
+            @Value("${empleados.archivo.dias-desde-borrado:365}") int diasDesdeBorrado,
+            @Value("${empleados.archivo.tamano-lote:200}") int tamanoLote
+    ) {
+        this.repositorioEmpleados = repositorioEmpleados;
+        this.repositorioArchivo = repositorioArchivo;
+        this.repositorioSolicitudes = repositorioSolicitudes;
+        this.servicioAusencias = servicioAusencias;
+        this.publicadorEventos = publicadorEventos;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.diasDesdeBorrado = diasDesdeBorrado;
+        this.tamanoLote = tamanoLote;
+    }
+
+    @Scheduled(cron = "${empleados.archivo.cron:0 30 3 * * *}")
+    public void archivarProgramado() {
+        if (enCurso.get()) return;
+
+        archivar();
+    }
+
+    // Devuelve la cantidad de empleados archivados
+    public int archivar() {
+        if (!enCurso.compareAndSet(false, true)) {
+            throw new ArchivadoEnCursoException("Ya hay un archivado de empleados en curso");
+        }
+
+        try {
+            LocalDateTime borradoAntesDe = LocalDateTime.now().minusDays(diasDesdeBorrado);
+            int archivados = 0;
+
+            while (true) {
+                List<Long> ids = repositorioEmpleados.listarArchivables(borradoAntesDe, Limit.of(tamanoLote));
+                if (ids.isEmpty()) break;
+
+                List<Long> sectores = transactionTemplate.execute(estado -> moverLote(ids));
+
+                // Las solicitudes archivadas dejan de ocupar cupo en el indice de ausencias
+                sectores.forEach(servicioAusencias::reconstruir);
+                archivados += ids.size();
+
+                if (ids.size() < tamanoLote) break;
+            }
+
+            return archivados;
+        } finally {
+            enCurso.set(false);
+        }
+    }
+
+    // Primero se copian las filas y despues se borran, de las dependientes hacia el empleado
+    private List<Long> moverLote(List<Long> ids) {
+        List<Long> sectores = repositorioSolicitudes.listarSectoresDeEmpleados(ids);
+
+        repositorioArchivo.copiarEmpleados(ids, LocalDateTime.now());
+        repositorioArchivo.copiarAsistencias(ids);
+        repositorioArchivo.copiarSolicitudes(ids);
+        repositorioArchivo.copiarIngresosEgresos(ids);
+
+        repositorioArchivo.borrarAsistencias(ids);
+        repositorioArchivo.borrarSolicitudes(ids);
+        repositorioArchivo.borrarIngresosEgresos(ids);
+        repositorioArchivo.borrarCuentas(ids);
+        repositorioArchivo.borrarSaldos(ids);
+        repositorioArchivo.borrarJerarquia(ids);
+        repositorioArchivo.borrarEmpleados(ids);
+
+        // Los indices del historial y la dotacion releen a estos empleados desde el archivo al confirmar el lote
+        publicadorEventos.publishEvent(new EmpleadosModificadosEvento(ids));
+
+        return sectores;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<EmpleadoArchivadoDTO> listar(Integer dni, Pageable pageable) {
+        return repositorioArchivo.listar(dni, pageable);
+    }
+
+    @Transactional(readOnly = true)
+    public ArchivoEmpleadoDTO buscarUno(Long id) {
+        EmpleadoArchivadoDTO empleado = repositorioArchivo.buscarDTO(id).orElseThrow(
+                () -> new EmpleadoInexistenteException("El empleado archivado con id " + id + " no existe")
+        );
+
+        return new ArchivoEmpleadoDTO(
+                empleado,
+                repositorioArchivo.listarAsistencias(id),
+                repositorioArchivo.listarSolicitudes(id).stream().map(SolicitudMapper::toDTO).toList(),
+                repositorioArchivo.listarIngresosEgresos(id)
+        );
+    }
+}
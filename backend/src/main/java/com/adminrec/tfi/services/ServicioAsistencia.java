@@ -8,7 +8,10 @@ import com.adminrec.tfi.interfaces.RepositorioAsistencia;
 import com.adminrec.tfi.interfaces.RepositorioEmpleados;
 import com.adminrec.tfi.util.dtos.entities.AsistenciaDTO;
 import com.adminrec.tfi.util.mappers.AsistenciaMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,12 +20,22 @@ import java.util.List;
 public class ServicioAsistencia {
     private final RepositorioAsistencia repositorio;
     private final RepositorioEmpleados repositorioEmpleados;
+    // Fichadas por minuto = rate() de este contador
+    private final Counter asistenciasRegistradas;
 
-    public ServicioAsistencia(RepositorioAsistencia repositorio, RepositorioEmpleados repositorioEmpleados) {
+    public ServicioAsistencia(
+            RepositorioAsistencia repositorio,
+            RepositorioEmpleados repositorioEmpleados,
+            MeterRegistry registry
+    ) {
         this.repositorio = repositorio;
         this.repositorioEmpleados = repositorioEmpleados;
+        this.asistenciasRegistradas = Counter.builder("tfi.asistencias.registradas")
+                .description("Asistencias registradas por los empleados")
+                .register(registry);
     }
 
+    @Transactional
     public AsistenciaDTO registrar(Integer dni) {
         Empleado empleado = repositorioEmpleados.findByDni(dni).orElseThrow(
                 () -> new EmpleadoInexistenteException("El empleado con el dni " + dni + " no existe")
@@ -40,6 +53,7 @@ public class ServicioAsistencia {
             asistencia.setEmpleado(empleado);
             asistencia.setCreadoEn(LocalDateTime.now());
             repositorio.save(asistencia);
+            asistenciasRegistradas.increment();
 
             return AsistenciaMapper.toDTO(asistencia);
         } else {
@@ -47,6 +61,7 @@ public class ServicioAsistencia {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<AsistenciaDTO> listarTodasPara(Integer dni) {
         return repositorio.findAllByEmpleado_Dni(dni)
                 .stream()
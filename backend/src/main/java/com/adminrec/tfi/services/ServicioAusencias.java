@@ -0,0 +1,233 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.exceptions.CapacidadSectorExcedidaException;
+import com.adminrec.tfi.interfaces.RepositorioSolicitudes;
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.events.SolicitudActualizadaEvento;
+import com.adminrec.tfi.util.events.SolicitudesMovidasDeSectorEvento;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Indice en memoria de las ausencias con fecha (pendientes y aceptadas) por sector. Cada sector guarda la
+// cantidad de ausentes por dia en un arbol de segmentos, asi el maximo de un rango no depende de su largo
+@Service
+public class ServicioAusencias {
+    private static final List<EstadoSolicitud> ESTADOS_QUE_OCUPAN = List.of(EstadoSolicitud.PENDIENTE, EstadoSolicitud.ACEPTADO);
+
+    private final RepositorioSolicitudes repositorioSolicitudes;
+    private final int maximoPorSector;
+
+    private final Map<Long, IndiceSector> sectores = new ConcurrentHashMap<>();
+    private final Map<Long, Intervalo> porSolicitud = new ConcurrentHashMap<>();
+
+    private record Intervalo(Long idSector, int inicio, int fin) {}
+
+    public ServicioAusencias(
+            RepositorioSolicitudes repositorioSolicitudes,
+            @Value("${solicitudes.ausencias.maximo-por-sector:0}") int maximoPorSector
+    ) {
+        this.repositorioSolicitudes = repositorioSolicitudes;
+        this.maximoPorSector = maximoPorSector;
+    }
+
+    public int contarAusentes(Long idSector, LocalDate dia) {
+        IndiceSector indice = sectores.get(idSector);
+        return indice == null ? 0 : indice.ausentes((int) dia.toEpochDay());
+    }
+
+    public Map<LocalDate, Integer> contarAusentes(Long idSector, LocalDate desde, LocalDate hasta) {
+        Map<LocalDate, Integer> ausentes = new LinkedHashMap<>();
+
+        for (LocalDate dia = desde; !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            ausentes.put(dia, contarAusentes(idSector, dia));
+        }
+
+        return ausentes;
+    }
+
+    // Con maximo-por-sector en 0 no se limita la cantidad de ausentes. Si hay lugar, la ausencia se reserva en el
+    // indice en el mismo paso, asi dos altas concurrentes del sector no pueden pasar las dos por el ultimo lugar;
+    // la reserva se descarta si la transaccion de la solicitud no se confirma
+    public void reservar(Long idSolicitud, Long idSector, LocalDate inicio, LocalDate fin) {
+        if (maximoPorSector <= 0) return;
+
+        synchronized (this) {
+            IndiceSector indice = sectores.get(idSector);
+            int maximo = indice == null ? 0 : indice.maximoEnRango((int) inicio.toEpochDay(), (int) fin.toEpochDay());
+
+            if (maximo + 1 > maximoPorSector) {
+                throw new CapacidadSectorExcedidaException(
+                        "Entre el " + inicio + " y el " + fin + " ya hay " + maximo + " ausentes en el sector y el máximo es " + maximoPorSector
+                );
+            }
+
+            agregar(idSolicitud, idSector, inicio, fin);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    if (estado != STATUS_COMMITTED) liberar(idSolicitud);
+                }
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void actualizar(SolicitudActualizadaEvento evento) {
+        if (evento.idSector() == null || evento.fechaInicio() == null) return;
+
+        quitar(evento.idSolicitud());
+
+        if (ESTADOS_QUE_OCUPAN.contains(EstadoSolicitud.desdeString(evento.estadoSolicitud()))) {
+            agregar(evento.idSolicitud(), evento.idSector(), evento.fechaInicio(), evento.fechaFin());
+        }
+    }
+
+    private synchronized void liberar(Long idSolicitud) {
+        quitar(idSolicitud);
+    }
+
+    // Despues del commit: reconstruir dentro de la transaccion dejaria en el indice filas que podrian no confirmarse
+    @TransactionalEventListener(fallbackExecution = true)
+    public void actualizar(SolicitudesMovidasDeSectorEvento evento) {
+        evento.idsSectores().forEach(this::reconstruir);
+    }
+
+    // Los data loaders corren antes de este evento, asi que el indice arranca con sus solicitudes
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        reconstruir(null);
+    }
+
+    // Sin sector se reconstruye el indice completo
+    public synchronized void reconstruir(Long idSector) {
+        if (idSector == null) {
+            sectores.clear();
+            porSolicitud.clear();
+        } else {
+            sectores.remove(idSector);
+            porSolicitud.values().removeIf(intervalo -> intervalo.idSector().equals(idSector));
+        }
+
+        for (Object[] fila : repositorioSolicitudes.listarAusencias(ESTADOS_QUE_OCUPAN, idSector)) {
+            agregar((Long) fila[0], (Long) fila[1], (LocalDate) fila[2], (LocalDate) fila[3]);
+        }
+    }
+
+    private void agregar(Long idSolicitud, Long idSector, LocalDate inicio, LocalDate fin) {
+        Intervalo intervalo = new Intervalo(idSector, (int) inicio.toEpochDay(), (int) fin.toEpochDay());
+
+        porSolicitud.put(idSolicitud, intervalo);
+        sectores.computeIfAbsent(idSector, id -> new IndiceSector()).agregar(intervalo.inicio(), intervalo.fin());
+    }
+
+    private void quitar(Long idSolicitud) {
+        Intervalo intervalo = porSolicitud.remove(idSolicitud);
+        if (intervalo == null) return;
+
+        IndiceSector indice = sectores.get(intervalo.idSector());
+        if (indice != null) indice.quitar(intervalo.inicio(), intervalo.fin());
+    }
+
+    // Arbol de segmentos sobre los dias (epoch day) con suma en rango y maximo en rango, ambos en O(log D).
+    // Los nodos se crean al primer uso, asi que solo ocupan lugar los tramos del calendario con ausencias; la suma
+    // de un nodo no se propaga a los hijos y cada consulta la acumula al bajar
+    static final class IndiceSector {
+        // 2^17 dias cubren desde 1970 hasta 2328
+        static final int DIAS = 1 << 17;
+        private static final int RAIZ = 1;
+
+        // El nodo 0 representa a cualquier hijo todavia no creado: todos sus dias en 0
+        private int[] izquierdo = new int[64];
+        private int[] derecho = new int[64];
+        private int[] suma = new int[64];
+        private int[] maximo = new int[64];
+        private int nodos = 2;
+
+        synchronized void agregar(int inicio, int fin) {
+            sumar(RAIZ, 0, DIAS - 1, limitar(inicio), limitar(fin), 1);
+        }
+
+        synchronized void quitar(int inicio, int fin) {
+            sumar(RAIZ, 0, DIAS - 1, limitar(inicio), limitar(fin), -1);
+        }
+
+        synchronized int ausentes(int dia) {
+            return maximoEnRango(dia, dia);
+        }
+
+        synchronized int maximoEnRango(int desde, int hasta) {
+            return consultar(RAIZ, 0, DIAS - 1, limitar(desde), limitar(hasta));
+        }
+
+        private void sumar(int nodo, int izq, int der, int desde, int hasta, int valor) {
+            if (desde <= izq && der <= hasta) {
+                suma[nodo] += valor;
+                maximo[nodo] += valor;
+                return;
+            }
+
+            int medio = (izq + der) >>> 1;
+
+            // El hijo se crea antes de indexar: nuevoNodo puede reemplazar los arreglos
+            if (desde <= medio) {
+                if (izquierdo[nodo] == 0) {
+                    int hijo = nuevoNodo();
+                    izquierdo[nodo] = hijo;
+                }
+                sumar(izquierdo[nodo], izq, medio, desde, hasta, valor);
+            }
+            if (hasta > medio) {
+                if (derecho[nodo] == 0) {
+                    int hijo = nuevoNodo();
+                    derecho[nodo] = hijo;
+                }
+                sumar(derecho[nodo], medio + 1, der, desde, hasta, valor);
+            }
+
+            maximo[nodo] = suma[nodo] + Math.max(maximo[izquierdo[nodo]], maximo[derecho[nodo]]);
+        }
+
+        private int consultar(int nodo, int izq, int der, int desde, int hasta) {
+            if (nodo == 0) return 0;
+            if (desde <= izq && der <= hasta) return maximo[nodo];
+
+            int medio = (izq + der) >>> 1;
+            int mayor = Integer.MIN_VALUE;
+
+            if (desde <= medio) mayor = consultar(izquierdo[nodo], izq, medio, desde, hasta);
+            if (hasta > medio) mayor = Math.max(mayor, consultar(derecho[nodo], medio + 1, der, desde, hasta));
+
+            return suma[nodo] + mayor;
+        }
+
+        private int nuevoNodo() {
+            if (nodos == suma.length) {
+                izquierdo = Arrays.copyOf(izquierdo, nodos * 2);
+                derecho = Arrays.copyOf(derecho, nodos * 2);
+                suma = Arrays.copyOf(suma, nodos * 2);
+                maximo = Arrays.copyOf(maximo, nodos * 2);
+            }
+
+            return nodos++;
+        }
+
+        private static int limitar(int dia) {
+            return Math.max(0, Math.min(DIAS - 1, dia));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.Puesto;
+import com.adminrec.tfi.entities.Sector;
+import com.adminrec.tfi.exceptions.RegionCacheInexistenteException;
+import com.adminrec.tfi.util.dtos.entities.EstadisticasCacheDTO;
+import com.adminrec.tfi.util.dtos.entities.EstadisticasRegionCacheDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Estadisticas y vaciado de la cache de segundo nivel. Las escrituras por entidad las mantiene Hibernate (READ_WRITE);
+// el vaciado explicito queda para las escrituras que no pasan por las entidades
+@Service
+public class ServicioCache {
+    public static final String REGION_PUESTOS = "puestos";
+    public static final String REGION_SECTORES = "sectores";
+    public static final String REGION_CONSULTAS = "default-query-results-region";
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final AtomicLong vaciadosExplicitos = new AtomicLong();
+
+    public ServicioCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    public EstadisticasCacheDTO estadisticas() {
+        Statistics estadisticas = sessionFactory.getStatistics();
+        List<EstadisticasRegionCacheDTO> regiones = new ArrayList<>();
+
+        regiones.add(region(REGION_PUESTOS, estadisticas.getDomainDataRegionStatistics(REGION_PUESTOS)));
+        regiones.add(region(REGION_SECTORES, estadisticas.getDomainDataRegionStatistics(REGION_SECTORES)));
+        regiones.add(region(REGION_CONSULTAS, estadisticas.getQueryRegionStatistics(REGION_CONSULTAS)));
+
+        Map<String, Long> cargas = new LinkedHashMap<>();
+        cargas.put(Puesto.class.getSimpleName(), estadisticas.getEntityStatistics(Puesto.class.getName()).getLoadCount());
+        cargas.put(Sector.class.getSimpleName(), estadisticas.getEntityStatistics(Sector.class.getName()).getLoadCount());
+
+        return new EstadisticasCacheDTO(regiones, cargas, vaciadosExplicitos.get());
+    }
+
+    // Vacia una region, o todas si es nula
+    public void vaciar(String region) {
+        CacheImplementor cache = sessionFactory.getCache();
+
+        if (region == null) {
+            cache.evictEntityData(Puesto.class);
+            cache.evictEntityData(Sector.class);
+            cache.evictQueryRegions();
+        } else if (region.equals(REGION_PUESTOS)) {
+            cache.evictEntityData(Puesto.class);
+        } else if (region.equals(REGION_SECTORES)) {
+            cache.evictEntityData(Sector.class);
+        } else if (region.equals(REGION_CONSULTAS)) {
+            cache.evictDefaultQueryRegion();
+        } else {
+            throw new RegionCacheInexistenteException("La región de cache " + region + " no existe");
+        }
+
+        vaciadosExplicitos.incrementAndGet();
+    }
+
+    private EstadisticasRegionCacheDTO region(String nombre, CacheRegionStatistics estadisticas) {
+        if (estadisticas == null) return new EstadisticasRegionCacheDTO(nombre, 0L, 0L, 0L, 0L, 0L, 0D);
+
+        long aciertos = estadisticas.getHitCount();
+        long fallos = estadisticas.getMissCount();
+        double tasa = aciertos + fallos == 0 ? 0 : (double) aciertos / (aciertos + fallos);
+        com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine = caffeine(nombre);
+
+        return new EstadisticasRegionCacheDTO(
+                nombre,
+                aciertos,
+                fallos,
+                estadisticas.getPutCount(),
+                caffeine == null ? null : caffeine.stats().evictionCount(),
+                caffeine == null ? null : caffeine.estimatedSize(),
+                tasa
+        );
+    }
+
+    // Las expulsiones por tamano y la cantidad de elementos solo las conoce Caffeine; JCache no las expone
+    private com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine(String region) {
+        if (!(sessionFactory.getCache().getRegionFactory() instanceof JCacheRegionFactory regionFactory)) return null;
+
+        CacheManager cacheManager = regionFactory.getCacheManager();
+        Cache<Object, Object> cache = cacheManager.getCache(region);
+
+        return cache == null ? null : cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+    }
+}
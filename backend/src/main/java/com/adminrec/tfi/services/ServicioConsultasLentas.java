@@ -0,0 +1,261 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.util.dtos.entities.ConsultaLentaDTO;
+import com.adminrec.tfi.util.enums.EstadoPlanConsulta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Guarda las ultimas sentencias que superaron el umbral, con sus parametros, en un buffer circular de tamano fijo.
+// El plan se pide despues, en un unico hilo propio y contra la misma base, para no demorar la peticion que ya fue lenta
+@Service
+public class ServicioConsultasLentas {
+    private static final String PAQUETE_APLICACION = "com.adminrec.tfi.";
+    private static final String PAQUETE_MONITOREO = "com.adminrec.tfi.monitoreo.";
+    private static final int LARGO_MAXIMO_PARAMETRO = 100;
+    private static final int COLA_EXPLAIN = 50;
+    private static final String PARAMETRO_OCULTO = "***";
+
+    private final boolean explain;
+    // Sentencias sobre datos sensibles (hashes de contrasenas, por ejemplo): se guardan sin los valores
+    private final Pattern ocultarParametros;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolExecutor poolExplain;
+    private final Entrada[] buffer;
+    private final Counter contador;
+    // Cantidad de consultas lentas registradas desde el arranque; la siguiente va en (registradas % capacidad)
+    private long registradas;
+
+    public ServicioConsultasLentas(
+            DataSource dataSource,
+            @Value("${sql.lentas.capacidad:200}") int capacidad,
+            @Value("${sql.lentas.explain:true}") boolean explain,
+            @Value("${sql.lentas.explain-timeout-segundos:5}") int timeoutSegundos,
+            @Value("${sql.lentas.ocultar-parametros:cuentas,contrasena}") List<String> ocultarParametros,
+            MeterRegistry registry
+    ) {
+        this.explain = explain;
+        String nombresOcultos = ocultarParametros.stream()
+                .map(String::strip)
+                .filter(nombre -> !nombre.isEmpty())
+                .map(Pattern::quote)
+                .collect(Collectors.joining("|"));
+        this.ocultarParametros = nombresOcultos.isEmpty()
+                ? null
+                : Pattern.compile("\\b(?:" + nombresOcultos + ")\\b", Pattern.CASE_INSENSITIVE);
+        this.buffer = new Entrada[capacidad];
+        this.contador = Counter.builder("tfi.sql.lentas")
+                .description("Sentencias que superaron el umbral de consulta lenta")
+                .register(registry);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout(timeoutSegundos);
+
+        // Si la base esta saturada los EXPLAIN no deben sumarle carga: un solo hilo y, con la cola llena, se descartan
+        this.poolExplain = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(COLA_EXPLAIN),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "consultas-lentas-explain");
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        poolExplain.shutdownNow();
+    }
+
+    // Se llama desde el hilo que ejecuto la sentencia, asi que la peticion y la pila todavia son las de la consulta
+    public void registrar(String sql, List<Object> parametros, long duracionMs, boolean lote) {
+        contador.increment();
+        if (buffer.length == 0) return;
+
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        String endpoint = null;
+
+        if (atributos instanceof ServletRequestAttributes servlet) {
+            HttpServletRequest request = servlet.getRequest();
+            endpoint = request.getMethod() + " " + request.getRequestURI();
+        }
+
+        String[] origen = origen();
+        Entrada entrada = new Entrada(
+                LocalDateTime.now(),
+                duracionMs,
+                sql,
+                parametrosVisibles(sql, parametros),
+                endpoint,
+                Thread.currentThread().getName(),
+                origen[0],
+                origen[1]
+        );
+
+        synchronized (this) {
+            entrada.id = ++registradas;
+            buffer[(int) ((entrada.id - 1) % buffer.length)] = entrada;
+        }
+
+        if (!explain || lote || !esConsulta(sql)) {
+            entrada.estadoPlan = EstadoPlanConsulta.OMITIDO;
+            return;
+        }
+
+        try {
+            poolExplain.execute(() -> explicar(entrada, parametros));
+        } catch (RejectedExecutionException e) {
+            entrada.estadoPlan = EstadoPlanConsulta.OMITIDO;
+            entrada.errorPlan = "La cola de EXPLAIN estaba llena";
+        }
+    }
+
+    // Las mas recientes primero
+    public List<ConsultaLentaDTO> listar(Integer limite) {
+        List<ConsultaLentaDTO> consultas = new ArrayList<>();
+
+        synchronized (this) {
+            long desde = Math.max(0, registradas - buffer.length);
+            int maximo = limite == null ? buffer.length : Math.max(0, limite);
+
+            for (long i = registradas; i > desde && consultas.size() < maximo; i--) {
+                consultas.add(buffer[(int) ((i - 1) % buffer.length)].aDTO());
+            }
+        }
+
+        return consultas;
+    }
+
+    public synchronized void vaciar() {
+        Arrays.fill(buffer, null);
+        registradas = 0;
+    }
+
+    private void explicar(Entrada entrada, List<Object> parametros) {
+        try {
+            entrada.plan = jdbcTemplate.queryForList("EXPLAIN " + entrada.sql, parametros.toArray());
+            entrada.estadoPlan = EstadoPlanConsulta.LISTO;
+        } catch (Exception e) {
+            entrada.errorPlan = e.getMessage();
+            entrada.estadoPlan = EstadoPlanConsulta.ERROR;
+        }
+    }
+
+    // Solo se piden planes de lecturas; un EXPLAIN de una escritura no la ejecuta, pero tampoco es lo que se busca
+    private static boolean esConsulta(String sql) {
+        String inicio = sql.stripLeading();
+        return inicio.regionMatches(true, 0, "select", 0, 6) || inicio.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    // Se ocultan antes de entrar al buffer, asi no quedan en memoria ni salen por /api/sql/slow
+    private List<String> parametrosVisibles(String sql, List<Object> parametros) {
+        if (ocultarParametros != null && ocultarParametros.matcher(sql).find()) {
+            return Collections.nCopies(parametros.size(), PARAMETRO_OCULTO);
+        }
+
+        return parametros.stream().map(ServicioConsultasLentas::mostrar).toList();
+    }
+
+    private static String mostrar(Object parametro) {
+        if (parametro == null) return null;
+
+        String valor = parametro.toString();
+        return valor.length() > LARGO_MAXIMO_PARAMETRO ? valor.substring(0, LARGO_MAXIMO_PARAMETRO) + "..." : valor;
+    }
+
+    // Primer metodo de la aplicacion en la pila y, si llamo a un repositorio de Spring Data, el metodo del
+    // repositorio: es el marco del proxy del repositorio inmediatamente anterior
+    private static String[] origen() {
+        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE).walk(marcos -> {
+            String repositorio = null;
+
+            for (Iterator<StackWalker.StackFrame> it = marcos.iterator(); it.hasNext(); ) {
+                StackWalker.StackFrame marco = it.next();
+                Class<?> clase = marco.getDeclaringClass();
+                String nombre = clase.getName();
+
+                if (nombre.startsWith(PAQUETE_APLICACION)
+                        && !nombre.startsWith(PAQUETE_MONITOREO)
+                        && clase != ServicioConsultasLentas.class) {
+                    return new String[]{
+                            clase.getSimpleName() + "." + marco.getMethodName() + ":" + marco.getLineNumber(),
+                            repositorio
+                    };
+                }
+
+                if (Proxy.isProxyClass(clase)) {
+                    for (Class<?> interfaz : clase.getInterfaces()) {
+                        if (Repository.class.isAssignableFrom(interfaz) && interfaz.getName().startsWith(PAQUETE_APLICACION)) {
+                            repositorio = interfaz.getSimpleName() + "." + marco.getMethodName();
+                        }
+                    }
+                }
+            }
+
+            return new String[]{null, repositorio};
+        });
+    }
+
+    private static class Entrada {
+        private final LocalDateTime fecha;
+        private final long duracionMs;
+        private final String sql;
+        private final List<String> parametros;
+        private final String endpoint;
+        private final String hilo;
+        private final String origen;
+        private final String metodoRepositorio;
+        private long id;
+        // Los completa el hilo de EXPLAIN
+        private volatile EstadoPlanConsulta estadoPlan = EstadoPlanConsulta.PENDIENTE;
+        private volatile List<Map<String, Object>> plan;
+        private volatile String errorPlan;
+
+        Entrada(
+                LocalDateTime fecha,
+                long duracionMs,
+                String sql,
+                List<String> parametros,
+                String endpoint,
+                String hilo,
+                String origen,
+                String metodoRepositorio
+        ) {
+            this.fecha = fecha;
+            this.duracionMs = duracionMs;
+            this.sql = sql;
+            this.parametros = parametros;
+            this.endpoint = endpoint;
+            this.hilo = hilo;
+            this.origen = origen;
+            this.metodoRepositorio = metodoRepositorio;
+        }
+
+        ConsultaLentaDTO aDTO() {
+            return new ConsultaLentaDTO(
+                    id, fecha, duracionMs, sql, parametros, endpoint, hilo, origen, metodoRepositorio,
+                    estadoPlan, plan, errorPlan
+            );
+        }
+    }
+}
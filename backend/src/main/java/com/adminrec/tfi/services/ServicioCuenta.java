@@ -7,10 +7,12 @@ import com.adminrec.tfi.exceptions.CuentaExistenteException;
 import com.adminrec.tfi.exceptions.EmpleadoInexistenteException;
 import com.adminrec.tfi.interfaces.RepositorioCuentas;
 import com.adminrec.tfi.interfaces.RepositorioEmpleados;
+import com.adminrec.tfi.util.dtos.entities.SesionDTO;
 import com.adminrec.tfi.util.enums.Rol;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -40,19 +42,22 @@ public class ServicioCuenta {
         return repositorioCuentas.save(cuenta);
     }
 
-    public Cuenta iniciarSesion(Integer dniEmpleado, String contrasena) {
-        Cuenta cuenta = repositorioCuentas.findByEmpleado_Dni(dniEmpleado);
+    // Devuelve lo necesario para armar el token, sin entidades que el controlador tenga que recorrer
+    @Transactional(readOnly = true)
+    public SesionDTO iniciarSesion(Integer dniEmpleado, String contrasena) {
+        Cuenta cuenta = repositorioCuentas.buscarConEmpleadoPorDni(dniEmpleado);
 
         if (
                 cuenta == null || !passwordEncoder.matches(contrasena, cuenta.getContrasena())
         ) throw new CredencialesInvalidasException("Usuario o contraseña inválidos");
 
-        return cuenta;
+        Empleado empleado = cuenta.getEmpleado();
+
+        return new SesionDTO(empleado.getDni(), cuenta.getRol(), empleado.getApellido(), empleado.getNombre());
     }
 
+    @Transactional
     public void registrar(Integer dni, String contrasena) {
-        Cuenta cuenta = new Cuenta();
-
         Empleado empleado = repositorioEmpleados.findByDni(dni).orElseThrow(
                 () -> new EmpleadoInexistenteException("El empleado con el dni " +  dni + " no existe")
         );
@@ -61,15 +66,17 @@ public class ServicioCuenta {
 
         if (existencia != null) throw new CuentaExistenteException("El empleado con el dni " +  dni + " ya tiene una cuenta registrada");
 
+        registrar(empleado, contrasena);
+    }
+
+    // Para un empleado recien creado en la misma transaccion: no hace falta buscarlo de nuevo ni
+    // comprobar si ya tiene cuenta, la restriccion unica de id_empleado lo impide de todas formas
+    public void registrar(Empleado empleado, String contrasena) {
+        Cuenta cuenta = new Cuenta();
         cuenta.setEmpleado(empleado);
         cuenta.setContrasena(passwordEncoder.encode(contrasena));
 
         cuenta.setRol(empleado.isEsSupervisorDeSector()? Rol.SUPERVISOR : Rol.EMPLOYEE);
         repositorioCuentas.save(cuenta);
     }
-
-    public Empleado obtenerEmpleadoAsociado(Integer dni) {
-        return repositorioEmpleados.findByDni(dni)
-                .orElseThrow(() -> new EmpleadoInexistenteException("No se encontró ningún empleado con el dni " + dni));
-    }
 }
@@ -0,0 +1,515 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.interfaces.RepositorioEmpleados;
+import com.adminrec.tfi.util.dtos.entities.CoincidenciaEmpleadoDTO;
+import com.adminrec.tfi.util.events.EmpleadoActualizadoEvento;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.regex.Pattern;
+
+// Directorio de empleados en memoria para la busqueda del panel de administracion. La base es una foto
+// inmutable guardada en arreglos (datos por posicion, palabras ordenadas para busqueda por prefijo y listas
+// de posiciones por trigrama); los cambios posteriores van a una capa chica que se recorre entera y que,
+// al crecer, se compacta en una base nueva. Las lecturas toman la foto vigente sin bloquear
+@Service
+public class ServicioDirectorioEmpleados {
+    public static final int LIMITE_MAXIMO = 50;
+    private static final int CAMBIOS_ANTES_DE_COMPACTAR = 512;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+    private static final String SEPARADORES_NOMBRE = " ";
+    private static final String SEPARADORES_CORREO = "@._-";
+    private static final long LIMITE_ASCII = 1L << 21;
+
+    private static final byte CAMPO_APELLIDO = 0;
+    private static final byte CAMPO_NOMBRE = 1;
+    private static final byte CAMPO_CORREO = 2;
+    private static final byte CAMPO_DNI = 3;
+
+    private static final int PUNTAJE_DNI_EXACTO = 100;
+    private static final int PUNTAJE_DNI_PREFIJO = 80;
+    private static final int PUNTAJE_APELLIDO = 60;
+    private static final int PUNTAJE_NOMBRE = 50;
+    private static final int PUNTAJE_CORREO = 40;
+    private static final int PUNTAJE_CONTIENE = 20;
+
+    private static final Comparator<CoincidenciaEmpleadoDTO> ORDEN_RESULTADOS =
+            Comparator.comparing(CoincidenciaEmpleadoDTO::getPuntaje).reversed()
+                    .thenComparing(CoincidenciaEmpleadoDTO::getApellido)
+                    .thenComparing(CoincidenciaEmpleadoDTO::getNombre);
+
+    private final RepositorioEmpleados repositorioEmpleados;
+
+    private volatile Estado estado = new Estado(Base.construir(List.of()), Map.of());
+
+    private record Entrada(Long id, String apellido, String nombre, Integer dni, String correo) {}
+
+    // Entrada de la capa de cambios con los textos ya normalizados, porque se recorre en cada busqueda
+    private record Cambio(Entrada entrada, String apellido, String nombre, String dni, String correo) {
+        static Cambio de(Entrada entrada) {
+            return new Cambio(entrada, normalizar(entrada.apellido()), normalizar(entrada.nombre()), String.valueOf(entrada.dni()), normalizar(entrada.correo()));
+        }
+    }
+
+    // cambios: id -> entrada nueva, o null si el empleado se borro
+    private record Estado(Base base, Map<Long, Cambio> cambios) {}
+
+    public ServicioDirectorioEmpleados(RepositorioEmpleados repositorioEmpleados) {
+        this.repositorioEmpleados = repositorioEmpleados;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconstruir() {
+        List<Entrada> entradas = new ArrayList<>();
+
+        for (Object[] fila : repositorioEmpleados.listarDatosDeDirectorio()) {
+            entradas.add(new Entrada((Long) fila[0], (String) fila[1], (String) fila[2], (Integer) fila[3], (String) fila[4]));
+        }
+
+        estado = new Estado(Base.construir(entradas), Map.of());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void actualizar(EmpleadoActualizadoEvento evento) {
+        Map<Long, Cambio> cambios = new HashMap<>(estado.cambios());
+        cambios.put(evento.idEmpleado(), evento.borrado() ? null : Cambio.de(new Entrada(
+                evento.idEmpleado(), evento.apellido(), evento.nombre(), evento.dni(), evento.correo()
+        )));
+
+        if (cambios.size() < CAMBIOS_ANTES_DE_COMPACTAR) {
+            estado = new Estado(estado.base(), cambios);
+            return;
+        }
+
+        Base base = estado.base();
+        List<Entrada> entradas = new ArrayList<>();
+
+        for (int i = 0; i < base.ids.length; i++) {
+            if (!cambios.containsKey(base.ids[i])) entradas.add(base.entrada(i));
+        }
+
+        cambios.values().stream().filter(c -> c != null).map(Cambio::entrada).forEach(entradas::add);
+        estado = new Estado(Base.construir(entradas), Map.of());
+    }
+
+    // Cada palabra de la consulta tiene que coincidir; el puntaje es la suma de cada una
+    public List<CoincidenciaEmpleadoDTO> buscar(String consulta, int limite) {
+        List<String> terminos = Arrays.stream(ESPACIOS.split(normalizar(consulta))).filter(t -> !t.isEmpty()).toList();
+        if (terminos.isEmpty()) return List.of();
+
+        int cantidad = Math.min(Math.max(limite, 1), LIMITE_MAXIMO);
+        Estado vigente = estado;
+
+        List<CoincidenciaEmpleadoDTO> resultados = new ArrayList<>(vigente.base().mejores(terminos, cantidad, vigente.cambios()));
+
+        for (Cambio cambio : vigente.cambios().values()) {
+            if (cambio == null) continue;
+
+            Entrada entrada = cambio.entrada();
+            int puntaje = puntuar(cambio.apellido(), cambio.nombre(), cambio.dni(), cambio.correo(), terminos);
+            if (puntaje > 0) {
+                resultados.add(new CoincidenciaEmpleadoDTO(entrada.id(), entrada.apellido(), entrada.nombre(), entrada.dni(), entrada.correo(), puntaje));
+            }
+        }
+
+        return resultados.stream().sorted(ORDEN_RESULTADOS).limit(cantidad).toList();
+    }
+
+    private static int puntuar(String apellido, String nombre, String dni, String correo, List<String> terminos) {
+        int total = 0;
+
+        for (String termino : terminos) {
+            int puntaje = puntuar(apellido, nombre, dni, correo, termino);
+            if (puntaje == 0) return 0;
+            total += puntaje;
+        }
+
+        return total;
+    }
+
+    // Mismo criterio que el indice: prefijo de alguna palabra segun el campo, o contiene el termino
+    private static int puntuar(String apellido, String nombre, String dni, String correo, String termino) {
+        if (dni.equals(termino)) return PUNTAJE_DNI_EXACTO;
+        if (dni.startsWith(termino)) return PUNTAJE_DNI_PREFIJO;
+        if (empiezaPalabra(apellido, termino, SEPARADORES_NOMBRE)) return PUNTAJE_APELLIDO;
+        if (empiezaPalabra(nombre, termino, SEPARADORES_NOMBRE)) return PUNTAJE_NOMBRE;
+        if (empiezaPalabra(correo, termino, SEPARADORES_CORREO)) return PUNTAJE_CORREO;
+
+        if (termino.length() >= 3 && (apellido.contains(termino) || nombre.contains(termino) || correo.contains(termino) || dni.contains(termino))) {
+            return PUNTAJE_CONTIENE;
+        }
+
+        return 0;
+    }
+
+    private static boolean empiezaPalabra(String texto, String termino, String separadores) {
+        if (texto.startsWith(termino)) return true;
+
+        for (int i = 0; i < texto.length() - 1; i++) {
+            if (separadores.indexOf(texto.charAt(i)) >= 0 && texto.startsWith(termino, i + 1)) return true;
+        }
+
+        return false;
+    }
+
+    private static int puntajeDePrefijo(byte campo, boolean exacto) {
+        return switch (campo) {
+            case CAMPO_DNI -> exacto ? PUNTAJE_DNI_EXACTO : PUNTAJE_DNI_PREFIJO;
+            case CAMPO_APELLIDO -> PUNTAJE_APELLIDO;
+            case CAMPO_NOMBRE -> PUNTAJE_NOMBRE;
+            default -> PUNTAJE_CORREO;
+        };
+    }
+
+    // Minusculas y sin tildes, para que "perez" encuentre a "Pérez"
+    private static String normalizar(String texto) {
+        if (texto == null) return "";
+        if (esAscii(texto)) return texto.toLowerCase(Locale.ROOT).trim();
+
+        String sinMarcas = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinMarcas.toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static boolean esAscii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 128) return false;
+        }
+
+        return true;
+    }
+
+    // Los trigramas ASCII (casi todos, despues de normalizar) se codifican en 21 bits; el resto usa los
+    // 16 bits de cada caracter por encima de ese rango
+    private static long trigrama(String texto, int desde) {
+        char a = texto.charAt(desde), b = texto.charAt(desde + 1), c = texto.charAt(desde + 2);
+
+        if ((a | b | c) < 128) return (a << 14) | (b << 7) | c;
+        return (1L << 62) | ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static final class Base {
+        // Datos por posicion; los textos se internan porque apellidos y nombres se repiten mucho
+        private final long[] ids;
+        private final int[] dnis;
+        private final String[] apellidos;
+        private final String[] nombres;
+        private final String[] correos;
+        private final String[] apellidosNorm;
+        private final String[] nombresNorm;
+        private final String[] correosNorm;
+        private final String[] dnisTexto;
+
+        // Lugar de cada posicion en el orden por apellido y nombre, para desempatar comparando enteros
+        private int[] rangos;
+
+        // Cada palabra de cada campo, ordenada, con la posicion y el campo del que sale
+        private String[] claves;
+        private int[] posicionesClave;
+        private byte[] camposClave;
+
+        // Trigrama -> posiciones ordenadas de los empleados que lo contienen en algun campo
+        private Map<Long, int[]> trigramas;
+
+        private Base(int cantidad) {
+            ids = new long[cantidad];
+            dnis = new int[cantidad];
+            apellidos = new String[cantidad];
+            nombres = new String[cantidad];
+            correos = new String[cantidad];
+            apellidosNorm = new String[cantidad];
+            nombresNorm = new String[cantidad];
+            correosNorm = new String[cantidad];
+            dnisTexto = new String[cantidad];
+        }
+
+        private record Clave(String texto, int posicion, byte campo) {}
+
+        // Normalizacion, claves y trigramas de un texto; apellidos y nombres se repiten, asi que se calculan
+        // una vez por texto distinto. Las claves son el texto y lo que sigue a cada separador, asi el prefijo
+        // de una clave equivale a que una palabra del texto empiece con el termino
+        private record Campo(String original, String normalizado, String[] palabras, long[] trigramas) {
+            static Campo de(String texto, String separadores) {
+                String normalizado = normalizar(texto).intern();
+                List<String> palabras = new ArrayList<>();
+
+                for (int i = 0; i < normalizado.length(); i++) {
+                    boolean empiezaPalabra = i == 0 || separadores.indexOf(normalizado.charAt(i - 1)) >= 0;
+                    if (empiezaPalabra && separadores.indexOf(normalizado.charAt(i)) < 0) palabras.add(normalizado.substring(i).intern());
+                }
+
+                long[] trigramas = new long[Math.max(normalizado.length() - 2, 0)];
+
+                for (int j = 0; j < trigramas.length; j++) trigramas[j] = trigrama(normalizado, j);
+
+                return new Campo(texto.intern(), normalizado, palabras.toArray(String[]::new), trigramas);
+            }
+        }
+
+        static Base construir(List<Entrada> entradas) {
+            Base base = new Base(entradas.size());
+            List<Clave> pares = new ArrayList<>();
+            Map<String, Campo> repetidos = new HashMap<>();
+
+            // (numero de trigrama << 32 | posicion), para ordenar y agrupar sin objetos por aparicion. Los
+            // trigramas ASCII usan su codigo como numero; los demas se numeran a continuacion
+            Map<Long, Integer> numeroNoAscii = new HashMap<>();
+            List<Long> noAsciiPorNumero = new ArrayList<>();
+            long[] apariciones = new long[Math.max(entradas.size() * 32, 16)];
+            int cantidadApariciones = 0;
+
+            for (int i = 0; i < entradas.size(); i++) {
+                Entrada entrada = entradas.get(i);
+                Campo apellido = repetidos.computeIfAbsent(entrada.apellido(), texto -> Campo.de(texto, SEPARADORES_NOMBRE));
+                Campo nombre = repetidos.computeIfAbsent(entrada.nombre(), texto -> Campo.de(texto, SEPARADORES_NOMBRE));
+                Campo correo = Campo.de(entrada.correo(), SEPARADORES_CORREO);
+                Campo dni = Campo.de(String.valueOf(entrada.dni()), SEPARADORES_NOMBRE);
+
+                base.ids[i] = entrada.id();
+                base.dnis[i] = entrada.dni();
+                base.apellidos[i] = apellido.original();
+                base.nombres[i] = nombre.original();
+                base.correos[i] = correo.original();
+                base.apellidosNorm[i] = apellido.normalizado();
+                base.nombresNorm[i] = nombre.normalizado();
+                base.correosNorm[i] = correo.normalizado();
+                base.dnisTexto[i] = dni.normalizado();
+
+                Campo[] campos = {apellido, nombre, correo, dni};
+
+                for (byte campo = 0; campo < campos.length; campo++) {
+                    for (String palabra : campos[campo].palabras()) pares.add(new Clave(palabra, i, campo));
+
+                    for (long t : campos[campo].trigramas()) {
+                        long numero = t;
+
+                        if (t >= LIMITE_ASCII) {
+                            numero = LIMITE_ASCII + numeroNoAscii.computeIfAbsent(t, k -> {
+                                noAsciiPorNumero.add(k);
+                                return noAsciiPorNumero.size() - 1;
+                            });
+                        }
+
+                        if (cantidadApariciones == apariciones.length) apariciones = Arrays.copyOf(apariciones, apariciones.length * 2);
+                        apariciones[cantidadApariciones++] = (numero << 32) | i;
+                    }
+                }
+            }
+
+            Integer[] porNombre = new Integer[entradas.size()];
+            for (int i = 0; i < porNombre.length; i++) porNombre[i] = i;
+            Arrays.sort(porNombre, Comparator.<Integer, String>comparing(i -> base.apellidos[i]).thenComparing(i -> base.nombres[i]));
+
+            base.rangos = new int[porNombre.length];
+            for (int r = 0; r < porNombre.length; r++) base.rangos[porNombre[r]] = r;
+
+            pares.sort(Comparator.comparing(Clave::texto));
+            base.claves = new String[pares.size()];
+            base.posicionesClave = new int[pares.size()];
+            base.camposClave = new byte[pares.size()];
+
+            for (int i = 0; i < pares.size(); i++) {
+                base.claves[i] = pares.get(i).texto();
+                base.posicionesClave[i] = pares.get(i).posicion();
+                base.camposClave[i] = pares.get(i).campo();
+            }
+
+            Arrays.sort(apariciones, 0, cantidadApariciones);
+            base.trigramas = new HashMap<>();
+
+            for (int desde = 0; desde < cantidadApariciones; ) {
+                long numero = apariciones[desde] >>> 32;
+                int hasta = desde;
+                int distintas = 0;
+
+                while (hasta < cantidadApariciones && apariciones[hasta] >>> 32 == numero) hasta++;
+                int[] posiciones = new int[hasta - desde];
+
+                for (int k = desde; k < hasta; k++) {
+                    int posicion = (int) apariciones[k];
+                    if (distintas == 0 || posiciones[distintas - 1] != posicion) posiciones[distintas++] = posicion;
+                }
+
+                long t = numero < LIMITE_ASCII ? numero : noAsciiPorNumero.get((int) (numero - LIMITE_ASCII));
+                base.trigramas.put(t, Arrays.copyOf(posiciones, distintas));
+                desde = hasta;
+            }
+
+            return base;
+        }
+
+        // El termino con menos palabras que empiecen con el se resuelve con el indice (prefijo y trigramas);
+        // los demas se verifican sobre esos candidatos. Solo se arman DTOs para los que quedan entre los mejores
+        List<CoincidenciaEmpleadoDTO> mejores(List<String> terminos, int cantidad, Map<Long, Cambio> excluidos) {
+            String guia = terminos.get(0);
+
+            for (String termino : terminos) {
+                if (cantidadConPrefijo(termino) < cantidadConPrefijo(guia)) guia = termino;
+            }
+
+            // Positivo: puntaje del termino guia por prefijo; negativo: solo coincide por trigramas y falta
+            // verificar que lo contenga
+            int[] puntajes = new int[ids.length];
+            int[] candidatos = new int[16];
+            int cantidadCandidatos = 0;
+
+            for (int i = primeraClaveMayorOIgual(guia); i < claves.length && claves[i].startsWith(guia); i++) {
+                int posicion = posicionesClave[i];
+
+                if (puntajes[posicion] == 0) {
+                    if (cantidadCandidatos == candidatos.length) candidatos = Arrays.copyOf(candidatos, candidatos.length * 2);
+                    candidatos[cantidadCandidatos++] = posicion;
+                }
+
+                puntajes[posicion] = Math.max(puntajes[posicion], puntajeDePrefijo(camposClave[i], claves[i].length() == guia.length()));
+            }
+
+            if (guia.length() >= 3) {
+                for (int posicion : conTodosLosTrigramas(guia)) {
+                    if (puntajes[posicion] != 0) continue;
+
+                    if (cantidadCandidatos == candidatos.length) candidatos = Arrays.copyOf(candidatos, candidatos.length * 2);
+                    candidatos[cantidadCandidatos++] = posicion;
+                    puntajes[posicion] = -PUNTAJE_CONTIENE;
+                }
+            }
+
+            // Puntaje por prefijo de cada uno de los demas terminos, tambien resuelto con el indice
+            List<int[]> puntajesOtros = new ArrayList<>();
+            List<String> otros = new ArrayList<>(terminos);
+            otros.remove(guia);
+
+            for (String termino : otros) {
+                int[] puntajesTermino = new int[ids.length];
+
+                for (int i = primeraClaveMayorOIgual(termino); i < claves.length && claves[i].startsWith(termino); i++) {
+                    int posicion = posicionesClave[i];
+                    puntajesTermino[posicion] = Math.max(puntajesTermino[posicion], puntajeDePrefijo(camposClave[i], claves[i].length() == termino.length()));
+                }
+
+                puntajesOtros.add(puntajesTermino);
+            }
+
+            Comparator<Integer> peorPrimero = (a, b) -> puntajes[a] != puntajes[b]
+                    ? Integer.compare(puntajes[a], puntajes[b])
+                    : Integer.compare(rangos[b], rangos[a]);
+            PriorityQueue<Integer> mejores = new PriorityQueue<>(cantidad + 1, peorPrimero);
+
+            for (int c = 0; c < cantidadCandidatos; c++) {
+                int posicion = candidatos[c];
+                if (!excluidos.isEmpty() && excluidos.containsKey(ids[posicion])) continue;
+
+                if (puntajes[posicion] < 0) {
+                    puntajes[posicion] = PUNTAJE_CONTIENE;
+
+                    // Con un solo termino el puntaje ya es final: si no supera al peor no hace falta verificarlo
+                    boolean descartable = otros.isEmpty() && mejores.size() == cantidad && peorPrimero.compare(posicion, mejores.peek()) <= 0;
+                    // Con tres letras el trigrama ya garantiza que el termino esta contenido
+                    if (descartable || (guia.length() > 3 && !contiene(posicion, guia))) continue;
+                }
+
+                int total = puntajes[posicion];
+
+                for (int t = 0; t < otros.size() && total > 0; t++) {
+                    int puntaje = puntajesOtros.get(t)[posicion];
+
+                    if (puntaje == 0 && otros.get(t).length() >= 3 && contiene(posicion, otros.get(t))) {
+                        puntaje = PUNTAJE_CONTIENE;
+                    }
+
+                    total = puntaje == 0 ? 0 : total + puntaje;
+                }
+
+                if (total == 0) continue;
+                puntajes[posicion] = total;
+
+                if (mejores.size() < cantidad) {
+                    mejores.add(posicion);
+                } else if (peorPrimero.compare(posicion, mejores.peek()) > 0) {
+                    mejores.poll();
+                    mejores.add(posicion);
+                }
+            }
+
+            return mejores.stream()
+                    .map(posicion -> new CoincidenciaEmpleadoDTO(
+                            ids[posicion], apellidos[posicion], nombres[posicion], dnis[posicion], correos[posicion], puntajes[posicion]
+                    ))
+                    .toList();
+        }
+
+        private int cantidadConPrefijo(String termino) {
+            return primeraClaveMayorOIgual(termino + Character.MAX_VALUE) - primeraClaveMayorOIgual(termino);
+        }
+
+        private boolean contiene(int posicion, String termino) {
+            return apellidosNorm[posicion].contains(termino)
+                    || nombresNorm[posicion].contains(termino)
+                    || correosNorm[posicion].contains(termino)
+                    || dnisTexto[posicion].contains(termino);
+        }
+
+        private int[] conTodosLosTrigramas(String termino) {
+            List<int[]> listas = new ArrayList<>();
+
+            for (int j = 0; j + 3 <= termino.length(); j++) {
+                int[] lista = trigramas.get(trigrama(termino, j));
+                if (lista == null) return new int[0];
+                listas.add(lista);
+            }
+
+            listas.sort(Comparator.comparingInt(lista -> lista.length));
+            int[] interseccion = listas.get(0);
+
+            for (int k = 1; k < listas.size() && interseccion.length > 0; k++) {
+                interseccion = intersectar(interseccion, listas.get(k));
+            }
+
+            return interseccion;
+        }
+
+        private static int[] intersectar(int[] a, int[] b) {
+            int[] resultado = new int[Math.min(a.length, b.length)];
+            int i = 0, j = 0, n = 0;
+
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) i++;
+                else if (a[i] > b[j]) j++;
+                else {
+                    resultado[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+
+            return Arrays.copyOf(resultado, n);
+        }
+
+        private int primeraClaveMayorOIgual(String termino) {
+            int desde = 0, hasta = claves.length;
+
+            while (desde < hasta) {
+                int medio = (desde + hasta) >>> 1;
+                if (claves[medio].compareTo(termino) < 0) desde = medio + 1; else hasta = medio;
+            }
+
+            return desde;
+        }
+
+        Entrada entrada(int posicion) {
+            return new Entrada(ids[posicion], apellidos[posicion], nombres[posicion], dnis[posicion], correos[posicion]);
+        }
+    }
+}
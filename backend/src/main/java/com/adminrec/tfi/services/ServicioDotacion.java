@@ -0,0 +1,244 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.Sector;
+import com.adminrec.tfi.exceptions.ConsultaHistorialInvalidaException;
+import com.adminrec.tfi.exceptions.SectorInexistenteException;
+import com.adminrec.tfi.interfaces.RepositorioEmpleadosArchivados;
+import com.adminrec.tfi.interfaces.RepositorioIngresoEgreso;
+import com.adminrec.tfi.interfaces.RepositorioSectores;
+import com.adminrec.tfi.util.dtos.entities.PuntoDotacionDTO;
+import com.adminrec.tfi.util.dtos.entities.SerieDotacionDTO;
+import com.adminrec.tfi.util.events.EmpleadosModificadosEvento;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Serie de dotacion y rotacion por sector. Cada periodo de IngresoEgreso aporta un evento al empezar y otro al
+// terminar; los eventos se acumulan por sector y por dia, y la serie sale de un unico barrido ordenado sobre esos
+// dias. Los aportes de cada empleado se guardan aparte para reemplazarlos cuando cambia su historial.
+// Cada periodo cuenta en el sector actual de su puesto: mover un puesto de sector mueve tambien su historia
+@Service
+public class ServicioDotacion {
+    static final int ALTA = 0;
+    static final int BAJA = 1;
+    static final int ENTRADA = 2;
+    static final int SALIDA = 3;
+    private static final int MAXIMO_PUNTOS = 1000;
+
+    private final RepositorioIngresoEgreso repositorioIngresoEgreso;
+    private final RepositorioEmpleadosArchivados repositorioArchivo;
+    private final RepositorioSectores repositorioSectores;
+    // Eventos aportados por cada empleado
+    private Map<Long, List<Evento>> aportes = new HashMap<>();
+    // Por sector, contadores {altas, bajas, entradas, salidas} de cada dia con movimientos
+    private Map<Long, TreeMap<Integer, int[]>> dias = new HashMap<>();
+
+    public ServicioDotacion(
+            RepositorioIngresoEgreso repositorioIngresoEgreso,
+            RepositorioEmpleadosArchivados repositorioArchivo,
+            RepositorioSectores repositorioSectores
+    ) {
+        this.repositorioIngresoEgreso = repositorioIngresoEgreso;
+        this.repositorioArchivo = repositorioArchivo;
+        this.repositorioSectores = repositorioSectores;
+    }
+
+    // Los empleados archivados tambien cuentan para los meses en que estuvieron
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        List<Object[]> filas = new ArrayList<>(repositorioIngresoEgreso.listarPeriodosConSector());
+        filas.addAll(repositorioArchivo.listarPeriodosConSector());
+
+        Map<Long, List<Evento>> nuevosAportes = eventosPorEmpleado(filas);
+        Map<Long, TreeMap<Integer, int[]>> nuevosDias = new HashMap<>();
+        nuevosAportes.values().forEach(eventos -> eventos.forEach(evento -> sumar(nuevosDias, evento, 1)));
+
+        synchronized (this) {
+            aportes = nuevosAportes;
+            dias = nuevosDias;
+        }
+    }
+
+    // Altas, cambios de puesto y bajas siempre publican el evento; se reemplazan solo los aportes de esos empleados,
+    // leidos con una consulta por transaccion aunque sea un lote de la alta masiva
+    @TransactionalEventListener(fallbackExecution = true)
+    public void actualizar(EmpleadosModificadosEvento evento) {
+        // Al archivar un empleado sus periodos pasan al archivo y sus aportes se conservan
+        List<Object[]> filas = new ArrayList<>(repositorioIngresoEgreso.listarPeriodosConSectorDeEmpleados(evento.idsEmpleados()));
+        filas.addAll(repositorioArchivo.listarPeriodosConSectorDeEmpleados(evento.idsEmpleados()));
+        Map<Long, List<Evento>> nuevos = eventosPorEmpleado(filas);
+
+        synchronized (this) {
+            for (Long idEmpleado : evento.idsEmpleados()) {
+                List<Evento> anteriores = aportes.remove(idEmpleado);
+                if (anteriores != null) anteriores.forEach(e -> sumar(dias, e, -1));
+
+                List<Evento> eventos = nuevos.getOrDefault(idEmpleado, List.of());
+                if (!eventos.isEmpty()) aportes.put(idEmpleado, eventos);
+                eventos.forEach(e -> sumar(dias, e, 1));
+            }
+        }
+    }
+
+    // Un punto por dia o por mes entre desde y hasta. La dotacion es la del cierre de cada periodo
+    public List<SerieDotacionDTO> serie(LocalDate desde, LocalDate hasta, String granularidad, Long idSector) {
+        boolean mensual;
+
+        if ("mes".equalsIgnoreCase(granularidad)) mensual = true;
+        else if ("dia".equalsIgnoreCase(granularidad)) mensual = false;
+        else throw new ConsultaHistorialInvalidaException("La granularidad debe ser 'dia' o 'mes'");
+
+        if (hasta == null) hasta = LocalDate.now();
+        if (desde == null) desde = mensual ? hasta.minusMonths(11) : hasta.minusDays(29);
+
+        if (mensual) {
+            desde = desde.withDayOfMonth(1);
+            hasta = hasta.withDayOfMonth(hasta.lengthOfMonth());
+        }
+
+        if (desde.isAfter(hasta)) {
+            throw new ConsultaHistorialInvalidaException("La fecha desde no puede ser posterior a la fecha hasta");
+        }
+
+        long cantidad = mensual
+                ? (hasta.getYear() - desde.getYear()) * 12L + hasta.getMonthValue() - desde.getMonthValue() + 1
+                : hasta.toEpochDay() - desde.toEpochDay() + 1;
+
+        if (cantidad > MAXIMO_PUNTOS) {
+            throw new ConsultaHistorialInvalidaException("La serie no puede tener mas de " + MAXIMO_PUNTOS + " puntos");
+        }
+
+        List<Sector> sectores = repositorioSectores.findAll();
+
+        if (idSector != null) {
+            sectores = sectores.stream().filter(s -> s.getId().equals(idSector)).toList();
+            if (sectores.isEmpty()) {
+                throw new SectorInexistenteException("El sector con el id " + idSector + " no existe");
+            }
+        }
+
+        List<SerieDotacionDTO> series = new ArrayList<>(sectores.size());
+
+        synchronized (this) {
+            for (Sector sector : sectores) {
+                TreeMap<Integer, int[]> delSector = dias.getOrDefault(sector.getId(), new TreeMap<>());
+                series.add(new SerieDotacionDTO(
+                        sector.getId(),
+                        sector.getNombre(),
+                        barrer(delSector, desde, hasta, mensual)
+                ));
+            }
+        }
+
+        return series;
+    }
+
+    private static List<PuntoDotacionDTO> barrer(TreeMap<Integer, int[]> dias, LocalDate desde, LocalDate hasta, boolean mensual) {
+        int inicio = (int) desde.toEpochDay();
+        int dotacion = 0;
+
+        for (int[] contadores : dias.headMap(inicio).values()) dotacion += variacion(contadores);
+
+        Iterator<Map.Entry<Integer, int[]>> movimientos = dias.subMap(inicio, true, (int) hasta.toEpochDay(), true)
+                .entrySet().iterator();
+        Map.Entry<Integer, int[]> pendiente = movimientos.hasNext() ? movimientos.next() : null;
+        List<PuntoDotacionDTO> puntos = new ArrayList<>();
+
+        for (LocalDate periodo = desde; !periodo.isAfter(hasta); ) {
+            LocalDate siguiente = mensual ? periodo.plusMonths(1) : periodo.plusDays(1);
+            int limite = (int) siguiente.toEpochDay();
+            int[] suma = new int[4];
+
+            while (pendiente != null && pendiente.getKey() < limite) {
+                int[] contadores = pendiente.getValue();
+                for (int t = 0; t < suma.length; t++) suma[t] += contadores[t];
+                dotacion += variacion(contadores);
+                pendiente = movimientos.hasNext() ? movimientos.next() : null;
+            }
+
+            puntos.add(new PuntoDotacionDTO(periodo, dotacion, suma[ALTA], suma[BAJA], suma[ENTRADA], suma[SALIDA]));
+            periodo = siguiente;
+        }
+
+        return puntos;
+    }
+
+    // Filas ordenadas por empleado e inicio: cada tramo de un mismo empleado se convierte por separado
+    static Map<Long, List<Evento>> eventosPorEmpleado(List<Object[]> filas) {
+        Map<Long, List<Evento>> porEmpleado = new HashMap<>();
+        int desde = 0;
+
+        for (int i = 1; i <= filas.size(); i++) {
+            if (i < filas.size() && filas.get(i)[0].equals(filas.get(desde)[0])) continue;
+
+            porEmpleado.put((Long) filas.get(desde)[0], eventos(filas.subList(desde, i)));
+            desde = i;
+        }
+
+        return porEmpleado;
+    }
+
+    // Filas (id empleado, id sector, creadoEn, actualizadoEn, borradoEn) de un empleado, ordenadas por inicio.
+    // Un periodo que empieza el mismo dia en que termina el anterior es un cambio de puesto: si ademas cambia el
+    // sector cuenta como transferencia, y si no, no mueve la dotacion. El borrado del empleado cierra su ultimo periodo
+    static List<Evento> eventos(List<Object[]> filas) {
+        LocalDateTime borrado = (LocalDateTime) filas.get(0)[4];
+        int corte = borrado == null ? Integer.MAX_VALUE : (int) borrado.toLocalDate().toEpochDay();
+        List<int[]> periodos = new ArrayList<>(filas.size());
+        List<Long> sectores = new ArrayList<>(filas.size());
+
+        for (Object[] fila : filas) {
+            LocalDate fin = (LocalDate) fila[3];
+            int inicio = (int) ((LocalDate) fila[2]).toEpochDay();
+            int cierre = Math.min(fin == null ? Integer.MAX_VALUE : (int) fin.toEpochDay(), corte);
+
+            // Periodos abiertos y cerrados el mismo dia no llegan a contar
+            if (cierre <= inicio) continue;
+
+            periodos.add(new int[]{inicio, cierre});
+            sectores.add((Long) fila[1]);
+        }
+
+        List<Evento> eventos = new ArrayList<>();
+
+        for (int i = 0; i < periodos.size(); i++) {
+            int[] periodo = periodos.get(i);
+            boolean continuaAnterior = i > 0 && periodos.get(i - 1)[1] == periodo[0];
+            boolean continuaSiguiente = i + 1 < periodos.size() && periodos.get(i + 1)[0] == periodo[1];
+
+            if (!continuaAnterior) {
+                eventos.add(new Evento(sectores.get(i), periodo[0], ALTA));
+            } else if (!sectores.get(i - 1).equals(sectores.get(i))) {
+                eventos.add(new Evento(sectores.get(i - 1), periodo[0], SALIDA));
+                eventos.add(new Evento(sectores.get(i), periodo[0], ENTRADA));
+            }
+
+            if (periodo[1] != Integer.MAX_VALUE && !continuaSiguiente) {
+                eventos.add(new Evento(sectores.get(i), periodo[1], BAJA));
+            }
+        }
+
+        return eventos;
+    }
+
+    private static void sumar(Map<Long, TreeMap<Integer, int[]>> dias, Evento evento, int signo) {
+        TreeMap<Integer, int[]> delSector = dias.computeIfAbsent(evento.idSector(), id -> new TreeMap<>());
+        int[] contadores = delSector.computeIfAbsent(evento.dia(), dia -> new int[4]);
+        contadores[evento.tipo()] += signo;
+
+        if (contadores[ALTA] == 0 && contadores[BAJA] == 0 && contadores[ENTRADA] == 0 && contadores[SALIDA] == 0) {
+            delSector.remove(evento.dia());
+        }
+    }
+
+    private static int variacion(int[] contadores) {
+        return contadores[ALTA] + contadores[ENTRADA] - contadores[BAJA] - contadores[SALIDA];
+    }
+
+    record Evento(Long idSector, int dia, int tipo) {}
+}
@@ -5,54 +5,100 @@ import com.adminrec.tfi.entities.IngresoEgreso;
 import com.adminrec.tfi.entities.Puesto;
 import com.adminrec.tfi.exceptions.EmpleadoInexistenteException;
 import com.adminrec.tfi.exceptions.PuestoInexistenteException;
+import com.adminrec.tfi.interfaces.RepositorioAsistencia;
 import com.adminrec.tfi.interfaces.RepositorioEmpleados;
 import com.adminrec.tfi.interfaces.RepositorioIngresoEgreso;
 import com.adminrec.tfi.interfaces.RepositorioPuestos;
+import com.adminrec.tfi.interfaces.RepositorioSolicitudes;
 import com.adminrec.tfi.util.dtos.entities.AsistenciaDTO;
 import com.adminrec.tfi.util.dtos.entities.EmpleadoDTO;
+import com.adminrec.tfi.util.enums.Rol;
+import com.adminrec.tfi.util.events.EmpleadoActualizadoEvento;
+import com.adminrec.tfi.util.events.EmpleadosModificadosEvento;
+import com.adminrec.tfi.util.events.SolicitudesMovidasDeSectorEvento;
 import com.adminrec.tfi.util.mappers.AsistenciaMapper;
 import com.adminrec.tfi.util.mappers.EmpleadoMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ServicioEmpleado {
+    // Campos por los que se pueden ordenar los listados de empleados: parametro -> propiedad de la entidad
+    public static final Map<String, String> ORDENES = Map.of(
+            "apellido", "apellido",
+            "nombre", "nombre",
+            "dni", "dni",
+            "fechaContratacion", "fechaContratacion"
+    );
+    // Vistas del listado de empleados para el parametro vista=; completa incluye todos los campos disponibles
+    public static final Map<String, List<String>> VISTAS = Map.of(
+            "resumen", List.of("id", "apellido", "nombre", "dni"),
+            "contacto", List.of("id", "apellido", "nombre", "dni", "correo", "telefono", "puesto", "sector"),
+            "completa", List.of(
+                    "id", "apellido", "nombre", "dni", "correo", "domicilio", "fechaNacimiento", "fechaContratacion",
+                    "telefono", "esSupervisorDeSector", "idPuesto", "puesto", "valorHora", "idSector", "sector"
+            )
+    );
+    public static final Map<Rol, String> VISTA_POR_ROL = Map.of(Rol.ADMIN, "completa");
+
     private final RepositorioEmpleados repositorioEmpleados;
     private final RepositorioPuestos repositorioPuestos;
     private final RepositorioIngresoEgreso repositorioIngresoEgreso;
+    private final RepositorioSolicitudes repositorioSolicitudes;
+    private final RepositorioAsistencia repositorioAsistencia;
     private final ServicioCuenta servicioCuenta;
+    private final ServicioJerarquia servicioJerarquia;
+    private final ApplicationEventPublisher publicadorEventos;
 
     public ServicioEmpleado(
             RepositorioEmpleados repositorioEmpleados,
             RepositorioPuestos repositorioPuestos,
             RepositorioIngresoEgreso repositorioIngresoEgreso,
-            ServicioCuenta servicioCuenta
+            RepositorioSolicitudes repositorioSolicitudes,
+            RepositorioAsistencia repositorioAsistencia,
+            ServicioCuenta servicioCuenta,
+            ServicioJerarquia servicioJerarquia,
+            ApplicationEventPublisher publicadorEventos
     ) {
         this.repositorioEmpleados = repositorioEmpleados;
         this.repositorioPuestos = repositorioPuestos;
         this.repositorioIngresoEgreso = repositorioIngresoEgreso;
+        this.repositorioSolicitudes = repositorioSolicitudes;
+        this.repositorioAsistencia = repositorioAsistencia;
         this.servicioCuenta = servicioCuenta;
+        this.servicioJerarquia = servicioJerarquia;
+        this.publicadorEventos = publicadorEventos;
+    }
+
+    @Transactional(readOnly = true)
+    public Page<EmpleadoDTO> listar(Long idSector, Long idPuesto, Pageable pageable) {
+        return repositorioEmpleados.listarActivos(idSector, idPuesto, pageable);
     }
 
-    public List<EmpleadoDTO> listar() {
-        return repositorioEmpleados.findAll()
-                .stream()
-                .filter(e -> e.getBorradoEn() == null)
-                .map(EmpleadoMapper::toDTO)
-                .toList();
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> listarCampos(List<String> campos, Long idSector, Long idPuesto, Pageable pageable) {
+        return repositorioEmpleados.listarCampos(campos, idSector, idPuesto, pageable);
     }
 
+    @Transactional(readOnly = true)
     public EmpleadoDTO buscarUno(Long id) {
-        Empleado empleado = repositorioEmpleados.findById(id).orElseThrow(
+        Empleado empleado = repositorioEmpleados.buscarConPuesto(id).orElseThrow(
                 () -> new EmpleadoInexistenteException("El empleado con id " + id + " no existe")
         );
 
         return EmpleadoMapper.toDTO(empleado);
     }
 
+    // Empleado, jerarquia, ingreso y cuenta se confirman juntos; los eventos salen despues del commit
+    @Transactional
     public EmpleadoDTO crear(EmpleadoDTO dto, String contrasena) {
         Empleado empleado = EmpleadoMapper.fromDTO(dto);
 
@@ -67,6 +113,7 @@ public class ServicioEmpleado {
         empleado.setEsSupervisorDeSector(false);
 
         repositorioEmpleados.save(empleado);
+        servicioJerarquia.registrarEmpleado(empleado.getId());
 
         EmpleadoDTO nuevoEmpleadoDTO = EmpleadoMapper.toDTO(empleado);
         nuevoEmpleadoDTO.setId(empleado.getId());
@@ -77,21 +124,27 @@ public class ServicioEmpleado {
         ingresoEgreso.setCreadoEn(LocalDate.now());
         repositorioIngresoEgreso.save(ingresoEgreso);
 
-        servicioCuenta.registrar(empleado.getDni(), contrasena);
+        servicioCuenta.registrar(empleado, contrasena);
+        publicarEvento(empleado);
 
         return nuevoEmpleadoDTO;
     }
 
+    // El empleado queda administrado durante la transaccion, asi que los cambios se guardan al confirmar
+    @Transactional
     public EmpleadoDTO editar(Long id, EmpleadoDTO dto) {
         Empleado empleado = repositorioEmpleados.findById(id).orElseThrow(
                 () -> new EmpleadoInexistenteException("El empleado con id " + id + " no existe")
         );
 
         Puesto primerPuesto = empleado.getPuesto();
+        Long idPuesto = dto.getPuesto().getId();
 
-        Puesto puesto = repositorioPuestos.findById(dto.getPuesto().getId()).orElseThrow(
-                () -> new PuestoInexistenteException("El puesto con id " + dto.getPuesto().getId() + " no existe")
-        );
+        Puesto puesto = primerPuesto.getId().equals(idPuesto)
+                ? primerPuesto
+                : repositorioPuestos.findById(idPuesto).orElseThrow(
+                        () -> new PuestoInexistenteException("El puesto con id " + idPuesto + " no existe")
+                );
 
         empleado.setApellido(dto.getApellido());
         empleado.setNombre(dto.getNombre());
@@ -103,15 +156,18 @@ public class ServicioEmpleado {
         empleado.setTelefono(dto.getTelefono());
         empleado.setPuesto(puesto);
 
-        repositorioEmpleados.save(empleado);
+        if (!primerPuesto.getSector().getId().equals(puesto.getSector().getId())) {
+            repositorioSolicitudes.actualizarSectorDelEmpleado(empleado.getId(), puesto.getSector().getId());
+            publicadorEventos.publishEvent(new SolicitudesMovidasDeSectorEvento(
+                    List.of(primerPuesto.getSector().getId(), puesto.getSector().getId())
+            ));
+        }
 
-        if (!primerPuesto.getId().equals(puesto.getId())) {
-            IngresoEgreso ultimoIE =
-                    repositorioIngresoEgreso.findTopByEmpleado_DniOrderByCreadoEnDesc(empleado.getDni());
+        if (primerPuesto != puesto) {
+            IngresoEgreso ultimoIE = repositorioIngresoEgreso.buscarUltimoDelEmpleado(empleado.getId());
 
             if (ultimoIE != null) {
                 ultimoIE.setActualizadoEn(LocalDate.now());
-                repositorioIngresoEgreso.save(ultimoIE);
 
                 IngresoEgreso nuevoIE = new IngresoEgreso();
                 nuevoIE.setEmpleado(empleado);
@@ -121,25 +177,41 @@ public class ServicioEmpleado {
             }
         }
 
+        publicarEvento(empleado);
+
         return EmpleadoMapper.toDTO(empleado);
     }
 
+    @Transactional
     public EmpleadoDTO eliminar(Long id) {
         Empleado empleado = repositorioEmpleados.findById(id).orElseThrow(
                 () -> new EmpleadoInexistenteException("El empleado con id " + id + " no existe")
         );
 
         empleado.setBorradoEn(LocalDateTime.now());
-        repositorioEmpleados.save(empleado);
+        publicarEvento(empleado);
 
         return EmpleadoMapper.toDTO(empleado);
     }
 
+    @Transactional(readOnly = true)
     public List<AsistenciaDTO> obtenerAsistencias(Long id) {
-        Empleado empleado = repositorioEmpleados.findById(id).orElseThrow(
-                () -> new EmpleadoInexistenteException("El empleado con id " + id + " no existe")
-        );
+        if (!repositorioEmpleados.existsById(id)) {
+            throw new EmpleadoInexistenteException("El empleado con id " + id + " no existe");
+        }
+
+        return repositorioAsistencia.findAllByEmpleado_Id(id).stream().map(AsistenciaMapper::toDTO).toList();
+    }
 
-        return empleado.getAsistencias().stream().map(AsistenciaMapper::toDTO).toList();
+    private void publicarEvento(Empleado empleado) {
+        publicadorEventos.publishEvent(new EmpleadoActualizadoEvento(
+                empleado.getId(),
+                empleado.getApellido(),
+                empleado.getNombre(),
+                empleado.getDni(),
+                empleado.getCorreo(),
+                empleado.getBorradoEn() != null
+        ));
+        publicadorEventos.publishEvent(new EmpleadosModificadosEvento(List.of(empleado.getId())));
     }
 }
@@ -0,0 +1,161 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.HistorialValorHora;
+import com.adminrec.tfi.entities.Puesto;
+import com.adminrec.tfi.interfaces.RepositorioHistorialValorHora;
+import com.adminrec.tfi.util.events.ValorHoraActualizadoEvento;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Historial del valor hora de cada puesto. Se escribe en cada cambio y se mantiene entero en memoria para que la
+// liquidacion pueda preguntar el valor de cualquier puesto en cualquier dia con una busqueda binaria, sin ir a la base
+@Service
+public class ServicioHistorialValorHora {
+    private final RepositorioHistorialValorHora repositorioHistorial;
+    private final ApplicationEventPublisher publicador;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Linea> lineas = new ConcurrentHashMap<>();
+
+    public ServicioHistorialValorHora(
+            RepositorioHistorialValorHora repositorioHistorial,
+            ApplicationEventPublisher publicador,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.repositorioHistorial = repositorioHistorial;
+        this.publicador = publicador;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Corre despues de los data loaders, asi que los puestos recien cargados tambien reciben su primer periodo
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        transactionTemplate.executeWithoutResult(estado -> repositorioHistorial.completarFaltantes(LocalDate.now()));
+
+        Map<Long, Linea> nuevas = agrupar(repositorioHistorial.listarPeriodos());
+        lineas.keySet().retainAll(nuevas.keySet());
+        lineas.putAll(nuevas);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void actualizar(ValorHoraActualizadoEvento evento) {
+        if (evento.idsPuestos().isEmpty()) return;
+
+        Map<Long, Linea> recargadas = agrupar(repositorioHistorial.listarPeriodosDePuestos(evento.idsPuestos()));
+
+        for (Long idPuesto : evento.idsPuestos()) {
+            Linea linea = recargadas.get(idPuesto);
+
+            if (linea == null) lineas.remove(idPuesto);
+            else lineas.put(idPuesto, linea);
+        }
+    }
+
+    // Se llama dentro de la transaccion que guarda el puesto. Cierra el periodo vigente hoy y abre uno nuevo;
+    // si el vigente empezo hoy mismo se corrige su valor en lugar de dejar un periodo vacio
+    public void registrar(Puesto puesto, Double valorHora) {
+        LocalDate hoy = LocalDate.now();
+        Optional<HistorialValorHora> vigente = repositorioHistorial.buscarVigente(puesto.getId());
+
+        if (vigente.isPresent()) {
+            HistorialValorHora actual = vigente.get();
+
+            if (actual.getValorHora().equals(valorHora)) return;
+
+            if (!actual.getVigenteDesde().isBefore(hoy)) {
+                actual.setValorHora(valorHora);
+                publicador.publishEvent(new ValorHoraActualizadoEvento(List.of(puesto.getId())));
+                return;
+            }
+
+            actual.setVigenteHasta(hoy);
+        }
+
+        repositorioHistorial.save(new HistorialValorHora(null, puesto, valorHora, hoy, null));
+        publicador.publishEvent(new ValorHoraActualizadoEvento(List.of(puesto.getId())));
+    }
+
+    // Registra en lote un ajuste masivo ya aplicado sobre los puestos activos del sector (o de todos si es nulo),
+    // dentro de la misma transaccion que lo aplico
+    public void registrarAjuste(Long idSector, List<Long> idsPuestos) {
+        LocalDate hoy = LocalDate.now();
+
+        repositorioHistorial.corregirVigentesDeHoy(idSector, hoy);
+        repositorioHistorial.cerrarVigentes(idSector, hoy);
+        repositorioHistorial.abrirVigentes(idSector, hoy);
+
+        publicador.publishEvent(new ValorHoraActualizadoEvento(idsPuestos));
+    }
+
+    // Valor hora del puesto en la fecha, o null si el puesto no tenia valor registrado ese dia
+    public Double valorEnFecha(Long idPuesto, LocalDate fecha) {
+        Linea linea = lineas.get(idPuesto);
+        if (linea == null) return null;
+
+        int i = linea.buscar((int) fecha.toEpochDay());
+
+        return i >= 0 ? linea.valores()[i] : null;
+    }
+
+    // Las filas llegan ordenadas por puesto e inicio, asi que cada linea queda ordenada al armarla
+    private static Map<Long, Linea> agrupar(List<Object[]> filas) {
+        Map<Long, Linea> agrupadas = new ConcurrentHashMap<>();
+        int desde = 0;
+
+        for (int i = 1; i <= filas.size(); i++) {
+            if (i < filas.size() && filas.get(i)[0].equals(filas.get(desde)[0])) continue;
+
+            int n = i - desde;
+            int[] inicios = new int[n];
+            int[] fines = new int[n];
+            double[] valores = new double[n];
+
+            for (int j = 0; j < n; j++) {
+                Object[] fila = filas.get(desde + j);
+                LocalDate fin = (LocalDate) fila[2];
+
+                inicios[j] = (int) ((LocalDate) fila[1]).toEpochDay();
+                fines[j] = fin == null ? Integer.MAX_VALUE : (int) fin.toEpochDay();
+                valores[j] = (Double) fila[3];
+            }
+
+            agrupadas.put((Long) filas.get(desde)[0], new Linea(inicios, fines, valores));
+            desde = i;
+        }
+
+        return agrupadas;
+    }
+
+    // Periodos [inicio, fin) de un puesto ordenados por inicio; cada cambio cierra el anterior el dia en que abre el nuevo
+    private record Linea(int[] inicios, int[] fines, double[] valores) {
+        // Posicion del periodo vigente en el dia, o -1 si no habia ninguno
+        int buscar(int dia) {
+            int bajo = 0;
+            int alto = inicios.length - 1;
+            int ultimo = -1;
+
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+
+                if (inicios[medio] <= dia) {
+                    ultimo = medio;
+                    bajo = medio + 1;
+                } else {
+                    alto = medio - 1;
+                }
+            }
+
+            return ultimo >= 0 && fines[ultimo] > dia ? ultimo : -1;
+        }
+    }
+}
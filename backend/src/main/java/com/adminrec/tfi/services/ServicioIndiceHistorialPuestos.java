@@ -0,0 +1,155 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.interfaces.RepositorioEmpleadosArchivados;
+import com.adminrec.tfi.interfaces.RepositorioIngresoEgreso;
+import com.adminrec.tfi.util.dtos.entities.ConsultaPuestoEnFechaDTO;
+import com.adminrec.tfi.util.dtos.entities.PuestoEnFechaDTO;
+import com.adminrec.tfi.util.events.EmpleadosModificadosEvento;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resuelve "que puesto tenia el empleado E el dia D" para muchas consultas a la vez. Con el indice habilitado
+// todo el historial vive en memoria; si no, cada llamada carga solo los periodos de los empleados consultados.
+// En ambos casos cada consulta es una busqueda binaria sobre los periodos del empleado. Los periodos de los empleados
+// archivados se leen del archivo, asi que las fechas pasadas se resuelven igual que antes de archivarlos
+@Service
+public class ServicioIndiceHistorialPuestos {
+    private final RepositorioIngresoEgreso repositorioIngresoEgreso;
+    private final RepositorioEmpleadosArchivados repositorioArchivo;
+    private final boolean habilitado;
+    private volatile Map<Long, Linea> lineas = new ConcurrentHashMap<>();
+
+    public ServicioIndiceHistorialPuestos(
+            RepositorioIngresoEgreso repositorioIngresoEgreso,
+            RepositorioEmpleadosArchivados repositorioArchivo,
+            @Value("${historial.indice-en-memoria:false}") boolean habilitado
+    ) {
+        this.repositorioIngresoEgreso = repositorioIngresoEgreso;
+        this.repositorioArchivo = repositorioArchivo;
+        this.habilitado = habilitado;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        if (!habilitado) return;
+
+        List<Object[]> filas = new ArrayList<>(repositorioIngresoEgreso.listarPeriodos());
+        filas.addAll(repositorioArchivo.listarPeriodos());
+
+        lineas = agrupar(filas);
+    }
+
+    // Los cambios de puesto y el archivado siempre vienen acompañados del evento; se recarga solo el historial de
+    // esos empleados, con una consulta a cada tabla por transaccion
+    @TransactionalEventListener(fallbackExecution = true)
+    public void actualizar(EmpleadosModificadosEvento evento) {
+        if (!habilitado) return;
+
+        Map<Long, Linea> recargadas = periodosDeEmpleados(evento.idsEmpleados());
+
+        for (Long idEmpleado : evento.idsEmpleados()) {
+            Linea linea = recargadas.get(idEmpleado);
+
+            if (linea == null) lineas.remove(idEmpleado);
+            else lineas.put(idEmpleado, linea);
+        }
+    }
+
+    public List<PuestoEnFechaDTO> resolver(List<ConsultaPuestoEnFechaDTO> consultas) {
+        Map<Long, Linea> fuente = lineas;
+
+        if (!habilitado) {
+            Set<Long> ids = new HashSet<>();
+            consultas.forEach(c -> ids.add(c.getIdEmpleado()));
+            fuente = periodosDeEmpleados(ids);
+        }
+
+        List<PuestoEnFechaDTO> resultado = new ArrayList<>(consultas.size());
+
+        for (ConsultaPuestoEnFechaDTO consulta : consultas) {
+            PuestoEnFechaDTO dto = new PuestoEnFechaDTO(consulta.getIdEmpleado(), consulta.getFecha(), null, null, null, null);
+            Linea linea = fuente.get(consulta.getIdEmpleado());
+            int i = linea == null ? -1 : linea.buscar((int) consulta.getFecha().toEpochDay());
+
+            if (i >= 0) {
+                dto.setIdIngresoEgreso(linea.ids()[i]);
+                dto.setIdPuesto(linea.puestos()[i]);
+            }
+
+            resultado.add(dto);
+        }
+
+        return resultado;
+    }
+
+    // Un empleado esta entero en la tabla en uso o entero en el archivo, asi que concatenar las dos listas
+    // ordenadas no mezcla las filas de ningun empleado
+    private Map<Long, Linea> periodosDeEmpleados(Collection<Long> ids) {
+        List<Object[]> filas = new ArrayList<>(repositorioIngresoEgreso.listarPeriodosDeEmpleados(ids));
+        filas.addAll(repositorioArchivo.listarPeriodosDeEmpleados(ids));
+
+        return agrupar(filas);
+    }
+
+    // Las filas llegan ordenadas por empleado e inicio, asi que cada linea queda ordenada al armarla
+    private static Map<Long, Linea> agrupar(List<Object[]> filas) {
+        Map<Long, Linea> agrupadas = new ConcurrentHashMap<>();
+        int desde = 0;
+
+        for (int i = 1; i <= filas.size(); i++) {
+            if (i < filas.size() && filas.get(i)[1].equals(filas.get(desde)[1])) continue;
+
+            int n = i - desde;
+            long[] ids = new long[n];
+            long[] puestos = new long[n];
+            int[] inicios = new int[n];
+            int[] fines = new int[n];
+
+            for (int j = 0; j < n; j++) {
+                Object[] fila = filas.get(desde + j);
+                LocalDate fin = (LocalDate) fila[4];
+
+                ids[j] = (Long) fila[0];
+                puestos[j] = (Long) fila[2];
+                inicios[j] = (int) ((LocalDate) fila[3]).toEpochDay();
+                fines[j] = fin == null ? Integer.MAX_VALUE : (int) fin.toEpochDay();
+            }
+
+            agrupadas.put((Long) filas.get(desde)[1], new Linea(ids, puestos, inicios, fines));
+            desde = i;
+        }
+
+        return agrupadas;
+    }
+
+    // Periodos [inicio, fin) de un empleado ordenados por inicio. No se solapan porque cada cambio de puesto
+    // cierra el periodo anterior el mismo dia en que abre el nuevo
+    private record Linea(long[] ids, long[] puestos, int[] inicios, int[] fines) {
+        // Posicion del periodo vigente en el dia, o -1 si no habia ninguno
+        int buscar(int dia) {
+            int bajo = 0;
+            int alto = inicios.length - 1;
+            int ultimo = -1;
+
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+
+                if (inicios[medio] <= dia) {
+                    ultimo = medio;
+                    bajo = medio + 1;
+                } else {
+                    alto = medio - 1;
+                }
+            }
+
+            return ultimo >= 0 && fines[ultimo] > dia ? ultimo : -1;
+        }
+    }
+}
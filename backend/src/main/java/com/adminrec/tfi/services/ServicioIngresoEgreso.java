@@ -1,29 +1,59 @@
 package com.adminrec.tfi.services;
 
-import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.exceptions.ConsultaHistorialInvalidaException;
 import com.adminrec.tfi.exceptions.EmpleadoInexistenteException;
 import com.adminrec.tfi.interfaces.RepositorioEmpleados;
+import com.adminrec.tfi.interfaces.RepositorioEmpleadosArchivados;
 import com.adminrec.tfi.interfaces.RepositorioIngresoEgreso;
+import com.adminrec.tfi.interfaces.RepositorioPuestos;
+import com.adminrec.tfi.util.dtos.entities.ConsultaPuestoEnFechaDTO;
 import com.adminrec.tfi.util.dtos.entities.IngresoEgresoDTO;
+import com.adminrec.tfi.util.dtos.entities.PuestoEnFechaDTO;
 import com.adminrec.tfi.util.mappers.IngresoEgresoMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ServicioIngresoEgreso {
+    public static final int MAXIMO_CONSULTAS_EN_FECHA = 10000;
+
     private final RepositorioIngresoEgreso repositorioIngresoEgreso;
     private final RepositorioEmpleados repositorioEmpleados;
+    private final RepositorioEmpleadosArchivados repositorioArchivo;
+    private final RepositorioPuestos repositorioPuestos;
+    private final ServicioIndiceHistorialPuestos indiceHistorial;
+    private final ServicioHistorialValorHora historialValorHora;
 
-    public ServicioIngresoEgreso(RepositorioIngresoEgreso repositorioIngresoEgreso, RepositorioEmpleados repositorioEmpleados) {
+    public ServicioIngresoEgreso(
+            RepositorioIngresoEgreso repositorioIngresoEgreso,
+            RepositorioEmpleados repositorioEmpleados,
+            RepositorioEmpleadosArchivados repositorioArchivo,
+            RepositorioPuestos repositorioPuestos,
+            ServicioIndiceHistorialPuestos indiceHistorial,
+            ServicioHistorialValorHora historialValorHora
+    ) {
         this.repositorioIngresoEgreso = repositorioIngresoEgreso;
         this.repositorioEmpleados = repositorioEmpleados;
+        this.repositorioArchivo = repositorioArchivo;
+        this.repositorioPuestos = repositorioPuestos;
+        this.indiceHistorial = indiceHistorial;
+        this.historialValorHora = historialValorHora;
     }
 
+    @Transactional(readOnly = true)
     public List<IngresoEgresoDTO> listarParaElEmpleado(Long id) {
-        Empleado empleado = repositorioEmpleados.findById(id).orElseThrow(
-                () -> new EmpleadoInexistenteException("El empleado con el id " + id + " no existe")
-        );
+        if (!repositorioEmpleados.existsById(id)) {
+            throw new EmpleadoInexistenteException("El empleado con el id " + id + " no existe");
+        }
 
         return repositorioIngresoEgreso
                 .findAllByEmpleado_Id(id)
@@ -32,5 +62,63 @@ public class ServicioIngresoEgreso {
                 .toList();
     }
 
+    // Las consultas en fecha incluyen a los empleados archivados, igual que la serie de dotacion
+    @Transactional(readOnly = true)
+    public IngresoEgresoDTO buscarEnFecha(Long idEmpleado, LocalDate fecha) {
+        if (!repositorioEmpleados.existsById(idEmpleado) && !repositorioArchivo.existsById(idEmpleado)) {
+            throw new EmpleadoInexistenteException("El empleado con el id " + idEmpleado + " no existe");
+        }
+
+        return repositorioIngresoEgreso.buscarVigenteDelEmpleado(idEmpleado, fecha)
+                .or(() -> repositorioArchivo.buscarVigenteDelEmpleado(idEmpleado, fecha))
+                .orElseThrow(
+                        () -> new ConsultaHistorialInvalidaException("El empleado con el id " + idEmpleado + " no tenía puesto el " + fecha)
+                );
+    }
+
+    @Transactional(readOnly = true)
+    public List<IngresoEgresoDTO> listarOcupantesEnFecha(Long idPuesto, LocalDate fecha) {
+        List<IngresoEgresoDTO> ocupantes = new ArrayList<>(repositorioIngresoEgreso.listarVigentesDelPuesto(idPuesto, fecha));
+        List<IngresoEgresoDTO> archivados = repositorioArchivo.listarVigentesDelPuesto(idPuesto, fecha);
+
+        if (!archivados.isEmpty()) {
+            ocupantes.addAll(archivados);
+            ocupantes.sort(Comparator.comparing(IngresoEgresoDTO::getNombreCompleto).thenComparing(IngresoEgresoDTO::getDni));
+        }
+
+        return ocupantes;
+    }
+
+    @Transactional(readOnly = true)
+    public List<PuestoEnFechaDTO> resolverPuestosEnFechas(List<ConsultaPuestoEnFechaDTO> consultas) {
+        if (consultas == null || consultas.isEmpty()) {
+            throw new ConsultaHistorialInvalidaException("Se debe indicar al menos una consulta");
+        }
+        if (consultas.size() > MAXIMO_CONSULTAS_EN_FECHA) {
+            throw new ConsultaHistorialInvalidaException("No se pueden resolver más de " + MAXIMO_CONSULTAS_EN_FECHA + " consultas a la vez");
+        }
+        if (consultas.stream().anyMatch(c -> c == null || c.getIdEmpleado() == null || c.getFecha() == null)) {
+            throw new ConsultaHistorialInvalidaException("Cada consulta debe indicar idEmpleado y fecha");
+        }
+
+        List<PuestoEnFechaDTO> resultado = indiceHistorial.resolver(consultas);
+
+        // Los nombres se buscan una sola vez por puesto distinto
+        Set<Long> idsPuestos = new HashSet<>();
+        resultado.forEach(r -> { if (r.getIdPuesto() != null) idsPuestos.add(r.getIdPuesto()); });
+
+        Map<Long, String> nombres = new HashMap<>();
+        if (!idsPuestos.isEmpty()) {
+            repositorioPuestos.listarNombres(idsPuestos).forEach(f -> nombres.put((Long) f[0], (String) f[1]));
+        }
+
+        resultado.forEach(r -> {
+            r.setNombrePuesto(nombres.get(r.getIdPuesto()));
+            if (r.getIdPuesto() != null) r.setValorHora(historialValorHora.valorEnFecha(r.getIdPuesto(), r.getFecha()));
+        });
+
+        return resultado;
+    }
+
     public void eliminarIngresoEgreso(Long id) {}
 }
@@ -0,0 +1,139 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.entities.JerarquiaEmpleado;
+import com.adminrec.tfi.exceptions.EmpleadoInexistenteException;
+import com.adminrec.tfi.exceptions.JerarquiaInvalidaException;
+import com.adminrec.tfi.interfaces.RepositorioEmpleados;
+import com.adminrec.tfi.interfaces.RepositorioJerarquia;
+import com.adminrec.tfi.util.dtos.entities.NodoJerarquiaDTO;
+import com.adminrec.tfi.util.dtos.entities.TamanoEquipoDTO;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class ServicioJerarquia {
+    private final RepositorioJerarquia repositorioJerarquia;
+    private final RepositorioEmpleados repositorioEmpleados;
+
+    public ServicioJerarquia(RepositorioJerarquia repositorioJerarquia, RepositorioEmpleados repositorioEmpleados) {
+        this.repositorioJerarquia = repositorioJerarquia;
+        this.repositorioEmpleados = repositorioEmpleados;
+    }
+
+    @Transactional(readOnly = true)
+    public List<NodoJerarquiaDTO> listarSubordinados(Long id) {
+        validarExistencia(id);
+        return repositorioJerarquia.listarSubordinados(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<NodoJerarquiaDTO> listarCadenaDeMando(Long id) {
+        validarExistencia(id);
+        return repositorioJerarquia.listarCadenaDeMando(id);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TamanoEquipoDTO> contarEquipos() {
+        return repositorioJerarquia.contarEquiposPorSupervisor();
+    }
+
+    // Un empleado recien creado no tiene supervisor: solo se registra su fila de profundidad 0
+    public void registrarEmpleado(Long id) {
+        repositorioJerarquia.save(new JerarquiaEmpleado(id, id, 0));
+    }
+
+    @Transactional
+    public List<NodoJerarquiaDTO> asignarSupervisor(Long id, Long idSupervisor) {
+        Empleado empleado = repositorioEmpleados.findById(id).orElseThrow(
+                () -> new EmpleadoInexistenteException("El empleado con id " + id + " no existe")
+        );
+
+        Empleado supervisor = null;
+
+        if (idSupervisor != null) {
+            supervisor = repositorioEmpleados.findById(idSupervisor).orElseThrow(
+                    () -> new EmpleadoInexistenteException("El empleado con id " + idSupervisor + " no existe")
+            );
+        }
+
+        List<JerarquiaEmpleado> subarbol = repositorioJerarquia.findAllByIdAncestro(id);
+
+        if (subarbol.isEmpty()) {
+            subarbol = List.of(repositorioJerarquia.save(new JerarquiaEmpleado(id, id, 0)));
+        }
+
+        Set<Long> idsSubarbol = new HashSet<>();
+        subarbol.forEach(j -> idsSubarbol.add(j.getIdDescendiente()));
+
+        if (idSupervisor != null && idsSubarbol.contains(idSupervisor)) {
+            throw new JerarquiaInvalidaException("El empleado con id " + idSupervisor + " ya depende del empleado con id " + id);
+        }
+
+        empleado.setSupervisor(supervisor);
+
+        // Se mueve el subarbol completo: se cortan los ancestros viejos y se conectan los del nuevo supervisor
+        repositorioJerarquia.desconectarSubarbol(idsSubarbol);
+
+        if (idSupervisor != null) {
+            List<JerarquiaEmpleado> nuevasFilas = new ArrayList<>();
+
+            for (JerarquiaEmpleado ancestro : repositorioJerarquia.findAllByIdDescendiente(idSupervisor)) {
+                for (JerarquiaEmpleado descendiente : subarbol) {
+                    nuevasFilas.add(new JerarquiaEmpleado(
+                            ancestro.getIdAncestro(),
+                            descendiente.getIdDescendiente(),
+                            ancestro.getProfundidad() + descendiente.getProfundidad() + 1
+                    ));
+                }
+            }
+
+            repositorioJerarquia.saveAll(nuevasFilas);
+        }
+
+        return repositorioJerarquia.listarCadenaDeMando(id);
+    }
+
+    // Regenera la tabla de clausura completa a partir de Empleado.supervisor
+    @Transactional
+    public void reconstruir() {
+        Map<Long, Long> supervisorDe = new HashMap<>();
+
+        for (Object[] fila : repositorioEmpleados.listarRelacionesDeSupervision()) {
+            supervisorDe.put((Long) fila[0], (Long) fila[1]);
+        }
+
+        List<JerarquiaEmpleado> filas = new ArrayList<>();
+
+        for (Long id : supervisorDe.keySet()) {
+            Set<Long> visitados = new HashSet<>();
+            int profundidad = 0;
+
+            // El conjunto de visitados corta ciclos que pudieran existir en datos cargados a mano
+            for (Long ancestro = id; ancestro != null && visitados.add(ancestro); ancestro = supervisorDe.get(ancestro)) {
+                filas.add(new JerarquiaEmpleado(ancestro, id, profundidad++));
+            }
+        }
+
+        repositorioJerarquia.deleteAllInBatch();
+        repositorioJerarquia.saveAll(filas);
+    }
+
+    @Transactional(readOnly = true)
+    public boolean estaDesactualizada() {
+        return repositorioJerarquia.countByProfundidad(0) != repositorioEmpleados.count();
+    }
+
+    private void validarExistencia(Long id) {
+        if (!repositorioEmpleados.existsById(id)) {
+            throw new EmpleadoInexistenteException("El empleado con id " + id + " no existe");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.monitoreo.MedicionSql;
+import com.adminrec.tfi.util.dtos.entities.EstadisticasEndpointSqlDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Acumula por endpoint lo que midio cada peticion. Una misma forma de sentencia ejecutada umbral-repeticiones veces
+// o mas en una sola peticion es la firma de un N+1 (un mapper recorriendo una coleccion perezosa, por ejemplo).
+// Lo mismo se publica como metricas tfi.sql.* con el endpoint como etiqueta
+@Service
+public class ServicioMonitoreoSql {
+    private static final Logger log = LoggerFactory.getLogger(ServicioMonitoreoSql.class);
+
+    private final int umbralRepeticiones;
+    private final boolean cabeceras;
+    private final MeterRegistry registry;
+    private final Map<String, Acumulado> endpoints = new ConcurrentHashMap<>();
+
+    public ServicioMonitoreoSql(
+            @Value("${sql.monitoreo.umbral-repeticiones:5}") int umbralRepeticiones,
+            @Value("${sql.monitoreo.cabeceras:false}") boolean cabeceras,
+            MeterRegistry registry
+    ) {
+        this.umbralRepeticiones = umbralRepeticiones;
+        this.cabeceras = cabeceras;
+        this.registry = registry;
+    }
+
+    public void registrar(String endpoint, MedicionSql medicion) {
+        Map.Entry<String, Integer> repetida = repeticionSospechosa(medicion);
+
+        if (repetida != null) {
+            log.warn("Posible N+1 en {}: {} ejecuciones de {}", endpoint, repetida.getValue(), repetida.getKey());
+        }
+
+        endpoints.computeIfAbsent(endpoint, e -> new Acumulado(registry, e)).sumar(medicion, repetida);
+    }
+
+    // La forma mas repetida de la peticion si supera el umbral, o null
+    public Map.Entry<String, Integer> repeticionSospechosa(MedicionSql medicion) {
+        Map.Entry<String, Integer> repetida = medicion.formaMasRepetida();
+
+        return repetida != null && repetida.getValue() >= umbralRepeticiones ? repetida : null;
+    }
+
+    public boolean isCabeceras() {
+        return cabeceras;
+    }
+
+    // Ordenadas por sentencias totales, los endpoints mas costosos primero
+    public List<EstadisticasEndpointSqlDTO> estadisticas() {
+        List<EstadisticasEndpointSqlDTO> estadisticas = new ArrayList<>(endpoints.size());
+
+        endpoints.forEach((endpoint, acumulado) -> estadisticas.add(acumulado.aDTO(endpoint)));
+        estadisticas.sort(Comparator.comparing(EstadisticasEndpointSqlDTO::getSentencias).reversed());
+
+        return estadisticas;
+    }
+
+    public void reiniciar() {
+        endpoints.clear();
+    }
+
+    private static class Acumulado {
+        private final LongAdder peticiones = new LongAdder();
+        private final LongAdder sentencias = new LongAdder();
+        private final LongAdder filas = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder peticionesConNMasUno = new LongAdder();
+        private final AtomicLong maximoSentencias = new AtomicLong();
+        private volatile String ultimaFormaRepetida;
+        // Los medidores se arman una vez por endpoint; reiniciar las estadisticas no los borra del registro
+        private final DistributionSummary sentenciasPorPeticion;
+        private final DistributionSummary filasPorPeticion;
+        private final Timer tiempoPorPeticion;
+        private final Counter nMasUno;
+
+        Acumulado(MeterRegistry registry, String endpoint) {
+            // Los buckets van aca y no en las propiedades: ahi un numero sin unidad se toma como milisegundos
+            sentenciasPorPeticion = DistributionSummary.builder("tfi.sql.sentencias")
+                    .description("Sentencias SQL ejecutadas por peticion")
+                    .tag("endpoint", endpoint)
+                    .serviceLevelObjectives(1, 2, 5, 10, 25, 50)
+                    .register(registry);
+            filasPorPeticion = DistributionSummary.builder("tfi.sql.filas")
+                    .description("Filas leidas por peticion")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+            tiempoPorPeticion = Timer.builder("tfi.sql.tiempo")
+                    .description("Tiempo JDBC por peticion")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+            nMasUno = Counter.builder("tfi.sql.n.mas.uno")
+                    .description("Peticiones con una sentencia repetida por encima del umbral")
+                    .tag("endpoint", endpoint)
+                    .register(registry);
+        }
+
+        void sumar(MedicionSql medicion, Map.Entry<String, Integer> repetida) {
+            peticiones.increment();
+            sentencias.add(medicion.getSentencias());
+            filas.add(medicion.getFilas());
+            nanos.add(medicion.getNanos());
+            maximoSentencias.accumulateAndGet(medicion.getSentencias(), Math::max);
+
+            sentenciasPorPeticion.record(medicion.getSentencias());
+            filasPorPeticion.record(medicion.getFilas());
+            tiempoPorPeticion.record(medicion.getNanos(), TimeUnit.NANOSECONDS);
+
+            if (repetida != null) {
+                peticionesConNMasUno.increment();
+                ultimaFormaRepetida = repetida.getKey();
+                nMasUno.increment();
+            }
+        }
+
+        EstadisticasEndpointSqlDTO aDTO(String endpoint) {
+            long totalPeticiones = peticiones.sum();
+            long totalSentencias = sentencias.sum();
+            double tiempoMs = nanos.sum() / 1_000_000.0;
+
+            return new EstadisticasEndpointSqlDTO(
+                    endpoint,
+                    totalPeticiones,
+                    totalSentencias,
+                    totalPeticiones == 0 ? 0 : (double) totalSentencias / totalPeticiones,
+                    maximoSentencias.get(),
+                    filas.sum(),
+                    tiempoMs,
+                    totalPeticiones == 0 ? 0 : tiempoMs / totalPeticiones,
+                    peticionesConNMasUno.sum(),
+                    ultimaFormaRepetida
+            );
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.util.events.SolicitudActualizadaEvento;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Registro en memoria de los supervisores conectados por sector. Los SseEmitter son asincronos,
+// asi que cada conexion abierta no retiene un hilo del servlet
+@Service
+public class ServicioNotificacionesSolicitudes {
+    private static final long TIMEOUT_CONEXION_MS = 30L * 60 * 1000;
+    private static final long REINTENTO_MS = 3000;
+    private static final int EVENTOS_RETENIDOS_POR_SECTOR = 200;
+    // Menor que el corte por inactividad habitual de proxies y balanceadores (60s)
+    private static final long LATIDO_MS = 20_000;
+
+    private final Map<Long, List<SseEmitter>> suscriptores = new ConcurrentHashMap<>();
+    private final Map<Long, Deque<EventoEmitido>> recientes = new ConcurrentHashMap<>();
+
+    // Arranca en el reloj para que los ids sigan creciendo despues de un reinicio
+    private final AtomicLong secuencia = new AtomicLong(System.currentTimeMillis());
+
+    private record EventoEmitido(long id, SolicitudActualizadaEvento evento) {}
+
+    public SseEmitter suscribir(Long idSector, Long ultimoEventoRecibido) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_CONEXION_MS);
+        List<SseEmitter> delSector = suscriptores.computeIfAbsent(idSector, id -> new CopyOnWriteArrayList<>());
+
+        emitter.onCompletion(() -> delSector.remove(emitter));
+        emitter.onTimeout(() -> delSector.remove(emitter));
+        emitter.onError(e -> delSector.remove(emitter));
+
+        delSector.add(emitter);
+
+        // Al reconectar se reenvian los eventos que el cliente no llego a recibir
+        if (ultimoEventoRecibido != null) {
+            for (EventoEmitido emitido : pendientesDesde(idSector, ultimoEventoRecibido)) {
+                if (!enviar(emitter, emitido)) {
+                    delSector.remove(emitter);
+                    break;
+                }
+            }
+        }
+
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publicar(SolicitudActualizadaEvento evento) {
+        if (evento.idSector() == null) return;
+
+        EventoEmitido emitido = new EventoEmitido(secuencia.incrementAndGet(), evento);
+        Deque<EventoEmitido> delSector = recientes.computeIfAbsent(evento.idSector(), id -> new ArrayDeque<>());
+
+        synchronized (delSector) {
+            delSector.addLast(emitido);
+            if (delSector.size() > EVENTOS_RETENIDOS_POR_SECTOR) delSector.removeFirst();
+        }
+
+        List<SseEmitter> conectados = suscriptores.get(evento.idSector());
+        if (conectados == null) return;
+
+        for (SseEmitter emitter : conectados) {
+            if (!enviar(emitter, emitido)) conectados.remove(emitter);
+        }
+    }
+
+    // Un comentario SSE mantiene viva la conexion sin disparar eventos en el cliente, y es la unica forma de
+    // enterarse de que un supervisor se fue sin cerrar: el envio falla y se lo quita
+    @Scheduled(fixedDelay = LATIDO_MS)
+    public void latir() {
+        for (List<SseEmitter> conectados : suscriptores.values()) {
+            for (SseEmitter emitter : conectados) {
+                try {
+                    emitter.send(SseEmitter.event().comment("latido"));
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                    conectados.remove(emitter);
+                }
+            }
+        }
+    }
+
+    private List<EventoEmitido> pendientesDesde(Long idSector, long ultimoEventoRecibido) {
+        Deque<EventoEmitido> delSector = recientes.get(idSector);
+        List<EventoEmitido> pendientes = new ArrayList<>();
+        if (delSector == null) return pendientes;
+
+        synchronized (delSector) {
+            for (EventoEmitido emitido : delSector) {
+                if (emitido.id() > ultimoEventoRecibido) pendientes.add(emitido);
+            }
+        }
+
+        return pendientes;
+    }
+
+    private boolean enviar(SseEmitter emitter, EventoEmitido emitido) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(emitido.id()))
+                    .name("solicitud")
+                    .reconnectTime(REINTENTO_MS)
+                    .data(emitido.evento()));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
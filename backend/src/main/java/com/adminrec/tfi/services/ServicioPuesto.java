@@ -2,35 +2,75 @@ package com.adminrec.tfi.services;
 
 import com.adminrec.tfi.entities.Puesto;
 import com.adminrec.tfi.entities.Sector;
+import com.adminrec.tfi.exceptions.AjusteValorHoraInvalidoException;
+import com.adminrec.tfi.exceptions.ConsultaHistorialInvalidaException;
 import com.adminrec.tfi.exceptions.PuestoInexistenteException;
 import com.adminrec.tfi.exceptions.SectorInexistenteException;
+import com.adminrec.tfi.interfaces.RepositorioEmpleadosArchivados;
+import com.adminrec.tfi.interfaces.RepositorioHistorialValorHora;
+import com.adminrec.tfi.interfaces.RepositorioIngresoEgreso;
 import com.adminrec.tfi.interfaces.RepositorioPuestos;
 import com.adminrec.tfi.interfaces.RepositorioSectores;
+import com.adminrec.tfi.interfaces.RepositorioSolicitudes;
+import com.adminrec.tfi.util.dtos.entities.AjusteValorHoraDTO;
+import com.adminrec.tfi.util.dtos.entities.HistorialValorHoraDTO;
 import com.adminrec.tfi.util.dtos.entities.PuestoDTO;
+import com.adminrec.tfi.util.dtos.entities.ResultadoAjusteValorHoraDTO;
+import com.adminrec.tfi.util.enums.TipoAjuste;
+import com.adminrec.tfi.util.events.EmpleadosModificadosEvento;
+import com.adminrec.tfi.util.events.SolicitudesMovidasDeSectorEvento;
 import com.adminrec.tfi.util.mappers.PuestoMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class ServicioPuesto {
     private final RepositorioPuestos repositorioPuestos;
     private final RepositorioSectores repositorioSectores;
-
-    public ServicioPuesto(RepositorioPuestos repositorioPuestos, RepositorioSectores repositorioSectores) {
+    private final RepositorioHistorialValorHora repositorioHistorial;
+    private final RepositorioSolicitudes repositorioSolicitudes;
+    private final RepositorioIngresoEgreso repositorioIngresoEgreso;
+    private final RepositorioEmpleadosArchivados repositorioArchivo;
+    private final ServicioHistorialValorHora servicioHistorial;
+    private final ServicioCache servicioCache;
+    private final ApplicationEventPublisher publicadorEventos;
+
+    public ServicioPuesto(
+            RepositorioPuestos repositorioPuestos,
+            RepositorioSectores repositorioSectores,
+            RepositorioHistorialValorHora repositorioHistorial,
+            RepositorioSolicitudes repositorioSolicitudes,
+            RepositorioIngresoEgreso repositorioIngresoEgreso,
+            RepositorioEmpleadosArchivados repositorioArchivo,
+            ServicioHistorialValorHora servicioHistorial,
+            ServicioCache servicioCache,
+            ApplicationEventPublisher publicadorEventos
+    ) {
         this.repositorioPuestos = repositorioPuestos;
         this.repositorioSectores = repositorioSectores;
+        this.repositorioHistorial = repositorioHistorial;
+        this.repositorioSolicitudes = repositorioSolicitudes;
+        this.repositorioIngresoEgreso = repositorioIngresoEgreso;
+        this.repositorioArchivo = repositorioArchivo;
+        this.servicioHistorial = servicioHistorial;
+        this.servicioCache = servicioCache;
+        this.publicadorEventos = publicadorEventos;
     }
 
-    public List<PuestoDTO> listar() {
-        return repositorioPuestos.findAll()
-                .stream()
-                .filter(p -> p.getBorradoEn() == null)
-                .map(PuestoMapper::toDTO)
-                .toList();
+    @Transactional(readOnly = true)
+    public Page<PuestoDTO> listar(Long idSector, Pageable pageable) {
+        return repositorioPuestos.listarActivos(idSector, pageable);
     }
 
+    @Transactional(readOnly = true)
     public PuestoDTO buscarUno(Long id) {
         Puesto puesto = repositorioPuestos.findById(id).orElseThrow(
                 () -> new PuestoInexistenteException("El puesto con el id " + id + " no existe")
@@ -39,6 +79,7 @@ public class ServicioPuesto {
         return PuestoMapper.toDTO(puesto);
     }
 
+    @Transactional
     public PuestoDTO crear(PuestoDTO dto) {
         Puesto puesto = PuestoMapper.fromDTO(dto);
         Sector sector = repositorioSectores.findById(dto.getSector().getId()).orElseThrow(
@@ -48,10 +89,16 @@ public class ServicioPuesto {
         puesto.setSector(sector);
 
         repositorioPuestos.save(puesto);
+        servicioHistorial.registrar(puesto, puesto.getValorHora());
 
         return PuestoMapper.toDTO(puesto);
     }
 
+    // El valor hora anterior queda en el historial para poder recalcular liquidaciones pasadas.
+    // Si el puesto cambia de sector, las solicitudes de sus empleados se mueven con el. La dotacion atribuye cada
+    // periodo al sector actual del puesto, asi que tambien se mueve su historia: se avisa por todos los que lo
+    // ocuparon, archivados incluidos, para que la serie en memoria quede igual que la reconstruida al arrancar
+    @Transactional
     public PuestoDTO editar(Long id, PuestoDTO dto) {
         Puesto puesto = repositorioPuestos.findById(id).orElseThrow(
                 () -> new PuestoInexistenteException("El puesto con el id " +  id + " no existe")
@@ -61,15 +108,64 @@ public class ServicioPuesto {
                 () -> new SectorInexistenteException("El sector con el id " + dto.getSector().getId() + " no existe")
         );
 
+        Long idSectorAnterior = puesto.getSector().getId();
+
         puesto.setNombre(dto.getNombre());
         puesto.setValorHora(dto.getValorHora());
         puesto.setSector(sector);
 
+        if (!idSectorAnterior.equals(sector.getId())) {
+            repositorioSolicitudes.actualizarSectorDelPuesto(puesto.getId(), sector.getId());
+            publicadorEventos.publishEvent(new SolicitudesMovidasDeSectorEvento(List.of(idSectorAnterior, sector.getId())));
+
+            List<Long> ocupantes = new ArrayList<>(repositorioIngresoEgreso.listarEmpleadosDelPuesto(puesto.getId()));
+            ocupantes.addAll(repositorioArchivo.listarEmpleadosDelPuesto(puesto.getId()));
+            if (!ocupantes.isEmpty()) publicadorEventos.publishEvent(new EmpleadosModificadosEvento(ocupantes));
+        }
+
         repositorioPuestos.save(puesto);
+        servicioHistorial.registrar(puesto, puesto.getValorHora());
 
         return PuestoMapper.toDTO(puesto);
     }
 
+    // Ajusta el valor hora de todos los puestos activos (o los de un sector) con un unico UPDATE, sin cargarlos
+    @Transactional
+    public ResultadoAjusteValorHoraDTO ajustarValoresHora(AjusteValorHoraDTO dto) {
+        TipoAjuste tipo = TipoAjuste.desdeString(dto.getTipo());
+        Long idSector = dto.getIdSector();
+
+        if (dto.getValor() == 0) {
+            throw new AjusteValorHoraInvalidoException("El valor del ajuste no puede ser cero");
+        }
+        if (idSector != null && !repositorioSectores.existsById(idSector)) {
+            throw new SectorInexistenteException("El sector con el id " + idSector + " no existe");
+        }
+
+        double factor = tipo == TipoAjuste.PORCENTAJE ? 1 + dto.getValor() / 100 : 1;
+        double monto = tipo == TipoAjuste.ABSOLUTO ? dto.getValor() : 0;
+        Object[] antes = repositorioPuestos.totalizarValoresHora(idSector).get(0);
+
+        if (((Long) antes[0]) == 0) {
+            throw new AjusteValorHoraInvalidoException("No hay puestos activos para ajustar");
+        }
+        if ((Double) antes[2] * factor + monto <= 0) {
+            throw new AjusteValorHoraInvalidoException("El ajuste dejaría puestos con un valor hora menor o igual a cero");
+        }
+
+        List<Long> ids = repositorioPuestos.listarIdsActivosDelSector(idSector);
+        int ajustados = repositorioPuestos.ajustarValoresHora(idSector, factor, monto);
+        servicioHistorial.registrarAjuste(idSector, ids);
+
+        // El UPDATE no pasa por las entidades, asi que los puestos cacheados quedarian con el valor anterior
+        servicioCache.vaciar(ServicioCache.REGION_PUESTOS);
+
+        Object[] despues = repositorioPuestos.totalizarValoresHora(idSector).get(0);
+
+        return new ResultadoAjusteValorHoraDTO(ajustados, (Double) antes[1], (Double) despues[1], LocalDate.now());
+    }
+
+    @Transactional
     public PuestoDTO eliminar(Long id) {
         Puesto puesto = repositorioPuestos.findById(id).orElseThrow(
                 () -> new PuestoInexistenteException("El puesto con el id " +  id + " no existe")
@@ -80,4 +176,28 @@ public class ServicioPuesto {
 
         return PuestoMapper.toDTO(puesto);
     }
+
+    @Transactional(readOnly = true)
+    public List<HistorialValorHoraDTO> listarValoresHora(Long id) {
+        if (!repositorioPuestos.existsById(id)) {
+            throw new PuestoInexistenteException("El puesto con el id " + id + " no existe");
+        }
+
+        return repositorioHistorial.listarDelPuesto(id);
+    }
+
+    @Transactional(readOnly = true)
+    public Double buscarValorHoraEnFecha(Long id, LocalDate fecha) {
+        if (!repositorioPuestos.existsById(id)) {
+            throw new PuestoInexistenteException("El puesto con el id " + id + " no existe");
+        }
+
+        Double valorHora = servicioHistorial.valorEnFecha(id, fecha);
+
+        if (valorHora == null) {
+            throw new ConsultaHistorialInvalidaException("El puesto con el id " + id + " no tenía valor hora el " + fecha);
+        }
+
+        return valorHora;
+    }
 }
@@ -0,0 +1,141 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.entities.SaldoLicencia;
+import com.adminrec.tfi.entities.Solicitud;
+import com.adminrec.tfi.exceptions.EmpleadoInexistenteException;
+import com.adminrec.tfi.exceptions.SaldoInsuficienteException;
+import com.adminrec.tfi.interfaces.RepositorioEmpleados;
+import com.adminrec.tfi.interfaces.RepositorioSaldosLicencias;
+import com.adminrec.tfi.util.dtos.entities.SaldoLicenciaDTO;
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.enums.TipoSolicitud;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ServicioSaldosLicencias {
+    private final RepositorioSaldosLicencias repositorioSaldos;
+    private final RepositorioEmpleados repositorioEmpleados;
+    private final Map<TipoSolicitud, Integer> diasAnuales = new EnumMap<>(TipoSolicitud.class);
+
+    public ServicioSaldosLicencias(
+            RepositorioSaldosLicencias repositorioSaldos,
+            RepositorioEmpleados repositorioEmpleados,
+            @Value("${solicitudes.dias-anuales.vacaciones:14}") Integer diasVacaciones,
+            @Value("${solicitudes.dias-anuales.permiso:6}") Integer diasPermiso,
+            @Value("${solicitudes.dias-anuales.licencia:30}") Integer diasLicencia
+    ) {
+        this.repositorioSaldos = repositorioSaldos;
+        this.repositorioEmpleados = repositorioEmpleados;
+        diasAnuales.put(TipoSolicitud.VACACIONES, diasVacaciones);
+        diasAnuales.put(TipoSolicitud.PERMISO, diasPermiso);
+        diasAnuales.put(TipoSolicitud.LICENCIA, diasLicencia);
+    }
+
+    // Los dias se imputan al año en que empieza la ausencia; sin fecha, al de creacion
+    public static int anioImputable(Solicitud solicitud) {
+        if (solicitud.getFechaInicio() != null) return solicitud.getFechaInicio().getYear();
+        return solicitud.getCreadoEn() != null ? solicitud.getCreadoEn().getYear() : LocalDate.now().getYear();
+    }
+
+    // Una sola lectura por clave unica: no se recorren las solicitudes aprobadas
+    public void validarDisponibilidad(Long idEmpleado, TipoSolicitud tipo, int anio, int dias) {
+        int usados = repositorioSaldos.findByIdEmpleadoAndAnioAndTipoSolicitud(idEmpleado, anio, tipo)
+                .map(SaldoLicencia::getDiasUsados)
+                .orElse(0);
+        int disponibles = diasAnuales.get(tipo) - usados;
+
+        if (dias > disponibles) {
+            throw new SaldoInsuficienteException(
+                    "Se solicitaron " + dias + " días de " + tipo + " pero quedan " + Math.max(disponibles, 0) + " disponibles en " + anio
+            );
+        }
+    }
+
+    // Debe llamarse dentro de la transaccion que cambia el estado de la solicitud
+    public void registrarCambioDeEstado(Solicitud solicitud, EstadoSolicitud anterior, EstadoSolicitud nuevo) {
+        boolean antesAceptada = anterior == EstadoSolicitud.ACEPTADO;
+        boolean ahoraAceptada = nuevo == EstadoSolicitud.ACEPTADO;
+
+        if (antesAceptada == ahoraAceptada) return;
+
+        int dias = ahoraAceptada ? solicitud.getDuracionDias() : -solicitud.getDuracionDias();
+
+        repositorioSaldos.sumarDias(
+                solicitud.getEmpleado().getId(), anioImputable(solicitud), solicitud.getTipoSolicitud().name(), dias
+        );
+    }
+
+    // Agrupa los cambios de un cambio masivo para emitir una sola sentencia por (empleado, año, tipo)
+    public void registrarCambiosDeEstado(List<Solicitud> solicitudes, Map<Long, EstadoSolicitud> anteriores, EstadoSolicitud nuevo) {
+        Map<List<Object>, Integer> deltas = new HashMap<>();
+
+        for (Solicitud s : solicitudes) {
+            boolean antesAceptada = anteriores.get(s.getId()) == EstadoSolicitud.ACEPTADO;
+            boolean ahoraAceptada = nuevo == EstadoSolicitud.ACEPTADO;
+            if (antesAceptada == ahoraAceptada) continue;
+
+            List<Object> clave = List.of(s.getEmpleado().getId(), anioImputable(s), s.getTipoSolicitud());
+            deltas.merge(clave, ahoraAceptada ? s.getDuracionDias() : -s.getDuracionDias(), Integer::sum);
+        }
+
+        deltas.forEach((clave, dias) -> repositorioSaldos.sumarDias(
+                (Long) clave.get(0), (Integer) clave.get(1), ((TipoSolicitud) clave.get(2)).name(), dias
+        ));
+    }
+
+    @Transactional(readOnly = true)
+    public List<SaldoLicenciaDTO> listarParaEmpleado(Integer dni, Integer anio) {
+        Empleado empleado = repositorioEmpleados.findByDni(dni).orElseThrow(
+                () -> new EmpleadoInexistenteException("El empleado con el dni " + dni + " no existe")
+        );
+
+        return listar(empleado.getId(), anio);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SaldoLicenciaDTO> listarParaSupervisor(Integer dniSupervisor, Long idEmpleado, Integer anio) {
+        Long sectorSupervisor = repositorioEmpleados.buscarIdSectorPorDni(dniSupervisor).orElseThrow(
+                () -> new EmpleadoInexistenteException("El empleado con el dni " + dniSupervisor + " no existe")
+        );
+        Long sectorEmpleado = repositorioEmpleados.buscarIdSectorPorId(idEmpleado).orElseThrow(
+                () -> new EmpleadoInexistenteException("El empleado con id " + idEmpleado + " no existe")
+        );
+
+        if (!sectorSupervisor.equals(sectorEmpleado)) {
+            throw new AccessDeniedException("El empleado con id " + idEmpleado + " no pertenece a tu sector");
+        }
+
+        return listar(idEmpleado, anio);
+    }
+
+    @Transactional
+    public int reconstruir() {
+        repositorioSaldos.deleteAllInBatch();
+        return repositorioSaldos.recalcularDesdeSolicitudes();
+    }
+
+    private List<SaldoLicenciaDTO> listar(Long idEmpleado, Integer anio) {
+        int anioConsulta = anio != null ? anio : LocalDate.now().getYear();
+
+        Map<TipoSolicitud, Integer> usados = new EnumMap<>(TipoSolicitud.class);
+        repositorioSaldos.findAllByIdEmpleadoAndAnio(idEmpleado, anioConsulta)
+                .forEach(s -> usados.put(s.getTipoSolicitud(), s.getDiasUsados()));
+
+        return diasAnuales.entrySet().stream()
+                .map(e -> {
+                    int diasUsados = usados.getOrDefault(e.getKey(), 0);
+                    return new SaldoLicenciaDTO(e.getKey().name(), anioConsulta, diasUsados, e.getValue(), e.getValue() - diasUsados);
+                })
+                .toList();
+    }
+}
@@ -1,49 +1,90 @@
 package com.adminrec.tfi.services;
 
-import com.adminrec.tfi.entities.Cuenta;
-import com.adminrec.tfi.entities.Empleado;
-import com.adminrec.tfi.entities.Puesto;
 import com.adminrec.tfi.entities.Sector;
 import com.adminrec.tfi.exceptions.SectorInexistenteException;
 import com.adminrec.tfi.interfaces.RepositorioCuentas;
 import com.adminrec.tfi.interfaces.RepositorioEmpleados;
+import com.adminrec.tfi.interfaces.RepositorioPuestos;
 import com.adminrec.tfi.interfaces.RepositorioSectores;
+import com.adminrec.tfi.util.dtos.entities.DetalleEmpleadoDTO;
 import com.adminrec.tfi.util.dtos.entities.DetalleSectorDTO;
 import com.adminrec.tfi.util.enums.Rol;
-import com.adminrec.tfi.util.mappers.PuestoMapper;
 import com.adminrec.tfi.util.mappers.SectorMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class ServicioSector {
+    // Campos de cada empleado en el detalle de sectores; los empleados no ven datos personales de sus compañeros
+    public static final Map<String, List<String>> VISTAS = Map.of(
+            "resumen", List.of("id", "apellido", "nombre", "esSupervisorDeSector"),
+            "contacto", List.of("id", "apellido", "nombre", "dni", "correo", "telefono", "esSupervisorDeSector", "supervisor"),
+            "completa", List.of(
+                    "id", "apellido", "nombre", "dni", "correo", "domicilio", "fechaNacimiento", "fechaContratacion",
+                    "telefono", "esSupervisorDeSector", "supervisor"
+            )
+    );
+    public static final Map<Rol, String> VISTA_POR_ROL = Map.of(
+            Rol.ADMIN, "completa",
+            Rol.SUPERVISOR, "completa",
+            Rol.EMPLOYEE, "contacto"
+    );
+
     private final RepositorioSectores repositorioSectores;
     private final RepositorioEmpleados repositorioEmpleados;
     private final RepositorioCuentas repositorioCuentas;
-
-    public ServicioSector(RepositorioSectores repositorioSectores, RepositorioEmpleados repositorioEmpleados, RepositorioCuentas repositorioCuentas) {
+    private final RepositorioPuestos repositorioPuestos;
+
+    public ServicioSector(
+            RepositorioSectores repositorioSectores,
+            RepositorioEmpleados repositorioEmpleados,
+            RepositorioCuentas repositorioCuentas,
+            RepositorioPuestos repositorioPuestos
+    ) {
         this.repositorioSectores = repositorioSectores;
         this.repositorioEmpleados = repositorioEmpleados;
         this.repositorioCuentas = repositorioCuentas;
+        this.repositorioPuestos = repositorioPuestos;
     }
 
+    @Transactional(readOnly = true)
     public List<DetalleSectorDTO> listar() {
-        return repositorioSectores.findAll().stream()
+        return cargarDetalle(null).stream()
                 .map(SectorMapper::toDetalleDTO)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
     public DetalleSectorDTO buscarUno(Long id) {
-        Sector sector = repositorioSectores.findById(id).orElseThrow(
-                () -> new SectorInexistenteException("El sector con el id " + id + " no existe")
-        );
+        List<Sector> sectores = cargarDetalle(id);
+
+        if (sectores.isEmpty()) throw new SectorInexistenteException("El sector con el id " + id + " no existe");
 
-        return SectorMapper.toDetalleDTO(sector);
+        return SectorMapper.toDetalleDTO(sectores.get(0));
     }
 
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listar(List<String> campos) {
+        return repositorioSectores.listarDetalle(campos, null);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> buscarUno(Long id, List<String> campos) {
+        List<Map<String, Object>> sectores = repositorioSectores.listarDetalle(campos, id);
+
+        if (sectores.isEmpty()) throw new SectorInexistenteException("El sector con el id " + id + " no existe");
+
+        return sectores.get(0);
+    }
+
+    @Transactional
     public void eliminarSector(Long id) {
         Sector sector = repositorioSectores.findById(id).orElseThrow(
                 () -> new SectorInexistenteException("El sector con el id " + id + " no existe")
@@ -53,34 +94,52 @@ public class ServicioSector {
         repositorioSectores.delete(sector);
     }
 
+    @Transactional
     public DetalleSectorDTO actualizarSupervisores(Long id, List<Long> idsSupervisores) {
-        Sector sector = repositorioSectores.findById(id).orElseThrow(
-                () -> new SectorInexistenteException("El sector con el id " + id + " no existe")
-        );
+        List<Sector> sectores = cargarDetalle(id);
+
+        if (sectores.isEmpty()) throw new SectorInexistenteException("El sector con el id " + id + " no existe");
+
+        Sector sector = sectores.get(0);
+
+        Set<Long> ids = idsSupervisores == null ? Set.of() : new HashSet<>(idsSupervisores);
+
+        // Se arma antes de las actualizaciones masivas, que no pasan por el contexto de persistencia
+        DetalleSectorDTO dto = SectorMapper.toDetalleDTO(sector);
 
-        List<Empleado> empleados = sector.getPuestos()
-                .stream()
+        repositorioEmpleados.promoverSupervisoresDelSector(id, ids);
+        repositorioEmpleados.degradarSupervisoresDelSector(id, ids);
+        repositorioCuentas.cambiarRolDeEmpleadosDelSector(id, ids, Rol.EMPLOYEE, Rol.SUPERVISOR);
+        repositorioCuentas.cambiarRolDeEmpleadosDelSectorExcepto(id, ids, Rol.SUPERVISOR, Rol.EMPLOYEE);
+
+        List<DetalleEmpleadoDTO> empleados = dto.getPuestos().stream()
                 .flatMap(p -> p.getEmpleados().stream())
                 .toList();
+        Set<Long> idsDelSector = empleados.stream().map(DetalleEmpleadoDTO::getId).collect(Collectors.toSet());
 
-        for (Empleado empleado : empleados) {
-            boolean debeSerSupervisor = idsSupervisores.contains(empleado.getId());
+        empleados.forEach(e -> actualizarMarcaSupervisor(e, ids, idsDelSector));
 
-            if (empleado.isEsSupervisorDeSector() != debeSerSupervisor) {
-                empleado.setEsSupervisorDeSector(debeSerSupervisor);
-                repositorioEmpleados.save(empleado);
+        return dto;
+    }
 
-                Cuenta cuentaAsociada = repositorioCuentas.findByEmpleado_Dni(empleado.getDni());
+    // Plan de carga de SectorMapper.toDetalleDTO: sectores con puestos, y despues los empleados de esos puestos
+    // con su supervisor. Son dos consultas sin importar cuantos puestos y empleados haya
+    private List<Sector> cargarDetalle(Long id) {
+        List<Sector> sectores = repositorioSectores.listarConPuestos(id);
 
-                if (cuentaAsociada != null) {
-                    cuentaAsociada.setRol(debeSerSupervisor? Rol.SUPERVISOR : Rol.EMPLOYEE);
-                    repositorioCuentas.save(cuentaAsociada);
-                }
-            }
+        if (!sectores.isEmpty()) {
+            repositorioPuestos.cargarEmpleados(sectores.stream().map(Sector::getId).toList());
         }
 
-        Sector sectorActualizado = repositorioSectores.findById(sector.getId()).get();
+        return sectores;
+    }
 
-        return SectorMapper.toDetalleDTO(sectorActualizado);
+    // Solo se conoce el nuevo estado de los empleados del sector; los supervisores de otros sectores quedan igual
+    private void actualizarMarcaSupervisor(DetalleEmpleadoDTO empleado, Set<Long> ids, Set<Long> idsDelSector) {
+        for (DetalleEmpleadoDTO e = empleado; e != null; e = e.getSupervisor()) {
+            if (idsDelSector.contains(e.getId())) {
+                e.setEsSupervisorDeSector(ids.contains(e.getId()));
+            }
+        }
     }
 }
@@ -2,36 +2,113 @@ package com.adminrec.tfi.services;
 
 import com.adminrec.tfi.entities.Empleado;
 import com.adminrec.tfi.entities.Solicitud;
+import com.adminrec.tfi.exceptions.CursorInvalidoException;
 import com.adminrec.tfi.exceptions.EmpleadoInexistenteException;
+import com.adminrec.tfi.exceptions.FechasSolicitudInvalidasException;
 import com.adminrec.tfi.exceptions.SolicitudInexistenteException;
+import com.adminrec.tfi.exceptions.SolicitudModificadaException;
+import com.adminrec.tfi.exceptions.TransicionSolicitudInvalidaException;
 import com.adminrec.tfi.interfaces.RepositorioEmpleados;
 import com.adminrec.tfi.interfaces.RepositorioSolicitudes;
+import com.adminrec.tfi.util.dtos.entities.BandejaSolicitudesDTO;
+import com.adminrec.tfi.util.dtos.entities.ResultadoCambioMasivoDTO;
+import com.adminrec.tfi.util.dtos.entities.SolicitudBandejaDTO;
 import com.adminrec.tfi.util.dtos.entities.SolicitudDTO;
 import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.enums.TipoSolicitud;
+import com.adminrec.tfi.util.events.SolicitudActualizadaEvento;
 import com.adminrec.tfi.util.mappers.SolicitudMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ServicioSolicitudes {
+    private static final int LIMITE_MAXIMO_BANDEJA = 200;
+    private static final int LIMITE_MAXIMO_CAMBIO_MASIVO = 1000;
+
     private final RepositorioSolicitudes repositorio;
     private final RepositorioEmpleados repositorioEmpleados;
+    private final ServicioSaldosLicencias servicioSaldos;
+    private final ServicioAusencias servicioAusencias;
+    private final ApplicationEventPublisher publicadorEventos;
 
-    public ServicioSolicitudes(RepositorioSolicitudes repositorio, RepositorioEmpleados repositorioEmpleados) {
+    public ServicioSolicitudes(
+            RepositorioSolicitudes repositorio,
+            RepositorioEmpleados repositorioEmpleados,
+            ServicioSaldosLicencias servicioSaldos,
+            ServicioAusencias servicioAusencias,
+            ApplicationEventPublisher publicadorEventos
+    ) {
         this.repositorio = repositorio;
         this.repositorioEmpleados = repositorioEmpleados;
+        this.servicioSaldos = servicioSaldos;
+        this.servicioAusencias = servicioAusencias;
+        this.publicadorEventos = publicadorEventos;
     }
 
-    public List<SolicitudDTO> listarTodasParaElSupervisor(Integer dni) {
-        Empleado supervisor = repositorioEmpleados.findByDni(dni).get();
+    @Transactional(readOnly = true)
+    public Long buscarIdSectorDelEmpleado(Integer dni) {
+        return repositorioEmpleados.buscarIdSectorPorDni(dni).orElseThrow(
+                () -> new EmpleadoInexistenteException("El empleado con el dni " + dni + " no existe")
+        );
+    }
 
-        return repositorio.findAllByEmpleado_Puesto_Sector_Id(supervisor.getPuesto().getSector().getId())
-                .stream()
-                .map(SolicitudMapper::toDTO)
-                .toList();
+    @Transactional(readOnly = true)
+    public BandejaSolicitudesDTO listarTodasParaElSupervisor(
+            Integer dni,
+            String estado,
+            String tipo,
+            LocalDate desde,
+            LocalDate hasta,
+            String cursor,
+            Integer limite
+    ) {
+        Long idSector = buscarIdSectorDelEmpleado(dni);
+
+        EstadoSolicitud estadoFiltro = estado == null ? null : EstadoSolicitud.desdeString(estado);
+        TipoSolicitud tipoFiltro = tipo == null ? null : TipoSolicitud.desdeString(tipo);
+        LocalDateTime desdeFiltro = desde == null ? null : desde.atStartOfDay();
+        LocalDateTime hastaFiltro = hasta == null ? null : hasta.plusDays(1).atStartOfDay();
+
+        CursorBandeja desdeCursor = cursor == null ? null : CursorBandeja.decodificar(cursor);
+        LocalDateTime cursorFecha = desdeCursor == null ? null : desdeCursor.creadoEn();
+        Long cursorId = desdeCursor == null ? null : desdeCursor.id();
+
+        // Sin limite se devuelve la bandeja completa, como antes de paginar
+        Limit limiteConsulta = limite == null ? Limit.unlimited() : Limit.of(Math.min(Math.max(limite, 1), LIMITE_MAXIMO_BANDEJA));
+
+        List<SolicitudBandejaDTO> solicitudes = repositorio.listarBandeja(
+                idSector, estadoFiltro, tipoFiltro, desdeFiltro, hastaFiltro, cursorFecha, cursorId, limiteConsulta
+        );
+
+        Map<String, Long> cantidades = new LinkedHashMap<>();
+        for (EstadoSolicitud e : EstadoSolicitud.values()) cantidades.put(e.name(), 0L);
+        for (Object[] fila : repositorio.contarBandejaPorEstado(idSector, tipoFiltro, desdeFiltro, hastaFiltro)) {
+            cantidades.put(((EstadoSolicitud) fila[0]).name(), (Long) fila[1]);
+        }
+
+        String siguienteCursor = null;
+
+        if (limiteConsulta.isLimited() && solicitudes.size() == limiteConsulta.max()) {
+            SolicitudBandejaDTO ultima = solicitudes.get(solicitudes.size() - 1);
+            siguienteCursor = new CursorBandeja(ultima.getCreadoEn(), ultima.getId()).codificar();
+        }
+
+        return new BandejaSolicitudesDTO(solicitudes, cantidades, siguienteCursor);
     }
 
+    @Transactional(readOnly = true)
     public List<SolicitudDTO> listar(Integer dni) {
         return repositorio.findAllByEmpleado_Dni(dni)
                 .stream()
@@ -39,6 +116,7 @@ public class ServicioSolicitudes {
                 .toList();
     }
 
+    @Transactional
     public SolicitudDTO crear(SolicitudDTO dto, Integer dni) {
         Solicitud solicitud = SolicitudMapper.fromDTO(dto);
 
@@ -46,22 +124,181 @@ public class ServicioSolicitudes {
                 () -> new EmpleadoInexistenteException("El empleado con el dni " + dni + " no existe")
         );
 
+        Long idSector = empleado.getPuesto().getSector().getId();
+
+        if (solicitud.getFechaInicio() != null) completarFechas(solicitud);
+
+        servicioSaldos.validarDisponibilidad(
+                empleado.getId(), solicitud.getTipoSolicitud(), ServicioSaldosLicencias.anioImputable(solicitud), solicitud.getDuracionDias()
+        );
+
         solicitud.setEstadoSolicitud(EstadoSolicitud.PENDIENTE);
         solicitud.setEmpleado(empleado);
+        solicitud.setIdSector(idSector);
 
         repositorio.save(solicitud);
 
+        // Al final, con el id ya asignado: la reserva en el indice de ausencias se deshace si algo mas falla
+        if (solicitud.getFechaInicio() != null) {
+            servicioAusencias.reservar(solicitud.getId(), idSector, solicitud.getFechaInicio(), solicitud.getFechaFin());
+        }
+
+        publicarEvento(solicitud, SolicitudActualizadaEvento.TipoEvento.CREADA);
+
         return SolicitudMapper.toDTO(solicitud);
     }
 
-    public SolicitudDTO cambiarEstado(Long id, String estado) {
+    @Transactional
+    public SolicitudDTO cambiarEstado(Long id, String estado, Long versionEsperada) {
         Solicitud solicitud = repositorio.findById(id).orElseThrow(
                 () -> new SolicitudInexistenteException("La solicitud con el id " +  id + " no existe")
         );
 
-        solicitud.setEstadoSolicitud(EstadoSolicitud.desdeString(estado));
+        // Sin version se mantiene el comportamiento anterior; con version se rechaza si otro supervisor ya la modifico
+        if (versionEsperada != null && !versionEsperada.equals(solicitud.getVersion())) {
+            throw new SolicitudModificadaException("La solicitud con el id " + id + " fue modificada por otro usuario");
+        }
+
+        EstadoSolicitud anterior = solicitud.getEstadoSolicitud();
+        EstadoSolicitud destino = EstadoSolicitud.desdeString(estado);
+
+        // Misma regla que el cambio masivo: sin ella el saldo registraria transiciones imposibles
+        if (!anterior.puedeCambiarA(destino)) {
+            throw new TransicionSolicitudInvalidaException(
+                    "La solicitud con el id " + id + " no puede pasar de " + anterior + " a " + destino
+            );
+        }
+
+        solicitud.setEstadoSolicitud(destino);
         repositorio.save(solicitud);
+        servicioSaldos.registrarCambioDeEstado(solicitud, anterior, solicitud.getEstadoSolicitud());
+        publicarEvento(solicitud, SolicitudActualizadaEvento.TipoEvento.ACTUALIZADA);
 
         return SolicitudMapper.toDTO(solicitud);
     }
+
+    // versionesEnviadas: id de solicitud -> version que vio el supervisor, o null si no la informa
+    @Transactional
+    public ResultadoCambioMasivoDTO cambiarEstadoMasivo(Integer dni, String estado, Map<Long, Long> versionesEnviadas) {
+        EstadoSolicitud destino = EstadoSolicitud.desdeString(estado);
+
+        if (destino == EstadoSolicitud.PENDIENTE) {
+            throw new TransicionSolicitudInvalidaException("Las solicitudes no pueden volver al estado " + destino);
+        }
+
+        if (versionesEnviadas.size() > LIMITE_MAXIMO_CAMBIO_MASIVO) {
+            throw new TransicionSolicitudInvalidaException("Se pueden cambiar como máximo " + LIMITE_MAXIMO_CAMBIO_MASIVO + " solicitudes por vez");
+        }
+
+        Long idSector = buscarIdSectorDelEmpleado(dni);
+
+        Map<Long, Solicitud> actuales = new HashMap<>();
+        for (Solicitud s : repositorio.findAllByIdInAndIdSector(versionesEnviadas.keySet(), idSector)) {
+            actuales.put(s.getId(), s);
+        }
+
+        Map<Long, Long> versionesEsperadas = new LinkedHashMap<>();
+        List<Long> conflictos = new ArrayList<>();
+        List<Long> invalidas = new ArrayList<>();
+
+        for (Map.Entry<Long, Long> enviada : versionesEnviadas.entrySet()) {
+            Solicitud actual = actuales.get(enviada.getKey());
+
+            if (actual == null || !actual.getEstadoSolicitud().puedeCambiarA(destino)) {
+                invalidas.add(enviada.getKey());
+            } else if (enviada.getValue() != null && !enviada.getValue().equals(actual.getVersion())) {
+                conflictos.add(enviada.getKey());
+            } else {
+                versionesEsperadas.put(actual.getId(), actual.getVersion());
+            }
+        }
+
+        int actualizadas = repositorio.cambiarEstadoSiNoCambiaron(idSector, destino, versionesEsperadas);
+        List<Long> cambiadas = new ArrayList<>(versionesEsperadas.keySet());
+
+        // Alguna fila cambio entre la lectura y el UPDATE: se identifican por su version actual
+        if (actualizadas < versionesEsperadas.size()) {
+            cambiadas.clear();
+
+            for (Object[] fila : repositorio.listarVersiones(versionesEsperadas.keySet())) {
+                Long id = (Long) fila[0];
+                boolean aplicada = fila[1].equals(versionesEsperadas.get(id) + 1) && fila[2] == destino;
+
+                (aplicada ? cambiadas : conflictos).add(id);
+            }
+        }
+
+        Map<Long, EstadoSolicitud> anteriores = new HashMap<>();
+        cambiadas.forEach(id -> anteriores.put(id, actuales.get(id).getEstadoSolicitud()));
+        servicioSaldos.registrarCambiosDeEstado(cambiadas.stream().map(actuales::get).toList(), anteriores, destino);
+
+        for (Long id : cambiadas) {
+            Solicitud s = actuales.get(id);
+            publicadorEventos.publishEvent(new SolicitudActualizadaEvento(
+                    id, idSector, SolicitudActualizadaEvento.TipoEvento.ACTUALIZADA, s.getTipoSolicitud().name(), destino.name(),
+                    s.getFechaInicio(), s.getFechaFin()
+            ));
+        }
+
+        return new ResultadoCambioMasivoDTO(cambiadas, conflictos, invalidas);
+    }
+
+    // Marca las que siguen pendientes y avisa a los supervisores del sector por el stream de solicitudes
+    @Transactional
+    public int escalar(Collection<Long> ids) {
+        List<Solicitud> pendientes = repositorio.buscarPendientesSinEscalar(ids);
+        if (pendientes.isEmpty()) return 0;
+
+        repositorio.marcarEscaladas(pendientes.stream().map(Solicitud::getId).toList());
+        pendientes.forEach(s -> publicarEvento(s, SolicitudActualizadaEvento.TipoEvento.ESCALADA));
+
+        return pendientes.size();
+    }
+
+    private void publicarEvento(Solicitud solicitud, SolicitudActualizadaEvento.TipoEvento tipoEvento) {
+        publicadorEventos.publishEvent(new SolicitudActualizadaEvento(
+                solicitud.getId(),
+                solicitud.getIdSector(),
+                tipoEvento,
+                solicitud.getTipoSolicitud().name(),
+                solicitud.getEstadoSolicitud().name(),
+                solicitud.getFechaInicio(),
+                solicitud.getFechaFin()
+        ));
+    }
+
+    // La ausencia ocupa duracionDias dias corridos desde fechaInicio, ambos extremos incluidos
+    private void completarFechas(Solicitud solicitud) {
+        if (solicitud.getFechaInicio().isBefore(LocalDate.now())) {
+            throw new FechasSolicitudInvalidasException("La fecha de inicio no puede ser anterior a hoy");
+        }
+
+        LocalDate fechaFin = solicitud.getFechaInicio().plusDays(solicitud.getDuracionDias() - 1);
+
+        if (solicitud.getFechaFin() != null && !solicitud.getFechaFin().equals(fechaFin)) {
+            throw new FechasSolicitudInvalidasException(
+                    "Una solicitud de " + solicitud.getDuracionDias() + " días que empieza el " + solicitud.getFechaInicio() + " termina el " + fechaFin
+            );
+        }
+
+        solicitud.setFechaFin(fechaFin);
+    }
+
+    // Ultima fila de una pagina de la bandeja, como "creadoEn_id"
+    record CursorBandeja(LocalDateTime creadoEn, Long id) {
+        String codificar() {
+            return creadoEn + "_" + id;
+        }
+
+        static CursorBandeja decodificar(String cursor) {
+            String[] partes = cursor.split("_", -1);
+
+            try {
+                if (partes.length != 2) throw new IllegalArgumentException();
+                return new CursorBandeja(LocalDateTime.parse(partes[0]), Long.valueOf(partes[1]));
+            } catch (RuntimeException e) {
+                throw new CursorInvalidoException("El cursor " + cursor + " es inválido");
+            }
+        }
+    }
 }
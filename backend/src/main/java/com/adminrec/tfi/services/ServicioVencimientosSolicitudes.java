@@ -0,0 +1,132 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.interfaces.RepositorioSolicitudes;
+import com.adminrec.tfi.util.RuedaTemporizadores;
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.events.SolicitudActualizadaEvento;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Plazo de respuesta de las solicitudes pendientes. Los vencimientos viven en una rueda de temporizadores
+// en memoria, asi cada tick cuesta O(1) en lugar de consultar la tabla entera buscando vencidas
+@Service
+public class ServicioVencimientosSolicitudes {
+    private static final Logger log = LoggerFactory.getLogger(ServicioVencimientosSolicitudes.class);
+    private static final long TICK_MS = 1000;
+
+    private final ServicioSolicitudes servicioSolicitudes;
+    private final RepositorioSolicitudes repositorioSolicitudes;
+    private final Duration plazoPendiente;
+    private final long refrescoPendientesMs;
+    private final RuedaTemporizadores<Long> rueda = new RuedaTemporizadores<>(TICK_MS, System.currentTimeMillis());
+    private final Counter escaladas;
+    private final AtomicLong pendientes = new AtomicLong();
+    private final AtomicBoolean pendientesDesactualizadas = new AtomicBoolean(true);
+    private volatile long proximoRecuento;
+
+    public ServicioVencimientosSolicitudes(
+            ServicioSolicitudes servicioSolicitudes,
+            RepositorioSolicitudes repositorioSolicitudes,
+            @Value("${solicitudes.sla.plazo-pendiente:48h}") Duration plazoPendiente,
+            @Value("${solicitudes.sla.refresco-pendientes:60s}") Duration refrescoPendientes,
+            MeterRegistry registry
+    ) {
+        this.servicioSolicitudes = servicioSolicitudes;
+        this.repositorioSolicitudes = repositorioSolicitudes;
+        this.plazoPendiente = plazoPendiente;
+        this.refrescoPendientesMs = refrescoPendientes.toMillis();
+        this.escaladas = Counter.builder("tfi.solicitudes.escaladas")
+                .description("Solicitudes que vencieron su plazo estando pendientes")
+                .register(registry);
+
+        // Las pendientes dentro del plazo son las que estan en la rueda y no cuestan nada. El total sale de la base,
+        // pero lo recuenta el tick y no cada lectura de las metricas: cuando cambio alguna solicitud, o cada
+        // refresco-pendientes para recoger los cambios que no publican evento (archivado, borrados)
+        Gauge.builder("tfi.solicitudes.pendientes.en.plazo", rueda, RuedaTemporizadores::cantidad)
+                .description("Solicitudes pendientes que todavia no vencieron su plazo")
+                .register(registry);
+        Gauge.builder("tfi.solicitudes.pendientes", pendientes, AtomicLong::get)
+                .description("Solicitudes pendientes, escaladas o no")
+                .register(registry);
+    }
+
+    // Las pendientes ya vencidas durante un reinicio se escalan en el primer tick
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        for (Object[] fila : repositorioSolicitudes.listarPendientesSinEscalar()) {
+            LocalDateTime creadoEn = (LocalDateTime) fila[1];
+            rueda.programar((Long) fila[0], aMilisegundos(creadoEn.plus(plazoPendiente)));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void actualizar(SolicitudActualizadaEvento evento) {
+        pendientesDesactualizadas.set(true);
+
+        switch (evento.tipoEvento()) {
+            case CREADA -> rueda.programar(evento.idSolicitud(), System.currentTimeMillis() + plazoPendiente.toMillis());
+            case ACTUALIZADA -> {
+                if (EstadoSolicitud.desdeString(evento.estadoSolicitud()) != EstadoSolicitud.PENDIENTE) {
+                    rueda.cancelar(evento.idSolicitud());
+                }
+            }
+            case ESCALADA -> {}
+        }
+    }
+
+    @Scheduled(fixedDelay = TICK_MS)
+    public void avanzar() {
+        long ahora = System.currentTimeMillis();
+        List<Long> vencidas = rueda.avanzar(ahora);
+
+        recontarPendientes(ahora);
+
+        if (vencidas.isEmpty()) return;
+
+        try {
+            servicioSolicitudes.escalar(vencidas);
+            escaladas.increment(vencidas.size());
+        } catch (RuntimeException e) {
+            // La rueda ya las quito: si no se vuelven a programar no se escalarian hasta el proximo reinicio
+            log.warn("No se pudieron escalar {} solicitudes vencidas, se reintenta en el proximo tick", vencidas.size(), e);
+            vencidas.forEach(id -> rueda.programar(id, ahora + TICK_MS));
+        }
+    }
+
+    // Un solo conteo por tick aunque en ese segundo hayan cambiado muchas solicitudes
+    private void recontarPendientes(long ahora) {
+        if (!pendientesDesactualizadas.getAndSet(false) && ahora < proximoRecuento) return;
+
+        try {
+            pendientes.set(repositorioSolicitudes.countByEstadoSolicitudAndBorradoEnIsNull(EstadoSolicitud.PENDIENTE));
+            proximoRecuento = ahora + refrescoPendientesMs;
+        } catch (RuntimeException e) {
+            pendientesDesactualizadas.set(true);
+            log.warn("No se pudieron contar las solicitudes pendientes, se reintenta en el proximo tick", e);
+        }
+    }
+
+    public int cantidadProgramadas() {
+        return rueda.cantidad();
+    }
+
+    private long aMilisegundos(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -5,30 +5,45 @@ import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
+    // Los tokens del stream SSE llevan uso=stream: viajan en la URL, asi que solo sirven para abrir el stream
+    public static final String CLAIM_USO = "uso";
+    public static final String USO_STREAM = "stream";
+
     private final Key key;
     private final long EXPIRATION_MS = 1000L * 60 * 60; // 1h
+    private final Timer verificacionValida;
+    private final Timer verificacionInvalida;
 
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
+    public JwtUtil(@Value("${jwt.secret}") String secret, MeterRegistry registry) {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.verificacionValida = temporizadorVerificacion(registry, "valido");
+        this.verificacionInvalida = temporizadorVerificacion(registry, "invalido");
     }
 
     public String generateToken(String subject, Map<String, Object> claims) {
+        return generateToken(subject, claims, EXPIRATION_MS);
+    }
+
+    public String generateToken(String subject, Map<String, Object> claims, long expirationMs) {
         long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(now))
-                .setExpiration(new Date(now + EXPIRATION_MS))
+                .setExpiration(new Date(now + expirationMs))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
@@ -54,12 +69,24 @@ public class JwtUtil {
         return extractClaim(token, Claims::getSubject);
     }
 
+    // Se verifica en cada peticion autenticada, asi que se mide aparte segun el resultado (tfi.jwt.verificacion)
     public boolean isTokenValid(String token) {
+        long inicio = System.nanoTime();
+
         try {
             Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+            verificacionValida.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
+            verificacionInvalida.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
             return false;
         }
     }
+
+    private static Timer temporizadorVerificacion(MeterRegistry registry, String resultado) {
+        return Timer.builder("tfi.jwt.verificacion")
+                .description("Duracion de la verificacion de la firma de los tokens")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
 }
@@ -0,0 +1,63 @@
+package com.adminrec.tfi.util;
+
+import com.adminrec.tfi.exceptions.PaginacionInvalidaException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Map;
+
+// Arma el Pageable de los listados a partir de los parametros de la request. Sin pagina se devuelve
+// el listado completo, como antes de paginar
+public class Paginacion {
+    public static final int TAMANO_POR_DEFECTO = 20;
+    public static final int TAMANO_MAXIMO = 200;
+
+    // camposPermitidos: nombre del parametro -> propiedad de la entidad por la que se ordena
+    public static Pageable crear(
+            Integer pagina,
+            Integer tamano,
+            String orden,
+            String direccion,
+            Map<String, String> camposPermitidos,
+            String ordenPorDefecto
+    ) {
+        String campo = orden == null ? ordenPorDefecto : orden;
+        String propiedad = camposPermitidos.get(campo);
+
+        if (propiedad == null) {
+            throw new PaginacionInvalidaException("No se puede ordenar por " + campo + ". Valores posibles: " + camposPermitidos.keySet());
+        }
+
+        Sort.Direction sentido;
+
+        try {
+            sentido = direccion == null ? Sort.Direction.ASC : Sort.Direction.fromString(direccion);
+        } catch (IllegalArgumentException e) {
+            throw new PaginacionInvalidaException("La dirección " + direccion + " es inválida. Valores posibles: asc, desc");
+        }
+
+        // El id desempata para que las paginas no repitan ni salteen filas
+        Sort sort = Sort.by(sentido, propiedad).and(Sort.by("id"));
+
+        if (pagina == null) return Pageable.unpaged(sort);
+
+        if (pagina < 0) {
+            throw new PaginacionInvalidaException("La página debe ser mayor o igual a 0");
+        }
+
+        int tamanoPagina = tamano == null ? TAMANO_POR_DEFECTO : Math.min(Math.max(tamano, 1), TAMANO_MAXIMO);
+
+        return PageRequest.of(pagina, tamanoPagina, sort);
+    }
+
+    public static void agregarMetadatos(Map<String, Object> response, Page<?> resultado) {
+        if (resultado.getPageable().isUnpaged()) return;
+
+        response.put("pagina", resultado.getNumber());
+        response.put("tamano", resultado.getSize());
+        response.put("totalElementos", resultado.getTotalElements());
+        response.put("totalPaginas", resultado.getTotalPages());
+    }
+}
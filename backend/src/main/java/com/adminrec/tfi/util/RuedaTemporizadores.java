@@ -0,0 +1,113 @@
+package com.adminrec.tfi.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Rueda de temporizadores jerarquica: NIVELES ruedas de RANURAS ranuras, donde cada ranura del nivel N
+// abarca RANURAS^N ticks. Programar y cancelar son O(1) y cada tick solo procesa su ranura; al completar
+// una vuelta, la ranura correspondiente del nivel superior se redistribuye en los niveles inferiores
+public class RuedaTemporizadores<K> {
+    private static final int BITS_POR_NIVEL = 6;
+    private static final int RANURAS = 1 << BITS_POR_NIVEL;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 4;
+
+    private final long tickMs;
+    private final ArrayDeque<Entrada<K>>[][] ranuras;
+    private final Map<K, Entrada<K>> programadas = new HashMap<>();
+    private final ArrayDeque<Entrada<K>> vencidas = new ArrayDeque<>();
+    private long tickActual;
+
+    private record Entrada<K>(K clave, long tick) {}
+
+    @SuppressWarnings("unchecked")
+    public RuedaTemporizadores(long tickMs, long ahoraMs) {
+        this.tickMs = tickMs;
+        this.tickActual = ahoraMs / tickMs;
+        this.ranuras = (ArrayDeque<Entrada<K>>[][]) new ArrayDeque<?>[NIVELES][RANURAS];
+
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            for (int ranura = 0; ranura < RANURAS; ranura++) {
+                ranuras[nivel][ranura] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    // Reprogramar una clave reemplaza su vencimiento anterior
+    public synchronized void programar(K clave, long vencimientoMs) {
+        Entrada<K> entrada = new Entrada<>(clave, Math.ceilDiv(vencimientoMs, tickMs));
+        programadas.put(clave, entrada);
+        ubicar(entrada);
+    }
+
+    // La entrada queda en su ranura y se descarta al llegar su tick
+    public synchronized void cancelar(K clave) {
+        programadas.remove(clave);
+    }
+
+    public synchronized int cantidad() {
+        return programadas.size();
+    }
+
+    // Avanza hasta ahoraMs y devuelve las claves vencidas en el camino
+    public synchronized List<K> avanzar(long ahoraMs) {
+        long tickDestino = ahoraMs / tickMs;
+
+        while (tickActual < tickDestino) {
+            tickActual++;
+
+            for (int nivel = NIVELES - 1; nivel > 0; nivel--) {
+                if ((tickActual & ((1L << (BITS_POR_NIVEL * nivel)) - 1)) == 0) {
+                    redistribuir(ranuras[nivel][(int) (tickActual >>> (BITS_POR_NIVEL * nivel)) & MASCARA]);
+                }
+            }
+
+            vencidas.addAll(ranuras[0][(int) tickActual & MASCARA]);
+            ranuras[0][(int) tickActual & MASCARA].clear();
+        }
+
+        List<K> claves = new ArrayList<>();
+
+        for (Entrada<K> entrada : vencidas) {
+            // Solo cuenta si sigue siendo la programacion vigente de la clave
+            if (programadas.remove(entrada.clave(), entrada)) claves.add(entrada.clave());
+        }
+
+        vencidas.clear();
+        return claves;
+    }
+
+    private void redistribuir(ArrayDeque<Entrada<K>> ranura) {
+        List<Entrada<K>> entradas = new ArrayList<>(ranura);
+        ranura.clear();
+
+        for (Entrada<K> entrada : entradas) {
+            if (programadas.get(entrada.clave()) == entrada) ubicar(entrada);
+        }
+    }
+
+    // Va en el nivel mas bajo donde le faltan menos de RANURAS ranuras, asi su ranura se redistribuye
+    // (o vence) justo al llegar a ella; si excede la rueda entera, va en la ultima ranura del nivel
+    // superior y se reubica cuando esa ranura se redistribuya
+    private void ubicar(Entrada<K> entrada) {
+        if (entrada.tick() <= tickActual) {
+            vencidas.add(entrada);
+            return;
+        }
+
+        for (int nivel = 0; nivel < NIVELES; nivel++) {
+            int desplazamiento = BITS_POR_NIVEL * nivel;
+
+            if ((entrada.tick() >>> desplazamiento) - (tickActual >>> desplazamiento) < RANURAS) {
+                ranuras[nivel][(int) (entrada.tick() >>> desplazamiento) & MASCARA].add(entrada);
+                return;
+            }
+        }
+
+        int ultimaRanura = ((int) (tickActual >>> (BITS_POR_NIVEL * (NIVELES - 1))) - 1) & MASCARA;
+        ranuras[NIVELES - 1][ultimaRanura].add(entrada);
+    }
+}
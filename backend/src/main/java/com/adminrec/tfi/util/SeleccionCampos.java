@@ -0,0 +1,66 @@
+package com.adminrec.tfi.util;
+
+import com.adminrec.tfi.exceptions.CamposInvalidosException;
+import com.adminrec.tfi.util.enums.Rol;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+// Resuelve que columnas devuelve un listado a partir de los parametros vista= y fields= (lista separada
+// por comas). Cada rol tiene una vista maxima y nunca se devuelven campos fuera de ella
+public class SeleccionCampos {
+    private static final List<Rol> ROLES_DE_MAYOR_A_MENOR = List.of(Rol.ADMIN, Rol.SUPERVISOR, Rol.EMPLOYEE);
+
+    // vistas: nombre de la vista -> campos que incluye, en el orden en que se devuelven
+    public static List<String> resolver(String fields, String vista, Map<String, List<String>> vistas, String vistaMaxima) {
+        List<String> permitidos = vistas.get(vistaMaxima);
+        List<String> base = permitidos;
+
+        if (vista != null) {
+            base = vistas.get(vista);
+
+            if (base == null) {
+                throw new CamposInvalidosException("La vista " + vista + " no existe. Valores posibles: " + vistas.keySet());
+            }
+            if (!permitidos.containsAll(base)) {
+                throw new CamposInvalidosException("La vista " + vista + " no está disponible para el rol del usuario");
+            }
+        }
+
+        if (fields == null || fields.isBlank()) return base;
+
+        // El id siempre se incluye para que el cliente pueda identificar cada fila
+        LinkedHashSet<String> campos = new LinkedHashSet<>();
+        campos.add("id");
+
+        for (String campo : fields.split(",")) {
+            String nombre = campo.trim();
+            if (nombre.isEmpty()) continue;
+
+            if (!permitidos.contains(nombre)) {
+                throw new CamposInvalidosException("El campo " + nombre + " no está disponible. Valores posibles: " + permitidos);
+            }
+
+            campos.add(nombre);
+        }
+
+        return List.copyOf(campos);
+    }
+
+    // La vista del rol mas amplio que tenga el usuario autenticado
+    public static String vistaDelUsuario(Map<Rol, String> vistaPorRol) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        for (Rol rol : ROLES_DE_MAYOR_A_MENOR) {
+            boolean tieneRol = auth != null && auth.getAuthorities().stream()
+                    .anyMatch(a -> a.getAuthority().equals("ROLE_" + rol.name()));
+
+            if (tieneRol && vistaPorRol.containsKey(rol)) return vistaPorRol.get(rol);
+        }
+
+        throw new CamposInvalidosException("El rol del usuario no tiene una vista definida");
+    }
+}
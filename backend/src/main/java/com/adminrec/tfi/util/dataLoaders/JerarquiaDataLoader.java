@@ -0,0 +1,23 @@
+package com.adminrec.tfi.util.dataLoaders;
+
+import com.adminrec.tfi.services.ServicioJerarquia;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(7)
+public class JerarquiaDataLoader implements CommandLineRunner {
+    private final ServicioJerarquia servicioJerarquia;
+
+    public JerarquiaDataLoader(ServicioJerarquia servicioJerarquia) {
+        this.servicioJerarquia = servicioJerarquia;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (servicioJerarquia.estaDesactualizada()) {
+            servicioJerarquia.reconstruir();
+        }
+    }
+}
@@ -6,57 +6,104 @@ import com.adminrec.tfi.interfaces.RepositorioEmpleados;
 import com.adminrec.tfi.interfaces.RepositorioSolicitudes;
 import com.adminrec.tfi.util.enums.EstadoSolicitud;
 import com.adminrec.tfi.util.enums.TipoSolicitud;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 @Component
 @Order(6)
 public class SolicitudesDataLoader implements CommandLineRunner {
+    private static final int INTENTOS_POR_SOLICITUD = 5;
+
     private final RepositorioSolicitudes repositorioSolicitudes;
     private final RepositorioEmpleados repositorioEmpleados;
+    private final int maximoPorSector;
     private final Random random = new Random();
+    // Ausentes por sector y dia (epoch day) entre las solicitudes generadas, para no pasar el maximo del sector
+    private final Map<Long, Map<Long, Integer>> ocupacion = new HashMap<>();
 
     public SolicitudesDataLoader(
             RepositorioSolicitudes repositorioSolicitudes,
-            RepositorioEmpleados repositorioEmpleados
+            RepositorioEmpleados repositorioEmpleados,
+            @Value("${solicitudes.ausencias.maximo-por-sector:0}") int maximoPorSector
     ) {
         this.repositorioSolicitudes = repositorioSolicitudes;
         this.repositorioEmpleados = repositorioEmpleados;
+        this.maximoPorSector = maximoPorSector;
     }
 
     @Override
     public void run(String... args) {
-        if (repositorioSolicitudes.count() > 0) return;
+        if (repositorioSolicitudes.count() == 0) {
+            List<Empleado> empleados = repositorioEmpleados.findAll();
 
-        List<Empleado> empleados = repositorioEmpleados.findAll();
+            empleados.stream()
+                    .filter(empleado -> !empleado.isEsSupervisorDeSector())
+                    .forEach(this::generarSolicitudesAleatorias);
+        }
 
-        empleados.stream()
-                .filter(empleado -> !empleado.isEsSupervisorDeSector())
-                .forEach(this::generarSolicitudesAleatorias);
+        // Tanto las solicitudes generadas como las previas a la columna id_sector se completan en una sola sentencia
+        repositorioSolicitudes.completarSectoresFaltantes();
     }
 
     private void generarSolicitudesAleatorias(Empleado empleado) {
         int cantidad = 1 + random.nextInt(3);
+        Long idSector = repositorioEmpleados.buscarIdSectorPorId(empleado.getId()).orElseThrow();
 
         for (int i = 0; i < cantidad; i++) {
             Solicitud solicitud = new Solicitud();
             solicitud.setEmpleado(empleado);
+            solicitud.setIdSector(idSector);
 
             TipoSolicitud tipo = TipoSolicitud.values()[random.nextInt(TipoSolicitud.values().length)];
             solicitud.setTipoSolicitud(tipo);
-
             solicitud.setDuracionDias(generarDuracion(tipo));
             solicitud.setMotivo(generarMotivo(tipo));
 
+            // Estas solicitudes no pasan por la validacion de capacidad, asi que se buscan fechas con lugar en el
+            // sector; si no aparecen en unos pocos intentos la solicitud no se genera
+            if (!asignarFechasConLugar(solicitud, idSector)) continue;
+
             solicitud.setEstadoSolicitud(EstadoSolicitud.PENDIENTE);
             repositorioSolicitudes.save(solicitud);
         }
     }
 
+    private boolean asignarFechasConLugar(Solicitud solicitud, Long idSector) {
+        Map<Long, Integer> delSector = ocupacion.computeIfAbsent(idSector, id -> new HashMap<>());
+
+        for (int intento = 0; intento < INTENTOS_POR_SOLICITUD; intento++) {
+            long inicio = LocalDate.now().plusDays(1 + random.nextInt(60)).toEpochDay();
+            long fin = inicio + solicitud.getDuracionDias() - 1;
+
+            if (maximoPorSector > 0 && !hayLugar(delSector, inicio, fin)) continue;
+
+            for (long dia = inicio; dia <= fin; dia++) delSector.merge(dia, 1, Integer::sum);
+
+            solicitud.setFechaInicio(LocalDate.ofEpochDay(inicio));
+            solicitud.setFechaFin(LocalDate.ofEpochDay(fin));
+
+            return true;
+        }
+
+        return false;
+    }
+
+    private boolean hayLugar(Map<Long, Integer> delSector, long inicio, long fin) {
+        for (long dia = inicio; dia <= fin; dia++) {
+            if (delSector.getOrDefault(dia, 0) >= maximoPorSector) return false;
+        }
+
+        return true;
+    }
+
     private int generarDuracion(TipoSolicitud tipo) {
         return switch (tipo) {
             case VACACIONES -> 7 + random.nextInt(8);
@@ -0,0 +1,21 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AjusteValorHoraDTO {
+    // PORCENTAJE o ABSOLUTO
+    @NotBlank(message = "El tipo de ajuste es obligatorio")
+    private String tipo;
+    // Porcentaje (10 = +10%) o monto a sumar al valor hora; puede ser negativo
+    @NotNull(message = "El valor del ajuste es obligatorio")
+    private Double valor;
+    // Nulo para ajustar todos los puestos activos
+    private Long idSector;
+}
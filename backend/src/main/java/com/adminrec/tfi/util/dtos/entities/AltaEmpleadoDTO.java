@@ -0,0 +1,19 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AltaEmpleadoDTO {
+    @Valid
+    @NotNull(message = "Los datos del empleado son obligatorios")
+    private EmpleadoDTO empleado;
+    @NotBlank(message = "La contraseña es obligatoria")
+    private String contrasena;
+}
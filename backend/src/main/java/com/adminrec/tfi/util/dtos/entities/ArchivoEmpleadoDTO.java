@@ -0,0 +1,17 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchivoEmpleadoDTO {
+    private EmpleadoArchivadoDTO empleado;
+    private List<AsistenciaDTO> asistencias;
+    private List<SolicitudDTO> solicitudes;
+    private List<IngresoEgresoDTO> ingresosEgresos;
+}
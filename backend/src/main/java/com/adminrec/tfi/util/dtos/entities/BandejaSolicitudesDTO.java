@@ -0,0 +1,18 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BandejaSolicitudesDTO {
+    private List<SolicitudBandejaDTO> solicitudes;
+    private Map<String, Long> cantidadesPorEstado;
+    // Null cuando no quedan mas paginas
+    private String siguienteCursor;
+}
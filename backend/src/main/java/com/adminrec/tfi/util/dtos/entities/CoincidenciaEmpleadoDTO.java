@@ -0,0 +1,18 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Resultado de la busqueda del directorio; puntaje mayor indica mejor coincidencia
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CoincidenciaEmpleadoDTO {
+    private Long id;
+    private String apellido;
+    private String nombre;
+    private Integer dni;
+    private String correo;
+    private Integer puntaje;
+}
@@ -0,0 +1,31 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import com.adminrec.tfi.util.enums.EstadoPlanConsulta;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsultaLentaDTO {
+    private Long id;
+    private LocalDateTime fecha;
+    private Long duracionMs;
+    private String sql;
+    private List<String> parametros;
+    // Metodo HTTP y URL de la peticion, o null si la sentencia corrio fuera de una
+    private String endpoint;
+    private String hilo;
+    // Primer metodo de la aplicacion en la pila, y el metodo del repositorio si la consulta salio de uno
+    private String origen;
+    private String metodoRepositorio;
+    private EstadoPlanConsulta estadoPlan;
+    // Filas devueltas por EXPLAIN, con las columnas que use el motor
+    private List<Map<String, Object>> plan;
+    private String errorPlan;
+}
@@ -0,0 +1,15 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConsultaPuestoEnFechaDTO {
+    private Long idEmpleado;
+    private LocalDate fecha;
+}
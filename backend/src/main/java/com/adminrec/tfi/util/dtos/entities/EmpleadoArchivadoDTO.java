@@ -0,0 +1,28 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmpleadoArchivadoDTO {
+    private Long id;
+    private String apellido;
+    private String nombre;
+    private Integer dni;
+    private String correo;
+    private String domicilio;
+    private LocalDate fechaNacimiento;
+    private LocalDate fechaContratacion;
+    private String telefono;
+    private Long idPuesto;
+    // Nulo si el puesto ya no existe
+    private String nombrePuesto;
+    private LocalDateTime borradoEn;
+    private LocalDateTime archivadoEn;
+}
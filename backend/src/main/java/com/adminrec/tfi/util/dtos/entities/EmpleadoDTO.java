@@ -53,4 +53,28 @@ public class EmpleadoDTO {
     @NotNull
     private PuestoDTO puesto;
     //private EmpleadoDTO supervisor;
+
+    // Usado por las consultas de solo lectura, que traen empleado, puesto y sector en una sola fila
+    public EmpleadoDTO(
+            Long id,
+            String apellido,
+            String nombre,
+            Integer dni,
+            String correo,
+            String domicilio,
+            LocalDate fechaNacimiento,
+            LocalDate fechaContratacion,
+            String telefono,
+            Long idPuesto,
+            String nombrePuesto,
+            Double valorHora,
+            Double horasMinimasTrabajoDiario,
+            Long idSector,
+            String nombreSector
+    ) {
+        this(
+                id, apellido, nombre, dni, correo, domicilio, fechaNacimiento, fechaContratacion, telefono,
+                new PuestoDTO(idPuesto, nombrePuesto, valorHora, horasMinimasTrabajoDiario, idSector, nombreSector)
+        );
+    }
 }
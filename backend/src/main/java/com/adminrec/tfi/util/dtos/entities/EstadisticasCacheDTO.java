@@ -0,0 +1,18 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstadisticasCacheDTO {
+    private List<EstadisticasRegionCacheDTO> regiones;
+    // Veces que cada entidad cacheada se tuvo que leer de la base; deberia dejar de crecer con la cache caliente
+    private Map<String, Long> cargasDesdeBase;
+    private Long vaciadosExplicitos;
+}
@@ -0,0 +1,23 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstadisticasEndpointSqlDTO {
+    // Metodo HTTP y patron de la ruta, por ejemplo "GET /api/sectors/{id}"
+    private String endpoint;
+    private Long peticiones;
+    private Long sentencias;
+    private Double promedioSentencias;
+    private Long maximoSentencias;
+    private Long filas;
+    private Double tiempoJdbcMs;
+    private Double promedioTiempoJdbcMs;
+    private Long peticionesConNMasUno;
+    // Ultima sentencia que se repitio por encima del umbral en este endpoint
+    private String ultimaFormaRepetida;
+}
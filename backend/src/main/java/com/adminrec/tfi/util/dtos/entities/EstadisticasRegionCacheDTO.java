@@ -0,0 +1,19 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstadisticasRegionCacheDTO {
+    private String region;
+    private Long aciertos;
+    private Long fallos;
+    private Long escrituras;
+    // Entradas descartadas por tamano o vencimiento
+    private Long expulsiones;
+    private Long elementos;
+    private Double tasaAciertos;
+}
@@ -0,0 +1,17 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FilaAltaMasivaDTO {
+    // Numero de fila dentro del archivo o del arreglo, empezando en 1
+    private Integer fila;
+    private Integer dni;
+    private String estado;
+    private String mensaje;
+    private Long idEmpleado;
+}
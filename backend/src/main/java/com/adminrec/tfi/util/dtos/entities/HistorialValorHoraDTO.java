@@ -0,0 +1,18 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HistorialValorHoraDTO {
+    private Long id;
+    private Long idPuesto;
+    private Double valorHora;
+    private LocalDate vigenteDesde;
+    private LocalDate vigenteHasta;
+}
@@ -0,0 +1,16 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class NodoJerarquiaDTO {
+    private Long id;
+    private String apellido;
+    private String nombre;
+    private Integer dni;
+    private Integer profundidad;
+}
@@ -25,4 +25,16 @@ public class PuestoDTO {
     @NotNull(message = "El puesto debe tener un mínimo de horas laborales diarias")
     @Size(min = 2, max = 8, message = "El mínimo de horas laborales diarias debe estar entre 2 y 8 horas")
     private Double horasMinimasTrabajoDiario;
+
+    // Usado por las consultas de solo lectura, que traen puesto y sector en una sola fila
+    public PuestoDTO(
+            Long id,
+            String nombre,
+            Double valorHora,
+            Double horasMinimasTrabajoDiario,
+            Long idSector,
+            String nombreSector
+    ) {
+        this(id, nombre, new SectorDTO(idSector, nombreSector), valorHora, horasMinimasTrabajoDiario);
+    }
 }
\ No newline at end of file
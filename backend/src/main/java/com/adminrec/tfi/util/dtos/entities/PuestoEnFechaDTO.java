@@ -0,0 +1,21 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PuestoEnFechaDTO {
+    private Long idEmpleado;
+    private LocalDate fecha;
+    // Nulos si el empleado no tenia puesto en esa fecha
+    private Long idIngresoEgreso;
+    private Long idPuesto;
+    private String nombrePuesto;
+    // Valor hora vigente del puesto en esa fecha, no el actual
+    private Double valorHora;
+}
@@ -0,0 +1,21 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PuntoDotacionDTO {
+    // Primer dia del periodo (el dia o el mes)
+    private LocalDate periodo;
+    // Empleados en el sector al cierre del periodo
+    private Integer dotacion;
+    private Integer altas;
+    private Integer bajas;
+    private Integer transferenciasEntrada;
+    private Integer transferenciasSalida;
+}
@@ -0,0 +1,18 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoAjusteValorHoraDTO {
+    private Integer puestosAjustados;
+    // Suma de los valores hora de los puestos ajustados, antes y despues del ajuste
+    private Double totalAnterior;
+    private Double totalPosterior;
+    private LocalDate vigenteDesde;
+}
@@ -0,0 +1,18 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoCambioMasivoDTO {
+    private List<Long> cambiadas;
+    // Modificadas por otro usuario desde la version enviada, o durante la actualizacion
+    private List<Long> conflictos;
+    // Inexistentes, de otro sector o cuya transicion no esta permitida
+    private List<Long> invalidas;
+}
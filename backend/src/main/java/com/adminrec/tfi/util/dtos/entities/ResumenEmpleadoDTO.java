@@ -0,0 +1,15 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResumenEmpleadoDTO {
+    private Long id;
+    private String apellido;
+    private String nombre;
+    private Integer dni;
+}
@@ -0,0 +1,16 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SaldoLicenciaDTO {
+    private String tipoSolicitud;
+    private Integer anio;
+    private Integer diasUsados;
+    private Integer diasAnuales;
+    private Integer diasDisponibles;
+}
@@ -0,0 +1,16 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SerieDotacionDTO {
+    private Long idSector;
+    private String nombreSector;
+    private List<PuntoDotacionDTO> puntos;
+}
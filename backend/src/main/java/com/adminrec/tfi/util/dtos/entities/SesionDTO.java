@@ -0,0 +1,16 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import com.adminrec.tfi.util.enums.Rol;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SesionDTO {
+    private Integer dni;
+    private Rol rol;
+    private String apellido;
+    private String nombre;
+}
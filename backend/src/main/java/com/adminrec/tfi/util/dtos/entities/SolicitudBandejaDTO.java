@@ -0,0 +1,57 @@
+package com.adminrec.tfi.util.dtos.entities;
+
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.enums.TipoSolicitud;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Fila de la bandeja de solicitudes del supervisor, armada directamente por la consulta
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SolicitudBandejaDTO {
+    private Long id;
+    private String tipoSolicitud;
+    private Integer duracionDias;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
+    private String motivo;
+    private String estadoSolicitud;
+    private LocalDateTime creadoEn;
+    private Long version;
+    private LocalDateTime escaladaEn;
+    private ResumenEmpleadoDTO empleado;
+
+    public SolicitudBandejaDTO(
+            Long id,
+            TipoSolicitud tipoSolicitud,
+            Integer duracionDias,
+            LocalDate fechaInicio,
+            LocalDate fechaFin,
+            String motivo,
+            EstadoSolicitud estadoSolicitud,
+            LocalDateTime creadoEn,
+            Long version,
+            LocalDateTime escaladaEn,
+            Long idEmpleado,
+            String apellido,
+            String nombre,
+            Integer dni
+    ) {
+        this.id = id;
+        this.tipoSolicitud = tipoSolicitud.name();
+        this.duracionDias = duracionDias;
+        this.fechaInicio = fechaInicio;
+        this.fechaFin = fechaFin;
+        this.motivo = motivo;
+        this.estadoSolicitud = estadoSolicitud.name();
+        this.creadoEn = creadoEn;
+        this.version = version;
+        this.escaladaEn = escaladaEn;
+        this.empleado = new ResumenEmpleadoDTO(idEmpleado, apellido, nombre, dni);
+    }
+}
@@ -7,6 +7,9 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -18,10 +21,14 @@ public class SolicitudDTO {
     @NotBlank(message = "La solicitud debe tener una duración en días")
     @Size(max = 30, message = "La solicitud puede ser para un máximo de 30 días")
     private Integer duracionDias;
+    private LocalDate fechaInicio;
+    private LocalDate fechaFin;
     @NotBlank(message = "La solicitud debe tener un motivo")
     private String motivo;
     @NotBlank
     private String estadoSolicitud;
     @NotNull
     private EmpleadoDTO empleado;
+    private Long version;
+    private LocalDateTime escaladaEn;
 }
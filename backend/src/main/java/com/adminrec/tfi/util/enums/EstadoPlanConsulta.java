@@ -0,0 +1,9 @@
+package com.adminrec.tfi.util.enums;
+
+public enum EstadoPlanConsulta {
+    PENDIENTE,
+    LISTO,
+    ERROR,
+    // No es una consulta, o la cola de EXPLAIN estaba llena
+    OMITIDO
+}
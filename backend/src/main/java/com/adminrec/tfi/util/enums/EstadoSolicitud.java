@@ -15,6 +15,11 @@ public enum EstadoSolicitud {
         return this.name().equalsIgnoreCase(estado);
     }
 
+    // Una decision puede revisarse, pero ninguna solicitud vuelve a quedar pendiente
+    public boolean puedeCambiarA(EstadoSolicitud destino) {
+        return this != destino && destino != PENDIENTE;
+    }
+
     public static EstadoSolicitud desdeString(String estado) {
         if (estado == null) throw new IllegalArgumentException("Se debe ingresar un estado de solicitud válido " + estado);
         return Arrays.stream(EstadoSolicitud.values())
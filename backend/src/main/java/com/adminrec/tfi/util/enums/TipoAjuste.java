@@ -0,0 +1,23 @@
+package com.adminrec.tfi.util.enums;
+
+import com.adminrec.tfi.exceptions.AjusteValorHoraInvalidoException;
+
+import java.util.Arrays;
+
+public enum TipoAjuste {
+    PORCENTAJE,
+    ABSOLUTO;
+
+    public boolean esValido(String tipoAjuste) {
+        if (tipoAjuste == null) return false;
+        return this.name().equalsIgnoreCase(tipoAjuste);
+    }
+
+    public static TipoAjuste desdeString(String tipoAjuste) {
+        if (tipoAjuste == null) throw new AjusteValorHoraInvalidoException("Se debe ingresar un tipo de ajuste válido");
+        return Arrays.stream(TipoAjuste.values())
+                .filter(ta -> ta.esValido(tipoAjuste))
+                .findFirst()
+                .orElseThrow(() -> new AjusteValorHoraInvalidoException("El tipo de ajuste " + tipoAjuste + " es inválido"));
+    }
+}
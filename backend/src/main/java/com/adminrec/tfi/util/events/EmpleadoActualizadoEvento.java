@@ -0,0 +1,11 @@
+package com.adminrec.tfi.util.events;
+
+// Se publica al crear, editar o borrar un empleado; borrado indica que debe salir de los indices en memoria
+public record EmpleadoActualizadoEvento(
+        Long idEmpleado,
+        String apellido,
+        String nombre,
+        Integer dni,
+        String correo,
+        boolean borrado
+) {}
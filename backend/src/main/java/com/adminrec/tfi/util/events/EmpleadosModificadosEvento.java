@@ -0,0 +1,7 @@
+package com.adminrec.tfi.util.events;
+
+import java.util.Collection;
+
+// Se publica una vez por transaccion con todos los empleados creados, editados o borrados en ella. Los indices que
+// se recargan desde la base lo escuchan en lugar del evento por empleado, asi un lote se relee con una sola consulta
+public record EmpleadosModificadosEvento(Collection<Long> idsEmpleados) {}
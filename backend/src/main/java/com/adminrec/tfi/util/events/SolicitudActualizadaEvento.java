@@ -0,0 +1,20 @@
+package com.adminrec.tfi.util.events;
+
+import java.time.LocalDate;
+
+// Se publica dentro de la transaccion que crea o modifica la solicitud y se procesa al confirmarse
+public record SolicitudActualizadaEvento(
+        Long idSolicitud,
+        Long idSector,
+        TipoEvento tipoEvento,
+        String tipoSolicitud,
+        String estadoSolicitud,
+        LocalDate fechaInicio,
+        LocalDate fechaFin
+) {
+    public enum TipoEvento {
+        CREADA,
+        ACTUALIZADA,
+        ESCALADA
+    }
+}
@@ -0,0 +1,7 @@
+package com.adminrec.tfi.util.events;
+
+import java.util.Collection;
+
+// Se publica cuando un UPDATE masivo cambia el sector de solicitudes existentes; los indices por sector de los
+// sectores de origen y destino se reconstruyen al confirmarse la transaccion
+public record SolicitudesMovidasDeSectorEvento(Collection<Long> idsSectores) {}
@@ -0,0 +1,7 @@
+package com.adminrec.tfi.util.events;
+
+import java.util.Collection;
+
+// Se publica cuando cambia el historial de valor hora de uno o varios puestos; el indice en memoria los recarga
+// al confirmarse la transaccion
+public record ValorHoraActualizadoEvento(Collection<Long> idsPuestos) {}
@@ -25,7 +25,18 @@ public class EmpleadoMapper {
         return dto;
     }
 
+    // Solo se incluye el supervisor directo; la cadena de mando completa se consulta en ServicioJerarquia
     public static DetalleEmpleadoDTO toDetalleDTO(Empleado empleado) {
+        DetalleEmpleadoDTO dto = toDetalleDTOSinSupervisor(empleado);
+
+        if (empleado.getSupervisor() != null) {
+            dto.setSupervisor(toDetalleDTOSinSupervisor(empleado.getSupervisor()));
+        }
+
+        return dto;
+    }
+
+    private static DetalleEmpleadoDTO toDetalleDTOSinSupervisor(Empleado empleado) {
         DetalleEmpleadoDTO dto = new DetalleEmpleadoDTO();
 
         dto.setId(empleado.getId());
@@ -39,10 +50,6 @@ public class EmpleadoMapper {
         dto.setTelefono(empleado.getTelefono());
         dto.setEsSupervisorDeSector(empleado.isEsSupervisorDeSector());
 
-        if (empleado.getSupervisor() != null) {
-            dto.setSupervisor(EmpleadoMapper.toDetalleDTO(empleado.getSupervisor()));
-        }
-
         return dto;
     }
 
@@ -1,6 +1,7 @@
 package com.adminrec.tfi.util.mappers;
 
 import com.adminrec.tfi.entities.Solicitud;
+import com.adminrec.tfi.entities.SolicitudArchivada;
 import com.adminrec.tfi.util.dtos.entities.SolicitudDTO;
 import com.adminrec.tfi.util.enums.EstadoSolicitud;
 import com.adminrec.tfi.util.enums.TipoSolicitud;
@@ -12,9 +13,30 @@ public class SolicitudMapper {
         dto.setId(solicitud.getId());
         dto.setTipoSolicitud(solicitud.getTipoSolicitud().name());
         dto.setDuracionDias(solicitud.getDuracionDias());
+        dto.setFechaInicio(solicitud.getFechaInicio());
+        dto.setFechaFin(solicitud.getFechaFin());
         dto.setMotivo(solicitud.getMotivo());
         dto.setEstadoSolicitud(solicitud.getEstadoSolicitud().name());
         dto.setEmpleado(EmpleadoMapper.toDTO(solicitud.getEmpleado()));
+        dto.setVersion(solicitud.getVersion());
+        dto.setEscaladaEn(solicitud.getEscaladaEn());
+
+        return dto;
+    }
+
+    // El empleado archivado se devuelve aparte, una sola vez
+    public static SolicitudDTO toDTO(SolicitudArchivada solicitud) {
+        SolicitudDTO dto = new SolicitudDTO();
+
+        dto.setId(solicitud.getId());
+        dto.setTipoSolicitud(solicitud.getTipoSolicitud().name());
+        dto.setDuracionDias(solicitud.getDuracionDias());
+        dto.setFechaInicio(solicitud.getFechaInicio());
+        dto.setFechaFin(solicitud.getFechaFin());
+        dto.setMotivo(solicitud.getMotivo());
+        dto.setEstadoSolicitud(solicitud.getEstadoSolicitud().name());
+        dto.setVersion(solicitud.getVersion());
+        dto.setEscaladaEn(solicitud.getEscaladaEn());
 
         return dto;
     }
@@ -24,6 +46,8 @@ public class SolicitudMapper {
 
         solicitud.setTipoSolicitud(TipoSolicitud.desdeString(dto.getTipoSolicitud()));
         solicitud.setDuracionDias(dto.getDuracionDias());
+        solicitud.setFechaInicio(dto.getFechaInicio());
+        solicitud.setFechaFin(dto.getFechaFin());
         solicitud.setMotivo(dto.getMotivo());
 
         if (dto.getEstadoSolicitud() != null) {
@@ -0,0 +1,110 @@
+package com.adminrec.tfi.interfaces;
+
+import com.adminrec.tfi.entities.Puesto;
+import com.adminrec.tfi.entities.Sector;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// La cache de segundo nivel y la de consultas solo se ven entre transacciones confirmadas, asi que cada paso
+// confirma la suya y los datos se borran al terminar
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RepositorioSaldosLicenciasTest {
+    @Autowired
+    private RepositorioSaldosLicencias repositorioSaldos;
+    @Autowired
+    private RepositorioPuestos repositorioPuestos;
+    @Autowired
+    private RepositorioSectores repositorioSectores;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+    private Statistics estadisticas;
+    private Puesto puesto;
+
+    @BeforeEach
+    void cargarDatos() {
+        transaccion = new TransactionTemplate(transactionManager);
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Sector sector = new Sector();
+        sector.setNombre("Sistemas");
+        sector = repositorioSectores.save(sector);
+
+        puesto = new Puesto();
+        puesto.setNombre("Analista");
+        puesto.setSector(sector);
+        puesto.setValorHora(10.0);
+        puesto = repositorioPuestos.save(puesto);
+
+        entityManagerFactory.getCache().evictAll();
+        estadisticas.clear();
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        repositorioSaldos.deleteAllInBatch();
+        repositorioPuestos.deleteAllInBatch();
+        repositorioSectores.deleteAllInBatch();
+    }
+
+    @Test
+    void sumarDiasNoVaciaLasRegionesDeEntidades() {
+        repositorioPuestos.findById(puesto.getId());
+        assertThat(entityManagerFactory.getCache().contains(Puesto.class, puesto.getId())).isTrue();
+
+        sumarDias();
+
+        assertThat(entityManagerFactory.getCache().contains(Puesto.class, puesto.getId())).isTrue();
+        repositorioPuestos.findById(puesto.getId());
+        assertThat(estadisticas.getDomainDataRegionStatistics("puestos").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sumarDiasNoInvalidaLasConsultasCacheadasDeOtrasTablas() {
+        repositorioPuestos.listarIdsActivos();
+
+        sumarDias();
+        repositorioPuestos.listarIdsActivos();
+
+        assertThat(estadisticas.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void recalcularNoInvalidaLasConsultasCacheadasDeOtrasTablas() {
+        repositorioPuestos.listarIdsActivos();
+
+        transaccion.executeWithoutResult(estado -> repositorioSaldos.recalcularDesdeSolicitudes());
+        repositorioPuestos.listarIdsActivos();
+
+        assertThat(estadisticas.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void sumarDiasSiInvalidaLaTablaDeSaldos() {
+        sumarDias();
+
+        assertThat(estadisticas.getUpdateTimestampsCachePutCount()).isPositive();
+    }
+
+    private void sumarDias() {
+        transaccion.executeWithoutResult(estado -> repositorioSaldos.sumarDias(1L, 2026, "VACACIONES", 3));
+    }
+}
@@ -0,0 +1,140 @@
+package com.adminrec.tfi.interfaces;
+
+import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.entities.Sector;
+import com.adminrec.tfi.entities.Solicitud;
+import com.adminrec.tfi.services.DatosDePrueba;
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.enums.TipoSolicitud;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+// Cambio masivo de estado con control de version (cambiarEstadoSiNoCambiaron)
+@DataJpaTest
+@ActiveProfiles("h2")
+class RepositorioSolicitudesTest {
+    private static final LocalDate INICIO = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    private RepositorioSolicitudes repositorio;
+    @Autowired
+    private TestEntityManager em;
+
+    private Sector sistemas;
+    private Solicitud primera;
+    private Solicitud segunda;
+    private Solicitud deOtroSector;
+
+    @BeforeEach
+    void cargarDatos() {
+        sistemas = DatosDePrueba.sector(em, "Sistemas");
+        Sector ventas = DatosDePrueba.sector(em, "Ventas");
+        Empleado desarrollador = DatosDePrueba.empleado(em, 1, DatosDePrueba.puesto(em, "Desarrollador", sistemas));
+        Empleado vendedor = DatosDePrueba.empleado(em, 2, DatosDePrueba.puesto(em, "Vendedor", ventas));
+
+        primera = pendiente(desarrollador);
+        segunda = pendiente(desarrollador);
+        deOtroSector = pendiente(vendedor);
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void cambiaLasQueConservanLaVersionYLaIncrementa() {
+        int cambiadas = repositorio.cambiarEstadoSiNoCambiaron(
+                sistemas.getId(), EstadoSolicitud.ACEPTADO, versiones(primera, 0L, segunda, 0L)
+        );
+
+        assertThat(cambiadas).isEqualTo(2);
+        assertThat(recargar(primera).getEstadoSolicitud()).isEqualTo(EstadoSolicitud.ACEPTADO);
+        assertThat(recargar(primera).getVersion()).isEqualTo(1L);
+        assertThat(recargar(segunda).getEstadoSolicitud()).isEqualTo(EstadoSolicitud.ACEPTADO);
+    }
+
+    @Test
+    void noCambiaLasQueTienenOtraVersion() {
+        int cambiadas = repositorio.cambiarEstadoSiNoCambiaron(
+                sistemas.getId(), EstadoSolicitud.ACEPTADO, versiones(primera, 0L, segunda, 3L)
+        );
+
+        assertThat(cambiadas).isEqualTo(1);
+        assertThat(recargar(segunda).getEstadoSolicitud()).isEqualTo(EstadoSolicitud.PENDIENTE);
+        assertThat(recargar(segunda).getVersion()).isZero();
+    }
+
+    @Test
+    void noCambiaSolicitudesDeOtroSector() {
+        int cambiadas = repositorio.cambiarEstadoSiNoCambiaron(
+                sistemas.getId(), EstadoSolicitud.RECHAZADO, versiones(primera, 0L, deOtroSector, 0L)
+        );
+
+        assertThat(cambiadas).isEqualTo(1);
+        assertThat(recargar(deOtroSector).getEstadoSolicitud()).isEqualTo(EstadoSolicitud.PENDIENTE);
+    }
+
+    @Test
+    void versionesDistintasSeAplicanPorGrupo() {
+        repositorio.cambiarEstadoSiNoCambiaron(sistemas.getId(), EstadoSolicitud.ACEPTADO, versiones(primera, 0L));
+
+        int cambiadas = repositorio.cambiarEstadoSiNoCambiaron(
+                sistemas.getId(), EstadoSolicitud.RECHAZADO, versiones(primera, 1L, segunda, 0L)
+        );
+
+        assertThat(cambiadas).isEqualTo(2);
+        assertThat(repositorio.listarVersiones(List.of(primera.getId(), segunda.getId())))
+                .extracting(fila -> fila[0], fila -> fila[1], fila -> fila[2])
+                .containsExactlyInAnyOrder(
+                        tuple(primera.getId(), 2L, EstadoSolicitud.RECHAZADO),
+                        tuple(segunda.getId(), 1L, EstadoSolicitud.RECHAZADO)
+                );
+    }
+
+    @Test
+    void lasSolicitudesCambiadasNoQuedanDesactualizadasEnElContexto() {
+        Solicitud cargada = repositorio.findById(primera.getId()).orElseThrow();
+        Solicitud ajena = repositorio.findById(deOtroSector.getId()).orElseThrow();
+
+        repositorio.cambiarEstadoSiNoCambiaron(sistemas.getId(), EstadoSolicitud.ACEPTADO, versiones(primera, 0L));
+
+        assertThat(em.getEntityManager().contains(cargada)).isFalse();
+        assertThat(em.getEntityManager().contains(ajena)).isTrue();
+        assertThat(repositorio.findById(primera.getId()).orElseThrow().getEstadoSolicitud()).isEqualTo(EstadoSolicitud.ACEPTADO);
+    }
+
+    @Test
+    void sinSolicitudesNoEjecutaNada() {
+        assertThat(repositorio.cambiarEstadoSiNoCambiaron(sistemas.getId(), EstadoSolicitud.ACEPTADO, Map.of())).isZero();
+    }
+
+    private Solicitud pendiente(Empleado empleado) {
+        return DatosDePrueba.solicitud(em, empleado, TipoSolicitud.VACACIONES, INICIO, 3, EstadoSolicitud.PENDIENTE);
+    }
+
+    private Solicitud recargar(Solicitud solicitud) {
+        em.clear();
+        return repositorio.findById(solicitud.getId()).orElseThrow();
+    }
+
+    private static Map<Long, Long> versiones(Object... pares) {
+        Map<Long, Long> versiones = new LinkedHashMap<>();
+
+        for (int i = 0; i < pares.length; i += 2) {
+            versiones.put(((Solicitud) pares[i]).getId(), (Long) pares[i + 1]);
+        }
+
+        return versiones;
+    }
+}
@@ -0,0 +1,64 @@
+package com.adminrec.tfi.monitoreo;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.h2.jdbc.JdbcResultSet;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// Filas y sentencias contadas por el proxy del DataSource
+class MonitoreoSqlConfigTest {
+    private final DataSource dataSource = envolver();
+
+    @AfterEach
+    void terminar() {
+        MedicionSql.terminar();
+    }
+
+    @Test
+    void cuentaUnaFilaPorCadaNextQueAvanza() throws Exception {
+        MedicionSql medicion = MedicionSql.iniciar();
+
+        try (Connection conexion = dataSource.getConnection();
+             Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("select x from system_range(1, 3)")) {
+            while (filas.next()) {
+                filas.getLong(1);
+                filas.wasNull();
+            }
+            filas.next();
+        }
+
+        assertThat(medicion.getFilas()).isEqualTo(3);
+        assertThat(medicion.getSentencias()).isEqualTo(1);
+    }
+
+    @Test
+    void elResultSetSigueDandoAccesoAlOriginal() throws Exception {
+        try (Connection conexion = dataSource.getConnection();
+             Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("select 1")) {
+            assertThat(filas).isInstanceOf(ProxyJdbcObject.class);
+            assertThat(((ProxyJdbcObject) filas).getTarget()).isInstanceOf(JdbcResultSet.class);
+            assertThat(filas.unwrap(JdbcResultSet.class)).isNotNull();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DataSource envolver() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:monitoreo");
+
+        MonitoreoSqlConfig config = new MonitoreoSqlConfig(true, Long.MAX_VALUE, mock(ObjectProvider.class));
+        return (DataSource) config.postProcessAfterInitialization(h2, "dataSource");
+    }
+}
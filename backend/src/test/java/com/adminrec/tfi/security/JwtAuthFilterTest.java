@@ -0,0 +1,94 @@
+package com.adminrec.tfi.security;
+
+import com.adminrec.tfi.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Cada token se acepta solo por su via: el de sesion en la cabecera y el del stream en la URL del stream
+class JwtAuthFilterTest {
+    private static final String STREAM = "/api/requests/stream";
+
+    private final JwtUtil jwtUtil = new JwtUtil("clave-de-prueba-de-al-menos-32-bytes-para-hs256", new SimpleMeterRegistry());
+    private final JwtAuthFilter filtro = new JwtAuthFilter(jwtUtil);
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void elTokenDeSesionAutenticaPorCabecera() throws Exception {
+        Authentication auth = filtrar(conCabecera("/api/requests", sesion()));
+
+        assertThat(auth.getName()).isEqualTo("12345678");
+        assertThat(auth.getAuthorities()).extracting(Object::toString).contains("ROLE_SUPERVISOR");
+    }
+
+    @Test
+    void elTokenDelStreamAutenticaEnLaUrlDelStream() throws Exception {
+        Authentication auth = filtrar(conParametro(STREAM, stream()));
+
+        assertThat(auth.getName()).isEqualTo("12345678");
+    }
+
+    @Test
+    void elTokenDelStreamNoSirveComoCabecera() throws Exception {
+        assertThat(filtrar(conCabecera("/api/requests", stream()))).isNull();
+    }
+
+    @Test
+    void elTokenDelStreamNoSirveEnOtraRuta() throws Exception {
+        assertThat(filtrar(conParametro("/api/requests", stream()))).isNull();
+    }
+
+    @Test
+    void elTokenDeSesionNoSeAceptaEnLaUrl() throws Exception {
+        assertThat(filtrar(conParametro(STREAM, sesion()))).isNull();
+    }
+
+    @Test
+    void unTokenVencidoNoAutentica() throws Exception {
+        String vencido = jwtUtil.generateToken(
+                "12345678", Map.of("role", "SUPERVISOR", JwtUtil.CLAIM_USO, JwtUtil.USO_STREAM), -1000
+        );
+
+        assertThat(filtrar(conParametro(STREAM, vencido))).isNull();
+    }
+
+    private Authentication filtrar(MockHttpServletRequest peticion) throws Exception {
+        filtro.doFilter(peticion, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private String sesion() {
+        return jwtUtil.generateToken("12345678", Map.of("role", "SUPERVISOR"));
+    }
+
+    private String stream() {
+        return jwtUtil.generateToken("12345678", Map.of("role", "SUPERVISOR", JwtUtil.CLAIM_USO, JwtUtil.USO_STREAM), 60_000);
+    }
+
+    private static MockHttpServletRequest conCabecera(String ruta, String token) {
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", ruta);
+        peticion.setServletPath(ruta);
+        peticion.addHeader("Authorization", "Bearer " + token);
+        return peticion;
+    }
+
+    private static MockHttpServletRequest conParametro(String ruta, String token) {
+        MockHttpServletRequest peticion = new MockHttpServletRequest("GET", ruta);
+        peticion.setServletPath(ruta);
+        peticion.setParameter("token", token);
+        return peticion;
+    }
+}
@@ -0,0 +1,56 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.entities.Puesto;
+import com.adminrec.tfi.entities.Sector;
+import com.adminrec.tfi.entities.Solicitud;
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.enums.TipoSolicitud;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+
+// Entidades minimas para las pruebas contra la base: solo los campos obligatorios
+public final class DatosDePrueba {
+    private DatosDePrueba() {
+    }
+
+    public static Sector sector(TestEntityManager em, String nombre) {
+        Sector sector = new Sector();
+        sector.setNombre(nombre);
+        return em.persist(sector);
+    }
+
+    public static Puesto puesto(TestEntityManager em, String nombre, Sector sector) {
+        Puesto puesto = new Puesto();
+        puesto.setNombre(nombre);
+        puesto.setSector(sector);
+        puesto.setValorHora(10.0);
+        return em.persist(puesto);
+    }
+
+    public static Empleado empleado(TestEntityManager em, int dni, Puesto puesto) {
+        Empleado empleado = new Empleado();
+        empleado.setApellido("Apellido" + dni);
+        empleado.setNombre("Nombre" + dni);
+        empleado.setDni(dni);
+        empleado.setCorreo(dni + "@tfi.com");
+        empleado.setPuesto(puesto);
+        return em.persist(empleado);
+    }
+
+    public static Solicitud solicitud(
+            TestEntityManager em, Empleado empleado, TipoSolicitud tipo, LocalDate inicio, int dias, EstadoSolicitud estado
+    ) {
+        Solicitud solicitud = new Solicitud();
+        solicitud.setTipoSolicitud(tipo);
+        solicitud.setDuracionDias(dias);
+        solicitud.setFechaInicio(inicio);
+        solicitud.setFechaFin(inicio.plusDays(dias - 1));
+        solicitud.setMotivo("Motivo");
+        solicitud.setEstadoSolicitud(estado);
+        solicitud.setEmpleado(empleado);
+        solicitud.setIdSector(empleado.getPuesto().getSector().getId());
+        return em.persist(solicitud);
+    }
+}
@@ -0,0 +1,47 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.exceptions.ArchivoAltaMasivaInvalidoException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServicioAltaMasivaEmpleadosTest {
+    @Test
+    void separaRegistrosYCampos() {
+        assertThat(ServicioAltaMasivaEmpleados.leerRegistrosCsv("apellido,nombre\nPerez,Juan\nGomez,Ana"))
+                .containsExactly(List.of("apellido", "nombre"), List.of("Perez", "Juan"), List.of("Gomez", "Ana"));
+    }
+
+    @Test
+    void aceptaFinesDeLineaWindowsYSaltoFinal() {
+        assertThat(ServicioAltaMasivaEmpleados.leerRegistrosCsv("a,b\r\n1,2\r\n"))
+                .containsExactly(List.of("a", "b"), List.of("1", "2"));
+    }
+
+    @Test
+    void ignoraLaMarcaDeOrdenDeBytes() {
+        assertThat(ServicioAltaMasivaEmpleados.leerRegistrosCsv("﻿apellido,nombre"))
+                .containsExactly(List.of("apellido", "nombre"));
+    }
+
+    @Test
+    void losCamposEntreComillasPuedenTenerComasSaltosYComillasDobles() {
+        assertThat(ServicioAltaMasivaEmpleados.leerRegistrosCsv("domicilio,nota\n\"Av. Siempre Viva 742, 2B\",\"dijo \"\"hola\"\"\nchau\""))
+                .containsExactly(List.of("domicilio", "nota"), List.of("Av. Siempre Viva 742, 2B", "dijo \"hola\"\nchau"));
+    }
+
+    @Test
+    void conservaLosCamposVacios() {
+        assertThat(ServicioAltaMasivaEmpleados.leerRegistrosCsv("a,,c\n,,"))
+                .containsExactly(List.of("a", "", "c"), List.of("", "", ""));
+    }
+
+    @Test
+    void rechazaComillasSinCerrar() {
+        assertThatThrownBy(() -> ServicioAltaMasivaEmpleados.leerRegistrosCsv("a,b\n\"sin cerrar,2"))
+                .isInstanceOf(ArchivoAltaMasivaInvalidoException.class);
+    }
+}
@@ -0,0 +1,124 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.Asistencia;
+import com.adminrec.tfi.entities.Cuenta;
+import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.entities.IngresoEgreso;
+import com.adminrec.tfi.entities.JerarquiaEmpleado;
+import com.adminrec.tfi.entities.Puesto;
+import com.adminrec.tfi.entities.SaldoLicencia;
+import com.adminrec.tfi.util.dtos.entities.ArchivoEmpleadoDTO;
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.enums.Rol;
+import com.adminrec.tfi.util.enums.TipoSolicitud;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({ServicioArchivoEmpleados.class, ServicioAusencias.class})
+class ServicioArchivoEmpleadosTest {
+    private static final LocalDate INICIO = LocalDate.of(2024, 3, 4);
+
+    @Autowired
+    private ServicioArchivoEmpleados servicio;
+    @Autowired
+    private TestEntityManager em;
+
+    private Empleado archivable;
+    private Empleado borradoHacePoco;
+    private Empleado supervisorBorrado;
+    private Empleado activo;
+
+    @BeforeEach
+    void cargarDatos() {
+        Puesto puesto = DatosDePrueba.puesto(em, "Analista", DatosDePrueba.sector(em, "Sistemas"));
+        LocalDateTime haceDosAnios = LocalDateTime.now().minusYears(2);
+
+        archivable = conHistoria(DatosDePrueba.empleado(em, 1, puesto), haceDosAnios);
+        borradoHacePoco = conHistoria(DatosDePrueba.empleado(em, 2, puesto), LocalDateTime.now().minusDays(10));
+        supervisorBorrado = conHistoria(DatosDePrueba.empleado(em, 3, puesto), haceDosAnios);
+        activo = conHistoria(DatosDePrueba.empleado(em, 4, puesto), null);
+        activo.setSupervisor(supervisorBorrado);
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void mueveAlArchivoSoloALosBorradosHaceMasDelPlazoSinSubordinados() {
+        assertThat(servicio.archivar()).isEqualTo(1);
+        em.clear();
+
+        assertThat(em.find(Empleado.class, archivable.getId())).isNull();
+        assertThat(em.find(Empleado.class, borradoHacePoco.getId())).isNotNull();
+        assertThat(em.find(Empleado.class, supervisorBorrado.getId())).isNotNull();
+        assertThat(em.find(Empleado.class, activo.getId())).isNotNull();
+    }
+
+    @Test
+    void noQuedanFilasDelEmpleadoEnLasTablasEnUso() {
+        servicio.archivar();
+        em.clear();
+
+        for (String entidad : new String[]{"Asistencia", "Solicitud", "IngresoEgreso", "Cuenta"}) {
+            assertThat(contar("select count(x) from " + entidad + " x where x.empleado.id = :id", archivable.getId()))
+                    .as(entidad)
+                    .isZero();
+        }
+
+        assertThat(contar("select count(s) from SaldoLicencia s where s.idEmpleado = :id", archivable.getId())).isZero();
+        assertThat(contar("select count(j) from JerarquiaEmpleado j where j.idDescendiente = :id", archivable.getId())).isZero();
+        assertThat(contar("select count(s) from Solicitud s where s.empleado.id = :id", activo.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void elArchivoConservaElEmpleadoYSuHistoria() {
+        servicio.archivar();
+        em.clear();
+
+        ArchivoEmpleadoDTO archivo = servicio.buscarUno(archivable.getId());
+
+        assertThat(archivo.getEmpleado().getDni()).isEqualTo(archivable.getDni());
+        assertThat(archivo.getEmpleado().getArchivadoEn()).isNotNull();
+        assertThat(archivo.getAsistencias()).hasSize(1);
+        assertThat(archivo.getSolicitudes()).hasSize(1);
+        assertThat(archivo.getIngresosEgresos()).hasSize(1);
+    }
+
+    @Test
+    void unaSegundaEjecucionNoArchivaNada() {
+        servicio.archivar();
+        em.clear();
+
+        assertThat(servicio.archivar()).isZero();
+    }
+
+    // Asistencia, solicitud aprobada, periodo en el puesto, cuenta, saldo y fila propia de la jerarquia
+    private Empleado conHistoria(Empleado empleado, LocalDateTime borradoEn) {
+        empleado.setBorradoEn(borradoEn);
+
+        em.persist(new Asistencia(null, empleado, INICIO.atTime(9, 0), null));
+        DatosDePrueba.solicitud(em, empleado, TipoSolicitud.VACACIONES, INICIO, 5, EstadoSolicitud.ACEPTADO);
+        em.persist(new IngresoEgreso(null, empleado, empleado.getPuesto(), INICIO.minusYears(1), null));
+        em.persist(new Cuenta(null, empleado, "hash", Rol.EMPLOYEE, null, null, null));
+        em.persist(new SaldoLicencia(null, empleado.getId(), INICIO.getYear(), TipoSolicitud.VACACIONES, 5, null));
+        em.persist(new JerarquiaEmpleado(empleado.getId(), empleado.getId(), 0));
+
+        return empleado;
+    }
+
+    private long contar(String jpql, Long id) {
+        return em.getEntityManager().createQuery(jpql, Long.class).setParameter("id", id).getSingleResult();
+    }
+}
@@ -0,0 +1,105 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.exceptions.CapacidadSectorExcedidaException;
+import com.adminrec.tfi.interfaces.RepositorioSolicitudes;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ServicioAusenciasTest {
+    private static final int HOY = (int) LocalDate.of(2025, 3, 1).toEpochDay();
+
+    @Test
+    void cuentaLosAusentesDeCadaDia() {
+        ServicioAusencias.IndiceSector indice = new ServicioAusencias.IndiceSector();
+        indice.agregar(HOY, HOY + 4);
+        indice.agregar(HOY + 2, HOY + 6);
+
+        assertThat(indice.ausentes(HOY - 1)).isZero();
+        assertThat(indice.ausentes(HOY)).isEqualTo(1);
+        assertThat(indice.ausentes(HOY + 2)).isEqualTo(2);
+        assertThat(indice.ausentes(HOY + 4)).isEqualTo(2);
+        assertThat(indice.ausentes(HOY + 5)).isEqualTo(1);
+        assertThat(indice.ausentes(HOY + 7)).isZero();
+    }
+
+    @Test
+    void elMaximoDelRangoConsideraSoloLosDiasDelRango() {
+        ServicioAusencias.IndiceSector indice = new ServicioAusencias.IndiceSector();
+        indice.agregar(HOY, HOY + 9);
+        indice.agregar(HOY + 5, HOY + 5);
+        indice.agregar(HOY + 5, HOY + 7);
+
+        assertThat(indice.maximoEnRango(HOY, HOY + 4)).isEqualTo(1);
+        assertThat(indice.maximoEnRango(HOY, HOY + 30)).isEqualTo(3);
+        assertThat(indice.maximoEnRango(HOY + 6, HOY + 7)).isEqualTo(2);
+        assertThat(indice.maximoEnRango(HOY + 10, HOY + 400)).isZero();
+    }
+
+    @Test
+    void quitarDescuentaLaAusencia() {
+        ServicioAusencias.IndiceSector indice = new ServicioAusencias.IndiceSector();
+        indice.agregar(HOY, HOY + 3);
+        indice.agregar(HOY + 1, HOY + 2);
+        indice.quitar(HOY + 1, HOY + 2);
+
+        assertThat(indice.maximoEnRango(HOY, HOY + 3)).isEqualTo(1);
+        assertThat(indice.ausentes(HOY + 1)).isEqualTo(1);
+    }
+
+    @Test
+    void coincideConElConteoDiaPorDia() {
+        Random random = new Random(42);
+        ServicioAusencias.IndiceSector indice = new ServicioAusencias.IndiceSector();
+        int[] porDia = new int[400];
+        List<int[]> vigentes = new ArrayList<>();
+
+        for (int paso = 0; paso < 2000; paso++) {
+            if (!vigentes.isEmpty() && random.nextInt(3) == 0) {
+                int[] intervalo = vigentes.remove(random.nextInt(vigentes.size()));
+                indice.quitar(HOY + intervalo[0], HOY + intervalo[1]);
+                for (int d = intervalo[0]; d <= intervalo[1]; d++) porDia[d]--;
+            } else {
+                int inicio = random.nextInt(380);
+                int[] intervalo = {inicio, inicio + random.nextInt(20)};
+                vigentes.add(intervalo);
+                indice.agregar(HOY + intervalo[0], HOY + intervalo[1]);
+                for (int d = intervalo[0]; d <= intervalo[1]; d++) porDia[d]++;
+            }
+
+            int desde = random.nextInt(400);
+            int hasta = desde + random.nextInt(400 - desde);
+            int esperado = 0;
+            for (int d = desde; d <= hasta; d++) esperado = Math.max(esperado, porDia[d]);
+
+            assertThat(indice.maximoEnRango(HOY + desde, HOY + hasta)).isEqualTo(esperado);
+        }
+    }
+
+    @Test
+    void reservarRechazaLaAusenciaQueExcedeElMaximoDelSector() {
+        ServicioAusencias servicio = new ServicioAusencias(mock(RepositorioSolicitudes.class), 2);
+        LocalDate inicio = LocalDate.ofEpochDay(HOY);
+
+        servicio.reservar(1L, 10L, inicio, inicio.plusDays(4));
+        servicio.reservar(2L, 10L, inicio.plusDays(2), inicio.plusDays(3));
+
+        assertThatThrownBy(() -> servicio.reservar(3L, 10L, inicio.plusDays(3), inicio.plusDays(8)))
+                .isInstanceOf(CapacidadSectorExcedidaException.class);
+
+        // Otro sector y otros dias del mismo sector siguen con lugar
+        servicio.reservar(4L, 20L, inicio, inicio.plusDays(4));
+        servicio.reservar(5L, 10L, inicio.plusDays(4), inicio.plusDays(8));
+
+        assertThat(servicio.contarAusentes(10L, inicio.plusDays(3))).isEqualTo(2);
+        assertThat(servicio.contarAusentes(10L, inicio.plusDays(4))).isEqualTo(2);
+        assertThat(servicio.contarAusentes(20L, inicio)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,102 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.interfaces.RepositorioEmpleados;
+import com.adminrec.tfi.util.dtos.entities.CoincidenciaEmpleadoDTO;
+import com.adminrec.tfi.util.events.EmpleadoActualizadoEvento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ServicioDirectorioEmpleadosTest {
+    private ServicioDirectorioEmpleados directorio;
+
+    @BeforeEach
+    void cargarDirectorio() {
+        RepositorioEmpleados repositorio = mock(RepositorioEmpleados.class);
+        when(repositorio.listarDatosDeDirectorio()).thenReturn(List.of(
+                new Object[]{1L, "Pérez", "Juan", 30111222, "jperez@empresa.com"},
+                new Object[]{2L, "Alvarez", "Perla", 30111333, "palvarez@empresa.com"},
+                new Object[]{3L, "Gomez", "Ana", 28999888, "per.gomez@empresa.com"},
+                new Object[]{4L, "Esperanza", "Luis", 27555444, "lesperanza@empresa.com"},
+                new Object[]{5L, "Díaz", "María José", 31222111, "mjdiaz@empresa.com"}
+        ));
+
+        directorio = new ServicioDirectorioEmpleados(repositorio);
+        directorio.reconstruir();
+    }
+
+    @Test
+    void ordenaPorCampoCoincidente() {
+        assertThat(directorio.buscar("per", 10))
+                .extracting(CoincidenciaEmpleadoDTO::getId, CoincidenciaEmpleadoDTO::getPuntaje)
+                .containsExactly(tuple(1L, 60), tuple(2L, 50), tuple(3L, 40), tuple(4L, 20));
+    }
+
+    @Test
+    void elDniExactoPuntuaMasQueElPrefijo() {
+        assertThat(directorio.buscar("30111222", 10))
+                .extracting(CoincidenciaEmpleadoDTO::getId, CoincidenciaEmpleadoDTO::getPuntaje)
+                .containsExactly(tuple(1L, 100));
+        assertThat(directorio.buscar("30111", 10))
+                .extracting(CoincidenciaEmpleadoDTO::getId, CoincidenciaEmpleadoDTO::getPuntaje)
+                .containsExactly(tuple(2L, 80), tuple(1L, 80));
+    }
+
+    @Test
+    void todosLosTerminosTienenQueCoincidirYSeSumanSusPuntajes() {
+        assertThat(directorio.buscar("juan perez", 10))
+                .extracting(CoincidenciaEmpleadoDTO::getId, CoincidenciaEmpleadoDTO::getPuntaje)
+                .containsExactly(tuple(1L, 110));
+        assertThat(directorio.buscar("juan gomez", 10)).isEmpty();
+    }
+
+    @Test
+    void ignoraMayusculasYTildes() {
+        assertThat(directorio.buscar("DIAZ jose", 10)).extracting(CoincidenciaEmpleadoDTO::getId).containsExactly(5L);
+        assertThat(directorio.buscar("Pérez", 10)).extracting(CoincidenciaEmpleadoDTO::getId).containsExactly(1L);
+    }
+
+    @Test
+    void respetaElLimite() {
+        assertThat(directorio.buscar("empresa", 2)).hasSize(2);
+    }
+
+    @Test
+    void losCambiosReemplazanALaBaseSinReconstruir() {
+        directorio.actualizar(new EmpleadoActualizadoEvento(1L, "Zapata", "Juan", 30111222, "jzapata@empresa.com", false));
+        directorio.actualizar(new EmpleadoActualizadoEvento(2L, "Alvarez", "Perla", 30111333, "palvarez@empresa.com", true));
+        directorio.actualizar(new EmpleadoActualizadoEvento(6L, "Perales", "Sofía", 32000111, "sperales@empresa.com", false));
+
+        assertThat(directorio.buscar("per", 10))
+                .extracting(CoincidenciaEmpleadoDTO::getId)
+                .containsExactly(6L, 3L, 4L);
+        assertThat(directorio.buscar("zapata", 10)).extracting(CoincidenciaEmpleadoDTO::getId).containsExactly(1L);
+        assertThat(directorio.buscar("perla", 10)).isEmpty();
+    }
+
+    // Pasado el limite de cambios la capa se compacta en una base nueva; las busquedas tienen que dar lo mismo
+    @Test
+    void compactarConservaAltasBajasYModificaciones() {
+        directorio.actualizar(new EmpleadoActualizadoEvento(1L, "Zapata", "Juan", 30111222, "jzapata@empresa.com", false));
+        directorio.actualizar(new EmpleadoActualizadoEvento(5L, "Díaz", "María José", 31222111, "mjdiaz@empresa.com", true));
+
+        for (long id = 100; id < 700; id++) {
+            directorio.actualizar(new EmpleadoActualizadoEvento(
+                    id, "Nuevo" + id, "Empleado", 40_000_000 + (int) id, "nuevo" + id + "@empresa.com", false
+            ));
+        }
+
+        assertThat(directorio.buscar("zapata", 10)).extracting(CoincidenciaEmpleadoDTO::getId).containsExactly(1L);
+        assertThat(directorio.buscar("perez", 10)).isEmpty();
+        assertThat(directorio.buscar("diaz", 10)).isEmpty();
+        assertThat(directorio.buscar("nuevo100", 10)).extracting(CoincidenciaEmpleadoDTO::getId).containsExactly(100L);
+        assertThat(directorio.buscar("nuevo699", 10)).extracting(CoincidenciaEmpleadoDTO::getId).containsExactly(699L);
+        assertThat(directorio.buscar("esperanza", 10)).extracting(CoincidenciaEmpleadoDTO::getId).containsExactly(4L);
+    }
+}
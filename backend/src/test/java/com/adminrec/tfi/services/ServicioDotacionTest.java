@@ -0,0 +1,99 @@
+package com.adminrec.tfi.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.adminrec.tfi.services.ServicioDotacion.ALTA;
+import static com.adminrec.tfi.services.ServicioDotacion.BAJA;
+import static com.adminrec.tfi.services.ServicioDotacion.ENTRADA;
+import static com.adminrec.tfi.services.ServicioDotacion.SALIDA;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServicioDotacionTest {
+    private static final LocalDate D1 = LocalDate.of(2024, 1, 10);
+    private static final LocalDate D2 = LocalDate.of(2024, 6, 1);
+    private static final LocalDate D3 = LocalDate.of(2024, 9, 15);
+
+    @Test
+    void unPeriodoAbiertoEsSoloUnaAlta() {
+        assertThat(ServicioDotacion.eventos(List.<Object[]>of(periodo(1L, 10L, D1, null, null))))
+                .containsExactly(evento(10L, D1, ALTA));
+    }
+
+    @Test
+    void unCambioDePuestoEnOtroSectorEsUnaTransferencia() {
+        List<ServicioDotacion.Evento> eventos = ServicioDotacion.eventos(List.of(
+                periodo(1L, 10L, D1, D2, null),
+                periodo(1L, 20L, D2, null, null)
+        ));
+
+        assertThat(eventos).containsExactly(evento(10L, D1, ALTA), evento(10L, D2, SALIDA), evento(20L, D2, ENTRADA));
+    }
+
+    @Test
+    void unCambioDePuestoEnElMismoSectorNoMueveLaDotacion() {
+        List<ServicioDotacion.Evento> eventos = ServicioDotacion.eventos(List.of(
+                periodo(1L, 10L, D1, D2, null),
+                periodo(1L, 10L, D2, null, null)
+        ));
+
+        assertThat(eventos).containsExactly(evento(10L, D1, ALTA));
+    }
+
+    @Test
+    void unPeriodoCerradoSinContinuacionEsUnaBaja() {
+        assertThat(ServicioDotacion.eventos(List.<Object[]>of(periodo(1L, 10L, D1, D2, null))))
+                .containsExactly(evento(10L, D1, ALTA), evento(10L, D2, BAJA));
+    }
+
+    @Test
+    void elBorradoDelEmpleadoCierraSuUltimoPeriodo() {
+        assertThat(ServicioDotacion.eventos(List.<Object[]>of(periodo(1L, 10L, D1, null, D3.atTime(9, 30)))))
+                .containsExactly(evento(10L, D1, ALTA), evento(10L, D3, BAJA));
+    }
+
+    @Test
+    void unaReincorporacionDespuesDeUnHuecoEsUnaNuevaAlta() {
+        List<ServicioDotacion.Evento> eventos = ServicioDotacion.eventos(List.of(
+                periodo(1L, 10L, D1, D2, null),
+                periodo(1L, 20L, D3, null, null)
+        ));
+
+        assertThat(eventos).containsExactly(evento(10L, D1, ALTA), evento(10L, D2, BAJA), evento(20L, D3, ALTA));
+    }
+
+    @Test
+    void unPeriodoAbiertoYCerradoElMismoDiaNoCuenta() {
+        List<ServicioDotacion.Evento> eventos = ServicioDotacion.eventos(List.of(
+                periodo(1L, 10L, D1, D1, null),
+                periodo(1L, 20L, D1, null, null)
+        ));
+
+        assertThat(eventos).containsExactly(evento(20L, D1, ALTA));
+    }
+
+    @Test
+    void agrupaLasFilasPorEmpleado() {
+        Map<Long, List<ServicioDotacion.Evento>> porEmpleado = ServicioDotacion.eventosPorEmpleado(List.of(
+                periodo(1L, 10L, D1, D2, null),
+                periodo(1L, 20L, D2, null, null),
+                periodo(2L, 20L, D1, D3, null)
+        ));
+
+        assertThat(porEmpleado).containsOnlyKeys(1L, 2L);
+        assertThat(porEmpleado.get(1L)).containsExactly(evento(10L, D1, ALTA), evento(10L, D2, SALIDA), evento(20L, D2, ENTRADA));
+        assertThat(porEmpleado.get(2L)).containsExactly(evento(20L, D1, ALTA), evento(20L, D3, BAJA));
+    }
+
+    private static Object[] periodo(Long idEmpleado, Long idSector, LocalDate inicio, LocalDate fin, LocalDateTime borrado) {
+        return new Object[]{idEmpleado, idSector, inicio, fin, borrado};
+    }
+
+    private static ServicioDotacion.Evento evento(Long idSector, LocalDate dia, int tipo) {
+        return new ServicioDotacion.Evento(idSector, (int) dia.toEpochDay(), tipo);
+    }
+}
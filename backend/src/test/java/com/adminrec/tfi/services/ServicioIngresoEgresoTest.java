@@ -0,0 +1,128 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.entities.IngresoEgreso;
+import com.adminrec.tfi.entities.Puesto;
+import com.adminrec.tfi.interfaces.RepositorioEmpleadosArchivados;
+import com.adminrec.tfi.interfaces.RepositorioIngresoEgreso;
+import com.adminrec.tfi.util.dtos.entities.ConsultaPuestoEnFechaDTO;
+import com.adminrec.tfi.util.dtos.entities.IngresoEgresoDTO;
+import com.adminrec.tfi.util.dtos.entities.PuestoEnFechaDTO;
+import com.adminrec.tfi.util.events.EmpleadosModificadosEvento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Las consultas en fecha siguen viendo a los empleados despues de archivarlos
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({
+        ServicioIngresoEgreso.class,
+        ServicioIndiceHistorialPuestos.class,
+        ServicioHistorialValorHora.class,
+        ServicioArchivoEmpleados.class,
+        ServicioAusencias.class
+})
+class ServicioIngresoEgresoTest {
+    private static final LocalDate ABRIL = LocalDate.of(2024, 4, 1);
+
+    @Autowired
+    private ServicioIngresoEgreso servicio;
+    @Autowired
+    private ServicioIndiceHistorialPuestos indiceSinMemoria;
+    @Autowired
+    private ServicioArchivoEmpleados servicioArchivo;
+    @Autowired
+    private RepositorioIngresoEgreso repositorioIngresoEgreso;
+    @Autowired
+    private RepositorioEmpleadosArchivados repositorioArchivo;
+    @Autowired
+    private TestEntityManager em;
+
+    private Puesto puesto;
+    private Empleado archivado;
+    private Empleado activo;
+
+    @BeforeEach
+    void cargarDatos() {
+        puesto = DatosDePrueba.puesto(em, "Analista", DatosDePrueba.sector(em, "Sistemas"));
+
+        archivado = DatosDePrueba.empleado(em, 1, puesto);
+        archivado.setApellido("Zapata");
+        archivado.setBorradoEn(LocalDateTime.now().minusYears(2));
+        em.persist(new IngresoEgreso(null, archivado, puesto, LocalDate.of(2024, 1, 2), LocalDate.of(2024, 6, 3)));
+
+        activo = DatosDePrueba.empleado(em, 2, puesto);
+        activo.setApellido("Acosta");
+        em.persist(new IngresoEgreso(null, activo, puesto, LocalDate.of(2024, 3, 4), null));
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void buscarEnFechaEncuentraAlEmpleadoArchivado() {
+        archivar();
+
+        IngresoEgresoDTO vigente = servicio.buscarEnFecha(archivado.getId(), ABRIL);
+
+        assertThat(vigente.getDni()).isEqualTo(archivado.getDni());
+        assertThat(vigente.getNombrePuesto()).isEqualTo("Analista");
+        assertThat(vigente.getNombreSector()).isEqualTo("Sistemas");
+    }
+
+    @Test
+    void losOcupantesEnFechaIncluyenAlArchivoEnOrden() {
+        archivar();
+
+        assertThat(servicio.listarOcupantesEnFecha(puesto.getId(), ABRIL))
+                .extracting(IngresoEgresoDTO::getDni)
+                .containsExactly(activo.getDni(), archivado.getDni());
+        assertThat(servicio.listarOcupantesEnFecha(puesto.getId(), LocalDate.of(2024, 7, 1)))
+                .extracting(IngresoEgresoDTO::getDni)
+                .containsExactly(activo.getDni());
+    }
+
+    @Test
+    void elIndiceSinMemoriaLeeElArchivo() {
+        archivar();
+
+        assertThat(puestoEnAbril(indiceSinMemoria)).isEqualTo(puesto.getId());
+    }
+
+    // El evento del lote se simula a mano porque la transaccion de la prueba nunca se confirma
+    @Test
+    void elIndiceEnMemoriaConservaAlEmpleadoTrasElEvento() {
+        ServicioIndiceHistorialPuestos indice = new ServicioIndiceHistorialPuestos(repositorioIngresoEgreso, repositorioArchivo, true);
+        indice.reconstruir();
+
+        archivar();
+        indice.actualizar(new EmpleadosModificadosEvento(List.of(archivado.getId())));
+
+        assertThat(puestoEnAbril(indice)).isEqualTo(puesto.getId());
+
+        indice.reconstruir();
+
+        assertThat(puestoEnAbril(indice)).isEqualTo(puesto.getId());
+    }
+
+    private void archivar() {
+        assertThat(servicioArchivo.archivar()).isEqualTo(1);
+        em.clear();
+    }
+
+    private Long puestoEnAbril(ServicioIndiceHistorialPuestos indice) {
+        List<PuestoEnFechaDTO> resultado = indice.resolver(List.of(new ConsultaPuestoEnFechaDTO(archivado.getId(), ABRIL)));
+        return resultado.get(0).getIdPuesto();
+    }
+}
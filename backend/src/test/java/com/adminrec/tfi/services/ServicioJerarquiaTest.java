@@ -0,0 +1,121 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.entities.Puesto;
+import com.adminrec.tfi.exceptions.JerarquiaInvalidaException;
+import com.adminrec.tfi.interfaces.RepositorioJerarquia;
+import com.adminrec.tfi.util.dtos.entities.NodoJerarquiaDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(ServicioJerarquia.class)
+class ServicioJerarquiaTest {
+    @Autowired
+    private ServicioJerarquia servicio;
+    @Autowired
+    private RepositorioJerarquia repositorio;
+    @Autowired
+    private TestEntityManager em;
+
+    private Empleado gerente;
+    private Empleado jefe;
+    private Empleado analista;
+    private Empleado otroGerente;
+
+    // gerente <- jefe <- analista, y otroGerente sin equipo
+    @BeforeEach
+    void cargarDatos() {
+        Puesto puesto = DatosDePrueba.puesto(em, "Analista", DatosDePrueba.sector(em, "Sistemas"));
+        gerente = DatosDePrueba.empleado(em, 1, puesto);
+        jefe = DatosDePrueba.empleado(em, 2, puesto);
+        analista = DatosDePrueba.empleado(em, 3, puesto);
+        otroGerente = DatosDePrueba.empleado(em, 4, puesto);
+
+        for (Empleado e : List.of(gerente, jefe, analista, otroGerente)) servicio.registrarEmpleado(e.getId());
+
+        servicio.asignarSupervisor(jefe.getId(), gerente.getId());
+        servicio.asignarSupervisor(analista.getId(), jefe.getId());
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void laCadenaDeMandoVaDelSupervisorDirectoHaciaArriba() {
+        assertThat(servicio.listarCadenaDeMando(analista.getId()))
+                .extracting(NodoJerarquiaDTO::getId, NodoJerarquiaDTO::getProfundidad)
+                .containsExactly(tuple(jefe.getId(), 1), tuple(gerente.getId(), 2));
+    }
+
+    @Test
+    void losSubordinadosIncluyenALosIndirectos() {
+        assertThat(servicio.listarSubordinados(gerente.getId()))
+                .extracting(NodoJerarquiaDTO::getId, NodoJerarquiaDTO::getProfundidad)
+                .containsExactly(tuple(jefe.getId(), 1), tuple(analista.getId(), 2));
+    }
+
+    @Test
+    void moverUnSupervisorMueveTodoSuSubarbol() {
+        servicio.asignarSupervisor(jefe.getId(), otroGerente.getId());
+        em.flush();
+        em.clear();
+
+        assertThat(servicio.listarSubordinados(gerente.getId())).isEmpty();
+        assertThat(servicio.listarCadenaDeMando(analista.getId()))
+                .extracting(NodoJerarquiaDTO::getId)
+                .containsExactly(jefe.getId(), otroGerente.getId());
+    }
+
+    @Test
+    void quitarElSupervisorDejaSoloLaFilaPropia() {
+        servicio.asignarSupervisor(jefe.getId(), null);
+        em.flush();
+        em.clear();
+
+        assertThat(servicio.listarCadenaDeMando(jefe.getId())).isEmpty();
+        assertThat(servicio.listarCadenaDeMando(analista.getId()))
+                .extracting(NodoJerarquiaDTO::getId)
+                .containsExactly(jefe.getId());
+    }
+
+    @Test
+    void noSePuedeDependerDeUnSubordinado() {
+        assertThatThrownBy(() -> servicio.asignarSupervisor(gerente.getId(), analista.getId()))
+                .isInstanceOf(JerarquiaInvalidaException.class);
+    }
+
+    @Test
+    void reconstruirGeneraLasMismasFilasQueLasActualizacionesIncrementales() {
+        servicio.asignarSupervisor(jefe.getId(), otroGerente.getId());
+        em.flush();
+        em.clear();
+        Set<List<Object>> incrementales = filas();
+
+        servicio.reconstruir();
+        em.flush();
+        em.clear();
+
+        assertThat(filas()).isEqualTo(incrementales);
+        assertThat(servicio.estaDesactualizada()).isFalse();
+    }
+
+    private Set<List<Object>> filas() {
+        return repositorio.findAll().stream()
+                .map(j -> List.<Object>of(j.getIdAncestro(), j.getIdDescendiente(), j.getProfundidad()))
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,143 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.entities.EmpleadoArchivado;
+import com.adminrec.tfi.entities.IngresoEgreso;
+import com.adminrec.tfi.entities.IngresoEgresoArchivado;
+import com.adminrec.tfi.entities.Puesto;
+import com.adminrec.tfi.entities.Sector;
+import com.adminrec.tfi.interfaces.RepositorioEmpleadosArchivados;
+import com.adminrec.tfi.interfaces.RepositorioIngresoEgreso;
+import com.adminrec.tfi.interfaces.RepositorioSectores;
+import com.adminrec.tfi.util.dtos.entities.PuestoDTO;
+import com.adminrec.tfi.util.dtos.entities.SectorDTO;
+import com.adminrec.tfi.util.dtos.entities.SerieDotacionDTO;
+import com.adminrec.tfi.util.events.EmpleadosModificadosEvento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Mover un puesto de sector mueve la historia de todos los que lo ocuparon en la serie de dotacion
+@DataJpaTest
+@ActiveProfiles("h2")
+@RecordApplicationEvents
+@Import({ServicioPuesto.class, ServicioHistorialValorHora.class, ServicioCache.class, ServicioDotacion.class})
+class ServicioPuestoTest {
+    private static final LocalDate DESDE = LocalDate.of(2024, 1, 1);
+    private static final LocalDate HASTA = LocalDate.of(2024, 6, 30);
+    private static final long ID_ARCHIVADO = 999L;
+
+    @Autowired
+    private ServicioPuesto servicio;
+    @Autowired
+    private ServicioDotacion dotacion;
+    @Autowired
+    private RepositorioIngresoEgreso repositorioIngresoEgreso;
+    @Autowired
+    private RepositorioEmpleadosArchivados repositorioArchivo;
+    @Autowired
+    private RepositorioSectores repositorioSectores;
+    @Autowired
+    private ApplicationEvents eventos;
+    @Autowired
+    private TestEntityManager em;
+
+    private Sector sistemas;
+    private Sector ventas;
+    private Puesto analista;
+    private Empleado actual;
+    private Empleado anterior;
+
+    @BeforeEach
+    void cargarDatos() {
+        sistemas = DatosDePrueba.sector(em, "Sistemas");
+        ventas = DatosDePrueba.sector(em, "Ventas");
+        analista = DatosDePrueba.puesto(em, "Analista", sistemas);
+        Puesto tester = DatosDePrueba.puesto(em, "Tester", sistemas);
+
+        actual = DatosDePrueba.empleado(em, 1, analista);
+        em.persist(new IngresoEgreso(null, actual, analista, LocalDate.of(2024, 2, 5), null));
+
+        anterior = DatosDePrueba.empleado(em, 2, tester);
+        em.persist(new IngresoEgreso(null, anterior, analista, LocalDate.of(2024, 1, 8), LocalDate.of(2024, 3, 4)));
+        em.persist(new IngresoEgreso(null, anterior, tester, LocalDate.of(2024, 3, 4), null));
+
+        em.persist(archivado());
+        em.persist(new IngresoEgresoArchivado(ID_ARCHIVADO, ID_ARCHIVADO, analista.getId(), LocalDate.of(2023, 5, 2), null));
+
+        em.flush();
+        em.clear();
+        dotacion.reconstruir();
+    }
+
+    @Test
+    void avisaPorTodosLosQueOcuparonElPuesto() {
+        moverAnalistaAVentas();
+
+        assertThat(eventos.stream(EmpleadosModificadosEvento.class))
+                .singleElement()
+                .satisfies(e -> assertThat(e.idsEmpleados()).containsExactlyInAnyOrder(actual.getId(), anterior.getId(), ID_ARCHIVADO));
+    }
+
+    @Test
+    void sinCambioDeSectorNoAvisa() {
+        servicio.editar(analista.getId(), dto(sistemas));
+
+        assertThat(eventos.stream(EmpleadosModificadosEvento.class)).isEmpty();
+    }
+
+    @Test
+    void laSerieActualizadaCoincideConLaReconstruida() {
+        moverAnalistaAVentas();
+        eventos.stream(EmpleadosModificadosEvento.class).forEach(dotacion::actualizar);
+        List<SerieDotacionDTO> actualizada = dotacion.serie(DESDE, HASTA, "mes", null);
+
+        ServicioDotacion reconstruida = new ServicioDotacion(repositorioIngresoEgreso, repositorioArchivo, repositorioSectores);
+        reconstruida.reconstruir();
+
+        assertThat(actualizada).isEqualTo(reconstruida.serie(DESDE, HASTA, "mes", null));
+        assertThat(dotacionEnJunio(actualizada, ventas)).isEqualTo(2);
+        assertThat(dotacionEnJunio(actualizada, sistemas)).isEqualTo(1);
+    }
+
+    private void moverAnalistaAVentas() {
+        servicio.editar(analista.getId(), dto(ventas));
+    }
+
+    private PuestoDTO dto(Sector sector) {
+        return new PuestoDTO(analista.getId(), "Analista", new SectorDTO(sector.getId(), sector.getNombre()), 10.0, null);
+    }
+
+    // Ocupo el puesto hasta su baja en 2025
+    private EmpleadoArchivado archivado() {
+        EmpleadoArchivado empleado = new EmpleadoArchivado();
+        empleado.setId(ID_ARCHIVADO);
+        empleado.setApellido("Archivado");
+        empleado.setNombre("Empleado");
+        empleado.setDni(99);
+        empleado.setCorreo("99@tfi.com");
+        empleado.setIdPuesto(analista.getId());
+        empleado.setBorradoEn(LocalDateTime.of(2025, 1, 6, 0, 0));
+        empleado.setArchivadoEn(LocalDateTime.now());
+        return empleado;
+    }
+
+    private static int dotacionEnJunio(List<SerieDotacionDTO> series, Sector sector) {
+        return series.stream()
+                .filter(s -> s.getIdSector().equals(sector.getId()))
+                .findFirst().orElseThrow()
+                .getPuntos().get(5).getDotacion();
+    }
+}
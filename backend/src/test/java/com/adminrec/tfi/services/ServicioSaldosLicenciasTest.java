@@ -0,0 +1,174 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.entities.SaldoLicencia;
+import com.adminrec.tfi.entities.Solicitud;
+import com.adminrec.tfi.exceptions.SaldoInsuficienteException;
+import com.adminrec.tfi.interfaces.RepositorioSaldosLicencias;
+import com.adminrec.tfi.util.dtos.entities.SaldoLicenciaDTO;
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.enums.TipoSolicitud;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(ServicioSaldosLicencias.class)
+class ServicioSaldosLicenciasTest {
+    private static final LocalDate MARZO = LocalDate.of(2026, 3, 2);
+    private static final LocalDate ENERO_SIGUIENTE = LocalDate.of(2027, 1, 11);
+
+    @Autowired
+    private ServicioSaldosLicencias servicio;
+    @Autowired
+    private RepositorioSaldosLicencias repositorio;
+    @Autowired
+    private TestEntityManager em;
+
+    private Empleado empleado;
+
+    @BeforeEach
+    void cargarDatos() {
+        empleado = DatosDePrueba.empleado(em, 1, DatosDePrueba.puesto(em, "Analista", DatosDePrueba.sector(em, "Sistemas")));
+    }
+
+    @Test
+    void aprobarCreaLaFilaYLasSiguientesAprobacionesSuman() {
+        aprobar(solicitud(TipoSolicitud.VACACIONES, MARZO, 5));
+        aprobar(solicitud(TipoSolicitud.VACACIONES, MARZO.plusMonths(2), 3));
+
+        assertThat(diasUsados(TipoSolicitud.VACACIONES, 2026)).isEqualTo(8);
+    }
+
+    @Test
+    void rechazarUnaAprobadaDevuelveLosDias() {
+        Solicitud solicitud = solicitud(TipoSolicitud.PERMISO, MARZO, 4);
+        aprobar(solicitud);
+
+        servicio.registrarCambioDeEstado(solicitud, EstadoSolicitud.ACEPTADO, EstadoSolicitud.RECHAZADO);
+
+        assertThat(diasUsados(TipoSolicitud.PERMISO, 2026)).isZero();
+    }
+
+    @Test
+    void rechazarUnaPendienteNoTocaElSaldo() {
+        servicio.registrarCambioDeEstado(solicitud(TipoSolicitud.PERMISO, MARZO, 4), EstadoSolicitud.PENDIENTE, EstadoSolicitud.RECHAZADO);
+
+        assertThat(repositorio.findAll()).isEmpty();
+    }
+
+    @Test
+    void losDiasSeImputanAlAnioDeInicio() {
+        aprobar(solicitud(TipoSolicitud.VACACIONES, ENERO_SIGUIENTE, 5));
+
+        assertThat(diasUsados(TipoSolicitud.VACACIONES, 2026)).isZero();
+        assertThat(diasUsados(TipoSolicitud.VACACIONES, 2027)).isEqualTo(5);
+    }
+
+    @Test
+    void unCambioMasivoAgrupaPorEmpleadoAnioYTipo() {
+        Solicitud primera = solicitud(TipoSolicitud.LICENCIA, MARZO, 2);
+        Solicitud segunda = solicitud(TipoSolicitud.LICENCIA, MARZO.plusDays(10), 3);
+        Solicitud yaAprobada = solicitud(TipoSolicitud.LICENCIA, MARZO.plusDays(20), 7);
+        aprobar(yaAprobada);
+
+        servicio.registrarCambiosDeEstado(
+                List.of(primera, segunda, yaAprobada),
+                Map.of(
+                        primera.getId(), EstadoSolicitud.PENDIENTE,
+                        segunda.getId(), EstadoSolicitud.PENDIENTE,
+                        yaAprobada.getId(), EstadoSolicitud.ACEPTADO
+                ),
+                EstadoSolicitud.ACEPTADO
+        );
+
+        assertThat(diasUsados(TipoSolicitud.LICENCIA, 2026)).isEqualTo(12);
+    }
+
+    @Test
+    void validaContraLosDiasAnualesDisponibles() {
+        aprobar(solicitud(TipoSolicitud.VACACIONES, MARZO, 10));
+
+        assertThatNoException().isThrownBy(() -> servicio.validarDisponibilidad(empleado.getId(), TipoSolicitud.VACACIONES, 2026, 4));
+        assertThatThrownBy(() -> servicio.validarDisponibilidad(empleado.getId(), TipoSolicitud.VACACIONES, 2026, 5))
+                .isInstanceOf(SaldoInsuficienteException.class);
+    }
+
+    @Test
+    void elListadoMuestraTodosLosTiposConSusDisponibles() {
+        aprobar(solicitud(TipoSolicitud.PERMISO, MARZO, 2));
+
+        assertThat(servicio.listarParaEmpleado(empleado.getDni(), 2026))
+                .extracting(SaldoLicenciaDTO::getTipoSolicitud, SaldoLicenciaDTO::getDiasDisponibles)
+                .containsExactlyInAnyOrder(
+                        tuple("VACACIONES", 14),
+                        tuple("PERMISO", 4),
+                        tuple("LICENCIA", 30)
+                );
+    }
+
+    @Test
+    void reconstruirCoincideConElSaldoIncremental() {
+        Solicitud aprobadaYRechazada = solicitud(TipoSolicitud.PERMISO, MARZO, 2);
+        aprobar(aprobadaYRechazada);
+        servicio.registrarCambioDeEstado(aprobadaYRechazada, EstadoSolicitud.ACEPTADO, EstadoSolicitud.RECHAZADO);
+        marcar(aprobadaYRechazada, EstadoSolicitud.RECHAZADO);
+        aprobar(solicitud(TipoSolicitud.VACACIONES, MARZO, 5));
+        aprobar(solicitud(TipoSolicitud.VACACIONES, ENERO_SIGUIENTE, 3));
+        solicitud(TipoSolicitud.LICENCIA, MARZO, 9);
+        Set<List<Object>> incremental = saldosNoVacios();
+
+        servicio.reconstruir();
+        em.clear();
+
+        assertThat(saldosNoVacios()).isEqualTo(incremental);
+    }
+
+    private Solicitud solicitud(TipoSolicitud tipo, LocalDate inicio, int dias) {
+        return DatosDePrueba.solicitud(em, empleado, tipo, inicio, dias, EstadoSolicitud.PENDIENTE);
+    }
+
+    // Como en ServicioSolicitudes: el saldo y el estado cambian en la misma transaccion
+    private void aprobar(Solicitud solicitud) {
+        servicio.registrarCambioDeEstado(solicitud, EstadoSolicitud.PENDIENTE, EstadoSolicitud.ACEPTADO);
+        marcar(solicitud, EstadoSolicitud.ACEPTADO);
+    }
+
+    private void marcar(Solicitud solicitud, EstadoSolicitud estado) {
+        Solicitud actual = em.find(Solicitud.class, solicitud.getId());
+        actual.setEstadoSolicitud(estado);
+        em.flush();
+    }
+
+    private int diasUsados(TipoSolicitud tipo, int anio) {
+        em.clear();
+        return repositorio.findByIdEmpleadoAndAnioAndTipoSolicitud(empleado.getId(), anio, tipo)
+                .map(SaldoLicencia::getDiasUsados)
+                .orElse(0);
+    }
+
+    // Una fila que volvio a cero equivale a una que nunca existio
+    private Set<List<Object>> saldosNoVacios() {
+        em.clear();
+        return repositorio.findAll().stream()
+                .filter(s -> s.getDiasUsados() != 0)
+                .map(s -> List.<Object>of(s.getIdEmpleado(), s.getAnio(), s.getTipoSolicitud(), s.getDiasUsados()))
+                .collect(Collectors.toSet());
+    }
+}
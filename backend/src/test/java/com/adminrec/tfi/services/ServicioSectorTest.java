@@ -0,0 +1,152 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.entities.Cuenta;
+import com.adminrec.tfi.entities.Empleado;
+import com.adminrec.tfi.entities.Puesto;
+import com.adminrec.tfi.entities.Sector;
+import com.adminrec.tfi.util.enums.Rol;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(ServicioSector.class)
+class ServicioSectorTest {
+    @Autowired
+    private ServicioSector servicio;
+    @Autowired
+    private TestEntityManager em;
+
+    private Sector sistemas;
+    private Empleado supervisorActual;
+    private Empleado nuevoSupervisor;
+    private Empleado administrador;
+    private Empleado supervisorDeVentas;
+
+    @BeforeEach
+    void cargarDatos() {
+        sistemas = em.persist(sector("Sistemas"));
+        Sector ventas = em.persist(sector("Ventas"));
+        Puesto desarrollador = em.persist(puesto("Desarrollador", sistemas));
+        Puesto vendedor = em.persist(puesto("Vendedor", ventas));
+
+        supervisorActual = empleado(1, desarrollador, true, Rol.SUPERVISOR);
+        nuevoSupervisor = empleado(2, desarrollador, false, Rol.EMPLOYEE);
+        administrador = empleado(3, desarrollador, true, Rol.ADMIN);
+        supervisorDeVentas = empleado(4, vendedor, true, Rol.SUPERVISOR);
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void promueveALosIndicadosYDegradaAlResto() {
+        servicio.actualizarSupervisores(sistemas.getId(), List.of(nuevoSupervisor.getId(), administrador.getId()));
+        em.clear();
+
+        assertThat(esSupervisor(supervisorActual)).isFalse();
+        assertThat(esSupervisor(nuevoSupervisor)).isTrue();
+        assertThat(rol(supervisorActual)).isEqualTo(Rol.EMPLOYEE);
+        assertThat(rol(nuevoSupervisor)).isEqualTo(Rol.SUPERVISOR);
+    }
+
+    @Test
+    void lasCuentasAdminNoCambianDeRol() {
+        servicio.actualizarSupervisores(sistemas.getId(), List.of(supervisorActual.getId()));
+        em.clear();
+
+        assertThat(esSupervisor(administrador)).isFalse();
+        assertThat(rol(administrador)).isEqualTo(Rol.ADMIN);
+    }
+
+    @Test
+    void noTocaEmpleadosDeOtrosSectores() {
+        servicio.actualizarSupervisores(sistemas.getId(), List.of(nuevoSupervisor.getId()));
+        em.clear();
+
+        assertThat(esSupervisor(supervisorDeVentas)).isTrue();
+        assertThat(rol(supervisorDeVentas)).isEqualTo(Rol.SUPERVISOR);
+    }
+
+    @Test
+    void unIdDeOtroSectorNoSePromueve() {
+        Empleado vendedor = em.find(Empleado.class, supervisorDeVentas.getId());
+        vendedor.setEsSupervisorDeSector(false);
+        em.find(Cuenta.class, cuenta(supervisorDeVentas).getId()).setRol(Rol.EMPLOYEE);
+        em.flush();
+        em.clear();
+
+        servicio.actualizarSupervisores(sistemas.getId(), List.of(supervisorDeVentas.getId()));
+        em.clear();
+
+        assertThat(esSupervisor(supervisorDeVentas)).isFalse();
+        assertThat(rol(supervisorDeVentas)).isEqualTo(Rol.EMPLOYEE);
+    }
+
+    @Test
+    void sinSupervisoresSeDegradaATodoElSector() {
+        servicio.actualizarSupervisores(sistemas.getId(), List.of());
+        em.clear();
+
+        assertThat(esSupervisor(supervisorActual)).isFalse();
+        assertThat(rol(supervisorActual)).isEqualTo(Rol.EMPLOYEE);
+        assertThat(esSupervisor(supervisorDeVentas)).isTrue();
+    }
+
+    private boolean esSupervisor(Empleado empleado) {
+        return em.find(Empleado.class, empleado.getId()).isEsSupervisorDeSector();
+    }
+
+    private Rol rol(Empleado empleado) {
+        return cuenta(empleado).getRol();
+    }
+
+    private Cuenta cuenta(Empleado empleado) {
+        return em.getEntityManager()
+                .createQuery("select c from Cuenta c where c.empleado.id = :id", Cuenta.class)
+                .setParameter("id", empleado.getId())
+                .getSingleResult();
+    }
+
+    private Empleado empleado(int dni, Puesto puesto, boolean supervisor, Rol rol) {
+        Empleado empleado = new Empleado();
+        empleado.setApellido("Apellido" + dni);
+        empleado.setNombre("Nombre" + dni);
+        empleado.setDni(dni);
+        empleado.setCorreo(dni + "@tfi.com");
+        empleado.setPuesto(puesto);
+        empleado.setEsSupervisorDeSector(supervisor);
+        em.persist(empleado);
+
+        Cuenta cuenta = new Cuenta();
+        cuenta.setEmpleado(empleado);
+        cuenta.setContrasena("hash");
+        cuenta.setRol(rol);
+        em.persist(cuenta);
+
+        return empleado;
+    }
+
+    private static Sector sector(String nombre) {
+        Sector sector = new Sector();
+        sector.setNombre(nombre);
+        return sector;
+    }
+
+    private static Puesto puesto(String nombre, Sector sector) {
+        Puesto puesto = new Puesto();
+        puesto.setNombre(nombre);
+        puesto.setSector(sector);
+        puesto.setValorHora(10.0);
+        return puesto;
+    }
+}
@@ -0,0 +1,38 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.exceptions.CursorInvalidoException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServicioSolicitudesTest {
+    @Test
+    void elCursorConservaFechaEIdExactos() {
+        ServicioSolicitudes.CursorBandeja cursor = new ServicioSolicitudes.CursorBandeja(
+                LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000), 42L
+        );
+
+        assertThat(ServicioSolicitudes.CursorBandeja.decodificar(cursor.codificar())).isEqualTo(cursor);
+    }
+
+    // LocalDateTime omite los segundos en cero al pasar a texto
+    @Test
+    void elCursorAdmiteHorasSinSegundos() {
+        ServicioSolicitudes.CursorBandeja cursor = new ServicioSolicitudes.CursorBandeja(LocalDateTime.of(2025, 3, 1, 10, 0), 7L);
+
+        assertThat(cursor.codificar()).isEqualTo("2025-03-01T10:00_7");
+        assertThat(ServicioSolicitudes.CursorBandeja.decodificar("2025-03-01T10:00_7")).isEqualTo(cursor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "abc", "2025-03-01T10:00", "2025-03-01T10:00_", "_7", "2025-03-01T10:00_7_8", "2025-13-01T10:00_7", "2025-03-01T10:00_x"})
+    void rechazaCursoresMalFormados(String cursor) {
+        assertThatThrownBy(() -> ServicioSolicitudes.CursorBandeja.decodificar(cursor))
+                .isInstanceOf(CursorInvalidoException.class);
+    }
+}
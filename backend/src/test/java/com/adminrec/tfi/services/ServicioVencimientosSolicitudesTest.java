@@ -0,0 +1,72 @@
+package com.adminrec.tfi.services;
+
+import com.adminrec.tfi.interfaces.RepositorioSolicitudes;
+import com.adminrec.tfi.util.enums.EstadoSolicitud;
+import com.adminrec.tfi.util.events.SolicitudActualizadaEvento;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// El total de pendientes se recuenta en el tick, no en cada lectura de la metrica
+class ServicioVencimientosSolicitudesTest {
+    private final RepositorioSolicitudes repositorio = mock(RepositorioSolicitudes.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ServicioVencimientosSolicitudes servicio;
+
+    @BeforeEach
+    void crear() {
+        when(repositorio.countByEstadoSolicitudAndBorradoEnIsNull(EstadoSolicitud.PENDIENTE)).thenReturn(7L, 8L);
+        servicio = new ServicioVencimientosSolicitudes(
+                mock(ServicioSolicitudes.class), repositorio, Duration.ofHours(48), Duration.ofHours(1), registry
+        );
+    }
+
+    @Test
+    void leerLaMetricaNoConsultaLaBase() {
+        servicio.avanzar();
+
+        assertThat(pendientes()).isEqualTo(7);
+        assertThat(pendientes()).isEqualTo(7);
+        verify(repositorio, times(1)).countByEstadoSolicitudAndBorradoEnIsNull(EstadoSolicitud.PENDIENTE);
+    }
+
+    @Test
+    void sinCambiosElTickNoVuelveAContar() {
+        servicio.avanzar();
+        servicio.avanzar();
+
+        verify(repositorio, times(1)).countByEstadoSolicitudAndBorradoEnIsNull(EstadoSolicitud.PENDIENTE);
+    }
+
+    @Test
+    void variosCambiosSeRecuentanUnaSolaVezEnElSiguienteTick() {
+        servicio.avanzar();
+        servicio.actualizar(creada(1L));
+        servicio.actualizar(creada(2L));
+
+        servicio.avanzar();
+
+        assertThat(pendientes()).isEqualTo(8);
+        verify(repositorio, times(2)).countByEstadoSolicitudAndBorradoEnIsNull(EstadoSolicitud.PENDIENTE);
+    }
+
+    private double pendientes() {
+        Gauge gauge = registry.get("tfi.solicitudes.pendientes").gauge();
+        return gauge.value();
+    }
+
+    private static SolicitudActualizadaEvento creada(Long id) {
+        return new SolicitudActualizadaEvento(
+                id, 1L, SolicitudActualizadaEvento.TipoEvento.CREADA, "VACACIONES", "PENDIENTE", null, null
+        );
+    }
+}
@@ -0,0 +1,89 @@
+package com.adminrec.tfi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuedaTemporizadoresTest {
+    private static final long TICK_MS = 1000;
+
+    @Test
+    void venceRecienAlLlegarASuTick() {
+        RuedaTemporizadores<Long> rueda = new RuedaTemporizadores<>(TICK_MS, 0);
+        rueda.programar(1L, 5 * TICK_MS);
+
+        assertThat(rueda.avanzar(5 * TICK_MS - 1)).isEmpty();
+        assertThat(rueda.avanzar(5 * TICK_MS)).containsExactly(1L);
+        assertThat(rueda.cantidad()).isZero();
+    }
+
+    @Test
+    void unVencimientoPasadoSaleEnElSiguienteAvance() {
+        RuedaTemporizadores<Long> rueda = new RuedaTemporizadores<>(TICK_MS, 10 * TICK_MS);
+        rueda.programar(1L, 3 * TICK_MS);
+
+        assertThat(rueda.avanzar(10 * TICK_MS)).containsExactly(1L);
+    }
+
+    // 64 ranuras por nivel: 100 ticks va al nivel 1, 64^2 * 3 + 17 al nivel 2 y 64^3 * 5 + 9 al nivel 3
+    @Test
+    void lasEntradasDeNivelesSuperioresBajanYVencenEnSuTick() {
+        RuedaTemporizadores<Long> rueda = new RuedaTemporizadores<>(TICK_MS, 0);
+        long[] ticks = {100, 64L * 64 * 3 + 17, 64L * 64 * 64 * 5 + 9};
+
+        for (int i = 0; i < ticks.length; i++) rueda.programar((long) i, ticks[i] * TICK_MS);
+
+        for (int i = 0; i < ticks.length; i++) {
+            assertThat(rueda.avanzar((ticks[i] - 1) * TICK_MS)).isEmpty();
+            assertThat(rueda.avanzar(ticks[i] * TICK_MS)).containsExactly((long) i);
+        }
+    }
+
+    @Test
+    void unVencimientoMasAllaDeLaRuedaEnteraVuelveAUbicarse() {
+        long vuelta = 1L << 24;
+        RuedaTemporizadores<Long> rueda = new RuedaTemporizadores<>(1, 0);
+        rueda.programar(1L, vuelta + 12345);
+
+        assertThat(rueda.avanzar(vuelta + 12344)).isEmpty();
+        assertThat(rueda.avanzar(vuelta + 12345)).containsExactly(1L);
+    }
+
+    @Test
+    void cancelarEvitaElVencimientoAunqueLaEntradaBajeDeNivel() {
+        RuedaTemporizadores<Long> rueda = new RuedaTemporizadores<>(TICK_MS, 0);
+        rueda.programar(1L, 5 * TICK_MS);
+        rueda.programar(2L, 5000 * TICK_MS);
+        rueda.programar(3L, 5000 * TICK_MS);
+
+        rueda.cancelar(1L);
+        rueda.cancelar(2L);
+
+        assertThat(rueda.cantidad()).isEqualTo(1);
+        assertThat(rueda.avanzar(5 * TICK_MS)).isEmpty();
+        assertThat(rueda.avanzar(5000 * TICK_MS)).containsExactly(3L);
+    }
+
+    @Test
+    void reprogramarReemplazaElVencimientoAnterior() {
+        RuedaTemporizadores<Long> rueda = new RuedaTemporizadores<>(TICK_MS, 0);
+        rueda.programar(1L, 3 * TICK_MS);
+        rueda.programar(1L, 200 * TICK_MS);
+
+        assertThat(rueda.avanzar(3 * TICK_MS)).isEmpty();
+        assertThat(rueda.cantidad()).isEqualTo(1);
+        assertThat(rueda.avanzar(200 * TICK_MS)).containsExactly(1L);
+    }
+
+    @Test
+    void variasClavesDelMismoTickVencenJuntas() {
+        RuedaTemporizadores<Long> rueda = new RuedaTemporizadores<>(TICK_MS, 0);
+        for (long clave = 0; clave < 10; clave++) rueda.programar(clave, 70 * TICK_MS);
+
+        List<Long> vencidas = rueda.avanzar(70 * TICK_MS);
+
+        assertThat(vencidas).containsExactlyInAnyOrder(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+    }
+}
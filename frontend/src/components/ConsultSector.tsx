@@ -19,9 +19,9 @@ interface ApiEmployee {
   nombre: string;
   dni: number;
   correo: string;
-  domicilio: string;
-  fechaNacimiento: string;
-  fechaContratacion: string;
+  domicilio?: string;
+  fechaNacimiento?: string;
+  fechaContratacion?: string;
   telefono: string;
   esSupervisorDeSector: boolean;
   supervisor: ApiEmployee | null;
@@ -403,13 +403,15 @@ export function ConsultSector({ onBack }: ConsultSectorProps) {
                   </div>
                 </div>
 
-                <div className="flex items-start gap-3">
-                  <MapPin className="w-5 h-5 text-gray-400 mt-0.5" />
-                  <div>
-                    <p className="text-sm text-gray-500">Domicilio</p>
-                    <p className="text-gray-900">{selectedEmployee.domicilio}</p>
+                {selectedEmployee.domicilio && (
+                  <div className="flex items-start gap-3">
+                    <MapPin className="w-5 h-5 text-gray-400 mt-0.5" />
+                    <div>
+                      <p className="text-sm text-gray-500">Domicilio</p>
+                      <p className="text-gray-900">{selectedEmployee.domicilio}</p>
+                    </div>
                   </div>
-                </div>
+                )}
               </div>
 
               {/* Información personal */}
@@ -422,13 +424,15 @@ export function ConsultSector({ onBack }: ConsultSectorProps) {
                   </div>
                 </div>
 
-                <div className="flex items-start gap-3">
-                  <Calendar className="w-5 h-5 text-gray-400 mt-0.5" />
-                  <div>
-                    <p className="text-sm text-gray-500">Fecha de Nacimiento</p>
-                    <p className="text-gray-900">{formatDate(selectedEmployee.fechaNacimiento)}</p>
+                {selectedEmployee.fechaNacimiento && (
+                  <div className="flex items-start gap-3">
+                    <Calendar className="w-5 h-5 text-gray-400 mt-0.5" />
+                    <div>
+                      <p className="text-sm text-gray-500">Fecha de Nacimiento</p>
+                      <p className="text-gray-900">{formatDate(selectedEmployee.fechaNacimiento)}</p>
+                    </div>
                   </div>
-                </div>
+                )}
               </div>
 
               {/* Información laboral */}